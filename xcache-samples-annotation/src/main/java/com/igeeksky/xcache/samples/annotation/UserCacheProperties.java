@@ -0,0 +1,24 @@
+package com.igeeksky.xcache.samples.annotation;
+
+import com.igeeksky.xcache.samples.front.FrontCacheProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 用户缓存服务配置
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@ConfigurationProperties(prefix = "samples.user-cache")
+public class UserCacheProperties {
+
+    /**
+     * 前置缓存配置（stale-while-revalidate）
+     */
+    private final FrontCacheProperties front = new FrontCacheProperties();
+
+    public FrontCacheProperties getFront() {
+        return front;
+    }
+
+}
@@ -3,6 +3,8 @@ package com.igeeksky.xcache.samples.annotation;
 import com.igeeksky.xcache.annotation.*;
 import com.igeeksky.xcache.samples.User;
 import com.igeeksky.xcache.samples.UserDao;
+import com.igeeksky.xcache.samples.loader.UserLoader;
+import com.igeeksky.xtool.core.collection.Maps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Import;
@@ -20,7 +22,7 @@ import java.util.concurrent.CompletableFuture;
  * @author Patrick.Lau
  * @since 1.0.0 2024/9/13
  */
-@Import({UserDao.class})
+@Import({UserDao.class, UserLoader.class})
 @Service
 // @CacheConfig 统一配置缓存注解公共参数
 @CacheConfig(name = "user", keyType = Long.class, valueType = User.class)
@@ -29,9 +31,11 @@ public class UserCacheService {
     private static final Logger log = LoggerFactory.getLogger(UserCacheService.class);
 
     private final UserDao userDao;
+    private final UserLoader userLoader;
 
-    public UserCacheService(UserDao userDao) {
+    public UserCacheService(UserDao userDao, UserLoader userLoader) {
         this.userDao = userDao;
+        this.userLoader = userLoader;
     }
 
     /**
@@ -40,13 +44,15 @@ public class UserCacheService {
      * {@link Cacheable} 注解，对应 {@code V value = cache.get(K key, CacheLoader<K,V> loader) } 方法。
      * <p>
      * 如未配置 key 表达式，采用方法的第一个参数作为缓存键；如已配置 key 表达式，解析该表达式提取键.
+     * <p>
+     * 缓存未命中时才会执行方法体：通过 UserLoader 回源，启用微批加载时，并发的单键回源请求会合并为一次批量查询.
      *
      * @param id 用户ID
      * @return {@code User} – 用户信息
      */
     @Cacheable
     public User getUser(Long id) {
-        return userDao.findUser(id);
+        return userLoader.load(id);
     }
 
     /**
@@ -150,7 +156,8 @@ public class UserCacheService {
      */
     @CachePut(key = "#user.id", value = "#user")
     public User updateUser(User user) {
-        return userDao.update(user);
+        userDao.update(user);
+        return user;
     }
 
     /**
@@ -164,7 +171,10 @@ public class UserCacheService {
      */
     @CachePutAll
     public Map<Long, User> updateUsers(List<User> users) {
-        return userDao.batchUpdate(users);
+        userDao.batchUpdate(users);
+        Map<Long, User> updated = Maps.newHashMap(users.size());
+        users.forEach(user -> updated.put(user.getId(), user));
+        return updated;
     }
 
     /**
@@ -1,11 +1,21 @@
 package com.igeeksky.xcache.samples.annotation;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.igeeksky.xcache.extension.jackson.JacksonCodec;
 import com.igeeksky.xcache.samples.Response;
 import com.igeeksky.xcache.samples.User;
+import com.igeeksky.xcache.samples.UserDao;
+import com.igeeksky.xcache.samples.UserDaoProperties;
+import com.igeeksky.xcache.samples.front.FrontCache;
+import com.igeeksky.xcache.samples.front.FrontCacheProperties;
+import com.igeeksky.xcache.samples.front.FrontCacheSnapshot;
+import com.igeeksky.xcache.samples.front.SnapshotCodec;
 import com.igeeksky.xtool.core.collection.CollectionUtils;
 import com.igeeksky.xtool.core.lang.StringUtils;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Service;
 
 import java.util.Arrays;
@@ -20,14 +30,50 @@ import java.util.Set;
  * @since 1.0.0 2024/9/7
  */
 @Service
+@EnableConfigurationProperties(UserCacheProperties.class)
 public class UserService {
 
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
 
     private final UserCacheService userCacheService;
+    // 前置缓存（stale-while-revalidate，未启用时为 null）
+    // 需通过 Spring 代理调用 UserCacheService 的方法，缓存注解才会生效，因此前置缓存位于 UserService
+    private final FrontCache<Long, User> frontCache;
 
-    public UserService(UserCacheService userCacheService) {
+    public UserService(UserCacheService userCacheService, UserCacheProperties properties,
+                       UserDao userDao, UserDaoProperties userDaoProperties) {
         this.userCacheService = userCacheService;
+        FrontCacheProperties front = properties.getFront();
+        // 异步重新加载通过 @Cacheable 方法读取 xcache 缓存（不删除共享的缓存数据，热点数据重新加载时其它节点不会因此回源）
+        // 快照保存编码后的用户信息，启动时直接恢复到前置缓存，无需访问 xcache 缓存或数据库
+        this.frontCache = front.isEnabled()
+                ? new FrontCache<>("user-front", front, userCacheService::getUser,
+                frontSnapshot(front, userDao, userDaoProperties))
+                : null;
+    }
+
+    /**
+     * 前置缓存快照：仅当数据库同样启用持久化时才启用
+     * <p>
+     * 否则重启后数据库为空，快照中的用户均已不存在。快照记录数据库的纪元，纪元改变时（例如数据目录被删除）整个快照作废。
+     * <p>
+     * 值通过 xcache 的 JacksonCodec 编码，与 xcache 二级缓存默认的值编解码器（value-codec: jackson）一致。
+     *
+     * @return 快照（不启用时返回 null）
+     */
+    private static FrontCacheSnapshot<Long, User> frontSnapshot(FrontCacheProperties front, UserDao userDao,
+                                                                UserDaoProperties userDaoProperties) {
+        if (!front.getPersistence().isEnabled()) {
+            return null;
+        }
+        if (!userDaoProperties.getPersistence().isEnabled()) {
+            log.warn("user-front persistence ignored: samples.user-dao.persistence is disabled.");
+            return null;
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        JacksonCodec<User> codec = new JacksonCodec<>(mapper, mapper.getTypeFactory().constructType(User.class));
+        return new FrontCacheSnapshot<>(SnapshotCodec.longCodec(), SnapshotCodec.of(codec::encode, codec::decode),
+                userDao.getEpoch());
     }
 
     /**
@@ -38,6 +84,10 @@ public class UserService {
             return Response.error("id is null");
         }
         try {
+            if (frontCache != null) {
+                // 前置缓存：新鲜期内直接返回；宽限期内返回旧数据并通过 @CacheRemove 方法异步重新加载；否则通过 @Cacheable 方法同步加载
+                return Response.ok(frontCache.get(id, userCacheService::getUser));
+            }
             return Response.ok(userCacheService.getUser(id));
         } catch (RuntimeException e) {
             log.error(e.getMessage());
@@ -74,7 +124,9 @@ public class UserService {
             return error;
         }
         try {
-            return Response.ok(userCacheService.saveUser(user));
+            User created = userCacheService.saveUser(trimName(user));
+            frontPut(created);
+            return Response.ok(created);
         } catch (RuntimeException e) {
             log.error(e.getMessage());
             return Response.error(e.getMessage());
@@ -90,7 +142,9 @@ public class UserService {
             return error;
         }
         try {
-            return Response.ok(userCacheService.updateUser(user));
+            User updated = userCacheService.updateUser(trimName(user));
+            frontPut(updated);
+            return Response.ok(updated);
         } catch (RuntimeException e) {
             log.error(e.getMessage());
             return Response.error(e.getMessage());
@@ -111,7 +165,9 @@ public class UserService {
             }
         }
         try {
-            return Response.ok(userCacheService.updateUsers(users));
+            Map<Long, User> updated = userCacheService.updateUsers(users.stream().map(UserService::trimName).toList());
+            updated.values().forEach(this::frontPut);
+            return Response.ok(updated);
         } catch (RuntimeException e) {
             log.error(e.getMessage());
             return Response.error(e.getMessage());
@@ -127,6 +183,7 @@ public class UserService {
         }
         try {
             userCacheService.deleteUser(id);
+            frontRemove(id);
             return Response.ok();
         } catch (RuntimeException e) {
             log.error(e.getMessage());
@@ -148,6 +205,7 @@ public class UserService {
         }
         try {
             userCacheService.deleteUsers(ids);
+            ids.forEach(this::frontRemove);
             return Response.ok();
         } catch (RuntimeException e) {
             log.error(e.getMessage());
@@ -170,7 +228,6 @@ public class UserService {
         if (name == null) {
             return Response.error("user name is null");
         }
-        user.setName(name);
         return null;
     }
 
@@ -189,16 +246,27 @@ public class UserService {
         if (name == null) {
             return Response.error("user name is null");
         }
-        user.setName(name);
         return null;
     }
 
+    /**
+     * 去除用户名的首尾空白
+     * <p>
+     * User 为不可变对象，因此返回新的用户对象
+     */
+    private static User trimName(User user) {
+        return user.withName(StringUtils.trimToNull(user.getName()));
+    }
+
     /**
      * 清空数据库及缓存的所有元素，以便测试
      */
     public Response<Void> clear() {
         try {
             userCacheService.clear();
+            if (frontCache != null) {
+                frontCache.clear();
+            }
             return Response.ok();
         } catch (RuntimeException e) {
             log.error(e.getMessage());
@@ -206,4 +274,27 @@ public class UserService {
         }
     }
 
-}
\ No newline at end of file
+    private void frontPut(User user) {
+        if (frontCache != null) {
+            frontCache.put(user.getId(), user);
+        }
+    }
+
+    private void frontRemove(Long id) {
+        if (frontCache != null) {
+            frontCache.remove(id);
+        }
+    }
+
+    /**
+     * 停止前置缓存的异步重新加载（启用持久化时写入快照）
+     */
+    @PreDestroy
+    public void close() {
+        if (frontCache != null) {
+            frontCache.close();
+            log.info("user-front closed: {}", frontCache.getStats());
+        }
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.igeeksky.xcache.samples;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.igeeksky.xcache.samples.trace.CacheTrace;
 import com.igeeksky.xtool.core.json.SimpleJSON;
 
 import java.util.Objects;
@@ -16,6 +18,8 @@ public class Response<T> {
     private final int code;
     private final String msg;
     private final T data;
+    // 缓存访问路径追踪（诊断信息，仅在开启追踪时返回，不参与 equals 与 hashCode）
+    private final CacheTrace.Snapshot trace;
 
     public Response() {
         this(OK, "ok");
@@ -26,9 +30,14 @@ public class Response<T> {
     }
 
     public Response(int code, String msg, T data) {
+        this(code, msg, data, null);
+    }
+
+    public Response(int code, String msg, T data, CacheTrace.Snapshot trace) {
         this.code = code;
         this.msg = msg;
         this.data = data;
+        this.trace = trace;
     }
 
     public static <T> Response<T> ok() {
@@ -59,6 +68,21 @@ public class Response<T> {
         return data;
     }
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public CacheTrace.Snapshot getTrace() {
+        return trace;
+    }
+
+    /**
+     * 创建附带缓存访问路径追踪的新响应对象
+     *
+     * @param trace 追踪快照
+     * @return 新响应对象
+     */
+    public Response<T> withTrace(CacheTrace.Snapshot trace) {
+        return new Response<>(code, msg, data, trace);
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (this == o) return true;
@@ -1,27 +1,29 @@
 package com.igeeksky.xcache.samples;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.igeeksky.xtool.core.json.SimpleJSON;
 
 import java.util.Objects;
 
 /**
  * 用户实体类
+ * <p>
+ * 不可变对象：数据库与缓存可直接共享同一实例，读取时无需复制；如需修改，请通过 withXxx 方法创建新对象。
  *
  * @author Patrick.Lau
  * @since 1.0.0 2024/9/7
  */
-public class User implements Cloneable {
+public class User {
 
-    private Long id;
+    private final Long id;
 
-    private String name;
+    private final String name;
 
-    private Integer age;
+    private final Integer age;
 
-    public User() {
-    }
-
-    public User(Long id, String name, Integer age) {
+    @JsonCreator
+    public User(@JsonProperty("id") Long id, @JsonProperty("name") String name, @JsonProperty("age") Integer age) {
         this.id = id;
         this.name = name;
         this.age = age;
@@ -31,24 +33,42 @@ public class User implements Cloneable {
         return id;
     }
 
-    public void setId(Long id) {
-        this.id = id;
-    }
-
     public String getName() {
         return name;
     }
 
-    public void setName(String name) {
-        this.name = name;
-    }
-
     public Integer getAge() {
         return age;
     }
 
-    public void setAge(Integer age) {
-        this.age = age;
+    /**
+     * 创建 ID 为指定值的新用户对象
+     *
+     * @param id 用户ID
+     * @return 新用户对象
+     */
+    public User withId(Long id) {
+        return new User(id, this.name, this.age);
+    }
+
+    /**
+     * 创建用户名为指定值的新用户对象
+     *
+     * @param name 用户名
+     * @return 新用户对象
+     */
+    public User withName(String name) {
+        return new User(this.id, name, this.age);
+    }
+
+    /**
+     * 创建年龄为指定值的新用户对象
+     *
+     * @param age 年龄
+     * @return 新用户对象
+     */
+    public User withAge(Integer age) {
+        return new User(this.id, this.name, age);
     }
 
     @Override
@@ -72,13 +92,4 @@ public class User implements Cloneable {
         return SimpleJSON.toJSONString(this);
     }
 
-    @Override
-    public User clone() {
-        try {
-            return (User) super.clone();
-        } catch (CloneNotSupportedException e) {
-            throw new AssertionError();
-        }
-    }
-
-}
\ No newline at end of file
+}
@@ -1,58 +1,358 @@
 package com.igeeksky.xcache.samples;
 
+import com.igeeksky.xcache.samples.change.UserChange;
+import com.igeeksky.xcache.samples.change.UserChangeListener;
+import com.igeeksky.xcache.samples.change.UserChangePublisher;
+import com.igeeksky.xcache.samples.filter.LongBloomFilter;
+import com.igeeksky.xcache.samples.id.*;
+import com.igeeksky.xcache.samples.jfr.JfrEvents;
+import com.igeeksky.xcache.samples.jfr.JfrProperties;
+import com.igeeksky.xcache.samples.jfr.LockWaitEvent;
+import com.igeeksky.xcache.samples.latency.LatencyModel;
+import com.igeeksky.xcache.samples.store.LongUserStore;
+import com.igeeksky.xcache.samples.store.MapUserStore;
+import com.igeeksky.xcache.samples.store.UserLog;
+import com.igeeksky.xcache.samples.store.UserStore;
 import com.igeeksky.xtool.core.collection.Maps;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * @author Patrick.Lau
  * @since 1.0.0 2024/9/7
  */
 @Repository
+@EnableConfigurationProperties({UserDaoProperties.class, JfrProperties.class})
 public class UserDao {
 
+    private static final Logger log = LoggerFactory.getLogger(UserDao.class);
+
+    // 记录创建顺序的最近新增用户ID数量上限
+    private static final int RECENT_CAPACITY = 65536;
+    // 数据集纪元文件（位于持久化目录）
+    private static final String EPOCH_FILE = "users.epoch";
+
     // 读写锁（避免幻读）
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
-    // 模拟自增主键
-    private final AtomicLong idGenerator = new AtomicLong(1);
-    // 模拟数据库
-    private final Map<Long, User> database = new ConcurrentHashMap<>();
+    // 写操作使用写锁互斥；批量读取优先使用乐观读，仅当读取期间有写操作时才转为悲观读锁
+    // 注意：StampedLock 不可重入，因此已持有写锁的批量方法需调用无锁的 doXxx 方法
+    private final StampedLock lock = new StampedLock();
+    // 模拟自增主键（主键生成器可通过 samples.user-dao.id-generator 配置）
+    private final IdGenerator idGenerator;
+    // 模拟数据库（存储引擎可通过 samples.user-dao.store-type 配置）
+    private final UserStore database;
+    // 模拟唯一索引（name -> id），仅在持有写锁时修改，与 database 保持一致
+    private final Map<String, Long> nameIndex = new ConcurrentHashMap<>();
+    // 最近新增的用户ID（环形缓冲区，按创建顺序排列），仅在持有写锁时修改
+    private final long[] recentIds = new long[RECENT_CAPACITY];
+    // 下一个写入位置
+    private int recentTail;
+    // 已记录的用户ID数量（不超过 RECENT_CAPACITY）
+    private int recentCount;
+    // 持久化日志（未启用持久化时为 null）
+    private final UserLog userLog;
+    // 数据集纪元（启用持久化时保存在数据目录，重启后不变；否则每个实例随机生成）
+    private final long epoch;
+    // 日志刷盘与压缩任务调度器（未启用持久化时为 null）
+    private final ScheduledExecutorService scheduler;
+    // 日志压缩阈值
+    private final int compactThreshold;
+    // 数据变更发布器（无订阅者时不产生任何事件），在释放写锁之后发布，由发布器按版本号排序
+    private final UserChangePublisher changePublisher;
+    // 数据变更版本号，仅在持有写锁时递增，因此与写入顺序一致
+    private long version;
+    // 模拟数据源的访问延迟与故障（可通过 samples.user-dao.latency 配置）
+    private final LatencyModel findUserLatency;
+    private final LatencyModel findUserListLatency;
+    // 批量查询并行阈值（键数量达到此值时分区并行查询，小于等于 0 表示禁用）
+    private final int parallelThreshold;
+    // 批量查询分区大小
+    private final int partitionSize;
+    // 批量查询分区执行器（虚拟线程，禁用并行查询时为 null）
+    private final ExecutorService queryExecutor;
+    // 用户ID布隆过滤器配置
+    private final long bloomExpectedInsertions;
+    private final double bloomFpp;
+    // 用户ID布隆过滤器（未启用时为 null），仅在持有写锁时写入或替换
+    private volatile LongBloomFilter bloomFilter;
+    // JFR 事件（读写锁等待）
+    private final JfrEvents jfrEvents;
+
+    public UserDao(UserDaoProperties properties, JfrProperties jfrProperties) {
+        this.jfrEvents = new JfrEvents(jfrProperties.isEnabled());
+        UserDaoProperties.ChangeStream changeStream = properties.getChangeStream();
+        this.changePublisher = new UserChangePublisher(changeStream.getBatchSize(), changeStream.getCapacity(),
+                changeStream.getRetries(), changeStream.getRetryInterval());
+        UserDaoProperties.Latency latency = properties.getLatency();
+        this.findUserLatency = LatencyModel.of("findUser", latency.getFindUser());
+        this.findUserListLatency = LatencyModel.of("findUserList", latency.getFindUserList());
+        UserDaoProperties.Parallel parallel = properties.getParallel();
+        this.parallelThreshold = parallel.getThreshold();
+        this.partitionSize = Math.max(1, parallel.getPartitionSize());
+        this.queryExecutor = (parallelThreshold > 0)
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("user-dao-query-", 0).factory())
+                : null;
+        this.database = createStore(properties);
+        this.idGenerator = createIdGenerator(properties.getIdGenerator());
+        UserDaoProperties.Persistence persistence = properties.getPersistence();
+        this.compactThreshold = persistence.getCompactThreshold();
+        if (persistence.isEnabled()) {
+            this.userLog = new UserLog(Path.of(persistence.getDir()), persistence.getMappedSize());
+            this.recover();
+            this.epoch = loadEpoch(Path.of(persistence.getDir()));
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "user-dao-log");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = persistence.getFlushInterval();
+            this.scheduler.scheduleWithFixedDelay(this::flushLog, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.userLog = null;
+            this.scheduler = null;
+            this.epoch = ThreadLocalRandom.current().nextLong();
+        }
+        UserDaoProperties.BloomFilter bloom = properties.getBloomFilter();
+        this.bloomExpectedInsertions = bloom.getExpectedInsertions();
+        this.bloomFpp = bloom.getFpp();
+        if (bloom.isEnabled()) {
+            this.bloomFilter = buildBloomFilter();
+        }
+    }
+
+    /**
+     * 数据集纪元
+     * <p>
+     * 纪元相同说明数据仍是同一数据集（启用持久化且数据目录未被删除），据此判断本地保存的缓存快照是否仍然有效；
+     * 未启用持久化时，重启后数据为空，纪元随之改变。
+     *
+     * @return 数据集纪元
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * 判断用户ID是否可能存在
+     * <p>
+     * 返回 false 时用户一定不存在，调用方无需再查询缓存与数据库；未启用布隆过滤器时总是返回 true。
+     * <p>
+     * 注意：删除用户不会从布隆过滤器中移除其ID，直到过滤器因写入次数超过预期而重建。
+     *
+     * @param id 用户ID
+     * @return {@code false}：一定不存在；{@code true}：可能存在
+     */
+    public boolean mightExist(Long id) {
+        LongBloomFilter filter = bloomFilter;
+        return filter == null || (id != null && filter.mightContain(id));
+    }
 
     /**
      * 根据用户ID获取用户信息
      */
     public User findUser(Long id) {
-        lock.readLock().lock();
+        // 模拟延迟在读取之前且不持有任何锁，避免阻塞写操作与其它读操作
+        findUserLatency.apply(1);
+        // 单条读取无需加锁：存储引擎保证单条读写的原子性与可见性，且写操作总是整体替换对象，不会读到中间状态
+        // User 为不可变对象，因此可直接返回数据库中的实例，无需复制
+        return database.get(id);
+    }
+
+    /**
+     * 根据用户ID批量获取用户信息
+     * <p>
+     * 键数量小于并行阈值时顺序查询；否则按分区大小切分，并行查询各分区后合并结果。
+     */
+    public Map<Long, User> findUserList(Set<? extends Long> ids) {
+        if (parallelThreshold <= 0 || ids.size() < parallelThreshold) {
+            // 模拟延迟在获取锁之前，否则乐观读会因等待期间的写操作而频繁失效，悲观读锁则会阻塞写操作
+            findUserListLatency.apply(ids.size());
+            return consistentRead(() -> doFindUserList(ids));
+        }
+        List<List<Long>> partitions = partition(ids);
+        if (findUserListLatency.isEnabled()) {
+            // 相当于向数据库并发发送多个批量查询，总耗时取决于最慢的分区
+            invokeAll(partitions, partition -> {
+                findUserListLatency.apply(partition.size());
+                return null;
+            });
+        }
+        return consistentRead(() -> {
+            Map<Long, User> users = Maps.newHashMap(ids.size());
+            invokeAll(partitions, this::doFindUserList).forEach(users::putAll);
+            return users;
+        });
+    }
+
+    /**
+     * 读取一致的数据快照
+     * <p>
+     * StampedLock 的票据不绑定线程，因此由调用线程获取票据，分区查询线程在票据的保护下读取即可。
+     */
+    private Map<Long, User> consistentRead(Supplier<Map<Long, User>> reader) {
+        // 1. 乐观读：不阻塞也不等待写锁，读取完成后再校验期间是否有写操作
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            Map<Long, User> users = reader.get();
+            if (lock.validate(stamp)) {
+                return users;
+            }
+        }
+        // 2. 乐观读失败（读取期间有写操作），转为悲观读锁，避免读到批量写操作的中间状态
+        stamp = readLock();
         try {
-            User user = database.get(id);
-            return (user != null) ? user.clone() : null;
+            return reader.get();
         } finally {
-            lock.readLock().unlock();
+            lock.unlockRead(stamp);
         }
     }
 
     /**
-     * 根据用户ID批量获取用户信息
+     * 获取读锁（启用 JFR 事件时记录等待耗时）
      */
-    public Map<Long, User> findUserList(Set<? extends Long> ids) {
-        lock.readLock().lock();
+    private long readLock() {
+        LockWaitEvent event = jfrEvents.beginLock();
+        long stamp = lock.readLock();
+        jfrEvents.commit(event, "user-dao", "read");
+        return stamp;
+    }
+
+    /**
+     * 获取写锁（启用 JFR 事件时记录等待耗时）
+     */
+    private long writeLock() {
+        LockWaitEvent event = jfrEvents.beginLock();
+        long stamp = lock.writeLock();
+        jfrEvents.commit(event, "user-dao", "write");
+        return stamp;
+    }
+
+    /**
+     * 按分区大小切分用户ID集合
+     */
+    private List<List<Long>> partition(Set<? extends Long> ids) {
+        List<List<Long>> partitions = new ArrayList<>((ids.size() + partitionSize - 1) / partitionSize);
+        List<Long> partition = new ArrayList<>(partitionSize);
+        for (Long id : ids) {
+            partition.add(id);
+            if (partition.size() == partitionSize) {
+                partitions.add(partition);
+                partition = new ArrayList<>(partitionSize);
+            }
+        }
+        if (!partition.isEmpty()) {
+            partitions.add(partition);
+        }
+        return partitions;
+    }
+
+    /**
+     * 并行处理各分区：第一个分区由当前线程处理，其余分区提交给执行器
+     * <p>
+     * 任一分区失败时，取消其余分区并抛出异常。
+     */
+    private <R> List<R> invokeAll(List<List<Long>> partitions, Function<List<Long>, R> task) {
+        int size = partitions.size();
+        List<Future<R>> futures = new ArrayList<>(size - 1);
         try {
-            Map<Long, User> users = Maps.newHashMap(ids.size());
-            for (Long id : ids) {
-                User user = database.get(id);
-                if (user != null) {
-                    users.put(id, user.clone());
+            for (int i = 1; i < size; i++) {
+                List<Long> partition = partitions.get(i);
+                futures.add(queryExecutor.submit(() -> task.apply(partition)));
+            }
+            List<R> results = new ArrayList<>(size);
+            results.add(task.apply(partitions.get(0)));
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("findUserList interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * 根据用户名获取用户ID
+     * <p>
+     * 类似于数据库唯一索引：通过 nameIndex 查找，无需遍历全表
+     *
+     * @param name 用户名
+     * @return 用户ID（用户名不存在时返回 null）
+     */
+    public Long findIdByName(String name) {
+        findUserLatency.apply(1);
+        return (name == null) ? null : nameIndex.get(name);
+    }
+
+    /**
+     * 获取最新创建的用户ID（用于缓存预热）
+     * <p>
+     * 优先按创建顺序返回本进程最近新增且仍存在的用户ID（最多记录 65536 个）；
+     * 数量不足 limit 时（例如刚从持久化日志恢复，恢复的数据没有创建顺序），再以 ID 最大的用户补足。
+     * <p>
+     * 注意：ID 大小仅在使用 SEQUENCE 主键生成器时与创建顺序一致；使用 BLOCK 主键生成器时，
+     * 各节点、各线程租用的号段交错分配，补足部分只是近似的“最新”。
+     * <p>
+     * 补足时需遍历全表，因此仅适用于启动时等低频场景；遍历期间的并发写操作不保证可见。
+     *
+     * @param limit 最大数量
+     * @return 用户ID列表（先按创建顺序由新到旧，再按ID降序）
+     */
+    public List<Long> findLatestIds(int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        long stamp = readLock();
+        try {
+            for (int n = 0; n < recentCount && ids.size() < limit; n++) {
+                long id = recentIds[(recentTail - 1 - n + RECENT_CAPACITY) % RECENT_CAPACITY];
+                if (database.get(id) != null) {
+                    ids.add(id);
                 }
             }
-            return users;
         } finally {
-            lock.readLock().unlock();
+            lock.unlockRead(stamp);
         }
+        int remaining = limit - ids.size();
+        if (remaining <= 0) {
+            return new ArrayList<>(ids);
+        }
+        PriorityQueue<Long> heap = new PriorityQueue<>(Math.min(remaining, database.size()) + 1);
+        database.forEach(user -> {
+            Long id = user.getId();
+            if (!ids.contains(id)) {
+                heap.offer(id);
+                if (heap.size() > remaining) {
+                    heap.poll();
+                }
+            }
+        });
+        List<Long> largest = new ArrayList<>(heap);
+        largest.sort(Comparator.reverseOrder());
+        ids.addAll(largest);
+        return new ArrayList<>(ids);
     }
 
     /**
@@ -60,21 +360,36 @@ public class UserDao {
      * <p>
      * 如果用户名已存在，抛出异常
      *
-     * @param user 用户信息
+     * @param user 用户信息（无ID）
+     * @return 用户信息（有ID）
      */
     public User save(User user) {
-        lock.writeLock().lock();
+        // 主键在获取写锁之前生成：号段用完时需访问共享的号段来源（可能涉及文件锁与 IO），不应阻塞其它读写操作
+        long id = idGenerator.nextId();
+        User created;
+        UserChange change;
+        long stamp = writeLock();
         try {
             String name = user.getName();
             if (isExistName(name)) {
                 throw new RuntimeException("name:[" + name + "] is exist");
             }
-            user.setId(idGenerator.getAndIncrement());
-            database.put(user.getId(), user.clone());
-            return user;
+            // 生成主键之后、获取写锁之前，可能有并发的 clear() 重置了自增主键生成器，需跳过已被占用的主键
+            while (database.get(id) != null) {
+                id = idGenerator.nextId();
+            }
+            created = user.withId(id);
+            // 先写入布隆过滤器再发布用户：读操作无锁，一旦能读到此用户（包括通过变更事件），mightExist 必须返回 true
+            bloomPut(created.getId());
+            database.put(created.getId(), created);
+            indexName(name, created.getId());
+            recordCreated(created.getId());
+            change = recordPut(created, null);
         } finally {
-            lock.writeLock().unlock();
+            lock.unlockWrite(stamp);
         }
+        changePublisher.publish(change);
+        return created;
     }
 
     /**
@@ -83,44 +398,50 @@ public class UserDao {
      * 如果用户不存在，抛出异常
      *
      * @param user 用户信息
+     * @return 更新前的用户信息（与 {@link #delete(Long)} 一致，调用方可据此清理旧用户名的索引缓存）
      */
     public User update(User user) {
-        lock.writeLock().lock();
+        User old;
+        UserChange change;
+        long stamp = writeLock();
         try {
-            Long id = user.getId();
-            User old = database.get(id);
-            if (old == null) {
-                throw new RuntimeException("user is not exist");
-            }
-            String name = user.getName();
-            if (!Objects.equals(old.getName(), name)) {
-                if (isExistName(name)) {
-                    throw new RuntimeException("name:[" + name + "] is exist");
-                }
-            }
-            database.put(id, user.clone());
-            return user;
+            old = doUpdate(user);
+            change = recordPut(user, old);
         } finally {
-            lock.writeLock().unlock();
+            lock.unlockWrite(stamp);
         }
+        changePublisher.publish(change);
+        return old;
     }
 
     /**
      * 批量更新用户信息
+     * <p>
+     * 先校验整个批次，全部校验通过后再一次性写入；任一用户校验失败则抛出异常，且不会更新任何数据。
+     * <p>
+     * 如果用户不存在、批次内用户ID重复、批次内用户名重复、用户名已被批次外的其它用户使用，抛出异常
      *
      * @param users 用户信息集合
+     * @return 批次内所有用户更新前的信息
      */
     public Map<Long, User> batchUpdate(List<User> users) {
-        Map<Long, User> map = Maps.newHashMap(users.size());
-        lock.writeLock().lock();
+        List<UserChange> changes = new ArrayList<>(users.size());
+        long stamp = writeLock();
         try {
+            Map<Long, User> olds = validateBatchUpdate(users);
+            // 先移除旧用户名索引，再添加新用户名索引（批次内用户可能互换用户名）
+            olds.values().forEach(old -> unindexName(old.getName()));
             for (User user : users) {
-                User updated = this.update(user);
-                map.put(updated.getId(), updated);
+                Long id = user.getId();
+                database.put(id, user);
+                indexName(user.getName(), id);
             }
-            return map;
+            // 整个批次写入数据库之后，再写日志并生成变更事件
+            users.forEach(user -> changes.add(recordPut(user, olds.get(user.getId()))));
+            return olds;
         } finally {
-            lock.writeLock().unlock();
+            lock.unlockWrite(stamp);
+            changePublisher.publish(changes);
         }
     }
 
@@ -128,29 +449,49 @@ public class UserDao {
      * 删除用户信息
      *
      * @param id 用户ID
+     * @return 被删除的用户信息（用户不存在时返回 null）
      */
-    public void delete(Long id) {
-        lock.writeLock().lock();
+    public User delete(Long id) {
+        User old;
+        UserChange change = null;
+        long stamp = writeLock();
         try {
-            database.remove(id);
+            old = doDelete(id);
+            if (old != null) {
+                change = recordDelete(old);
+            }
         } finally {
-            lock.writeLock().unlock();
+            lock.unlockWrite(stamp);
+        }
+        if (change != null) {
+            changePublisher.publish(change);
         }
+        return old;
     }
 
     /**
      * 批量删除用户信息
      *
      * @param ids 用户ID集合
+     * @return 已删除的用户信息集合（不存在的用户ID不包含在内）
      */
-    public void batchDelete(Set<Long> ids) {
-        lock.writeLock().lock();
+    public Map<Long, User> batchDelete(Set<Long> ids) {
+        Map<Long, User> deleted = Maps.newHashMap(ids.size());
+        List<UserChange> changes = new ArrayList<>(ids.size());
+        long stamp = writeLock();
         try {
             for (Long id : ids) {
-                this.delete(id);
+                User old = doDelete(id);
+                if (old != null) {
+                    deleted.put(id, old);
+                }
             }
+            // 整个批次写入数据库之后，再写日志并生成变更事件
+            deleted.values().forEach(old -> changes.add(recordDelete(old)));
+            return deleted;
         } finally {
-            lock.writeLock().unlock();
+            lock.unlockWrite(stamp);
+            changePublisher.publish(changes);
         }
     }
 
@@ -158,28 +499,351 @@ public class UserDao {
      * 清空数据
      */
     public void clear() {
-        lock.writeLock().lock();
+        UserChange change;
+        long stamp = writeLock();
         try {
             database.clear();
-            idGenerator.set(1L);
+            nameIndex.clear();
+            recentTail = 0;
+            recentCount = 0;
+            idGenerator.reset();
+            if (bloomFilter != null) {
+                bloomFilter = new LongBloomFilter(bloomExpectedInsertions, bloomFpp);
+            }
+            change = recordClear();
         } finally {
-            lock.writeLock().unlock();
+            lock.unlockWrite(stamp);
         }
+        changePublisher.publish(change);
+    }
+
+    /**
+     * 订阅数据变更事件
+     * <p>
+     * 所有写操作（包括绕过缓存服务直接调用 UserDao 的写操作）写入数据库并释放写锁之后发布变更事件，
+     * 由后台线程按版本号顺序批量投递给监听器，因此监听器收到事件时，数据库中已是变更后的数据。
+     *
+     * @param listener 监听器
+     */
+    public void subscribe(UserChangeListener listener) {
+        changePublisher.subscribe(listener);
+    }
+
+    /**
+     * 取消订阅数据变更事件
+     *
+     * @param listener 监听器
+     */
+    public void unsubscribe(UserChangeListener listener) {
+        changePublisher.unsubscribe(listener);
+    }
+
+    /**
+     * 关闭：停止并行查询与变更投递，停止日志定时任务，并将所有数据刷到磁盘
+     */
+    @PreDestroy
+    public void close() {
+        changePublisher.close();
+        if (queryExecutor != null) {
+            queryExecutor.shutdownNow();
+        }
+        if (userLog == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long stamp = writeLock();
+        try {
+            userLog.close();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 根据配置创建存储引擎
+     */
+    private static UserStore createStore(UserDaoProperties properties) {
+        int initialCapacity = properties.getInitialCapacity();
+        return switch (properties.getStoreType()) {
+            case MAP -> new MapUserStore(initialCapacity);
+            case LONG -> new LongUserStore(initialCapacity);
+        };
+    }
+
+    /**
+     * 根据配置创建主键生成器
+     */
+    private static IdGenerator createIdGenerator(UserDaoProperties.IdGeneratorProperties properties) {
+        return switch (properties.getType()) {
+            case SEQUENCE -> new SequenceIdGenerator();
+            case BLOCK -> {
+                String blockFile = properties.getBlockFile();
+                IdBlockSource source = (blockFile == null || blockFile.isBlank())
+                        ? new LocalIdBlockSource() : new FileIdBlockSource(Path.of(blockFile));
+                yield new BlockIdGenerator(source, properties.getNodeBlockSize(), properties.getStripeBlockSize());
+            }
+        };
+    }
+
+    /**
+     * 根据用户ID批量获取用户信息（调用方负责加锁或校验乐观读）
+     */
+    private Map<Long, User> doFindUserList(Collection<? extends Long> ids) {
+        Map<Long, User> users = Maps.newHashMap(ids.size());
+        for (Long id : ids) {
+            User user = database.get(id);
+            if (user != null) {
+                users.put(id, user);
+            }
+        }
+        return users;
+    }
+
+    /**
+     * 更新用户信息（调用方需持有写锁，并在此之后调用 recordPut）
+     * <p>
+     * 如果用户不存在，抛出异常
+     *
+     * @return 更新前的用户信息
+     */
+    private User doUpdate(User user) {
+        Long id = user.getId();
+        User old = database.get(id);
+        if (old == null) {
+            throw new RuntimeException("user is not exist");
+        }
+        String name = user.getName();
+        String oldName = old.getName();
+        boolean renamed = !Objects.equals(oldName, name);
+        if (renamed && isExistName(name)) {
+            throw new RuntimeException("name:[" + name + "] is exist");
+        }
+        database.put(id, user);
+        if (renamed) {
+            unindexName(oldName);
+            indexName(name, id);
+        }
+        return old;
+    }
+
+    /**
+     * 批量校验待更新的用户信息（调用方需持有写锁）
+     *
+     * @param users 用户信息集合
+     * @return 批次内所有用户更新前的信息
+     */
+    private Map<Long, User> validateBatchUpdate(List<User> users) {
+        int size = users.size();
+        Map<Long, User> olds = Maps.newHashMap(size);
+        Map<String, Long> names = Maps.newHashMap(size);
+        for (User user : users) {
+            Long id = user.getId();
+            User old = database.get(id);
+            if (old == null) {
+                throw new RuntimeException("user:[" + id + "] is not exist");
+            }
+            if (olds.put(id, old) != null) {
+                throw new RuntimeException("id:[" + id + "] is duplicate");
+            }
+            String name = user.getName();
+            if (name != null && names.put(name, id) != null) {
+                throw new RuntimeException("name:[" + name + "] is duplicate");
+            }
+        }
+        // 批次内用户名已不重复：如果用户名被批次内的其它用户占用，那么该用户必然会改名，因此仅需检查批次外的用户
+        for (Map.Entry<String, Long> entry : names.entrySet()) {
+            Long owner = nameIndex.get(entry.getKey());
+            if (owner != null && !owner.equals(entry.getValue()) && !olds.containsKey(owner)) {
+                throw new RuntimeException("name:[" + entry.getKey() + "] is exist");
+            }
+        }
+        return olds;
+    }
+
+    /**
+     * 删除用户信息（调用方需持有写锁，并在此之后调用 recordDelete）
+     *
+     * @return 被删除的用户信息，如果用户不存在则返回 null
+     */
+    private User doDelete(Long id) {
+        User old = database.get(id);
+        if (old == null) {
+            return null;
+        }
+        database.remove(id);
+        unindexName(old.getName());
+        return old;
+    }
+
+    /**
+     * 读取数据集纪元，文件不存在时（新的数据目录）随机生成并保存
+     */
+    private static long loadEpoch(Path dir) {
+        Path file = dir.resolve(EPOCH_FILE);
+        try {
+            if (Files.exists(file)) {
+                byte[] bytes = Files.readAllBytes(file);
+                if (bytes.length == Long.BYTES) {
+                    return ByteBuffer.wrap(bytes).getLong();
+                }
+                log.warn("UserDao epoch file is invalid, regenerate: {}", file);
+            }
+            long generated = ThreadLocalRandom.current().nextLong();
+            Path temp = dir.resolve(EPOCH_FILE + ".tmp");
+            Files.write(temp, ByteBuffer.allocate(Long.BYTES).putLong(generated).array());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return generated;
+        } catch (IOException e) {
+            throw new UncheckedIOException("UserDao load epoch failed. dir:" + dir, e);
+        }
+    }
+
+    /**
+     * 从快照与日志恢复数据，并重建唯一索引与自增主键
+     */
+    private void recover() {
+        long start = System.currentTimeMillis();
+        userLog.recover(database);
+        long[] maxId = {0L};
+        database.forEach(user -> {
+            indexName(user.getName(), user.getId());
+            maxId[0] = Math.max(maxId[0], user.getId());
+        });
+        idGenerator.advance(maxId[0] + 1);
+        log.info("UserDao recovered {} users in {} ms.", database.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 根据当前数据创建布隆过滤器（容量至少为当前数据量的两倍，以免频繁重建）
+     */
+    private LongBloomFilter buildBloomFilter() {
+        long start = System.currentTimeMillis();
+        LongBloomFilter filter = new LongBloomFilter(Math.max(bloomExpectedInsertions, 2L * database.size()), bloomFpp);
+        database.forEach(user -> filter.put(user.getId()));
+        log.info("UserDao bloom filter built: users: {}, bits: {}, hashes: {}, in {} ms.",
+                database.size(), filter.bitSize(), filter.hashCount(), System.currentTimeMillis() - start);
+        return filter;
+    }
+
+    /**
+     * 将新增的用户ID写入布隆过滤器（调用方需持有写锁，且须在用户写入数据库之前调用）
+     */
+    private void bloomPut(long id) {
+        LongBloomFilter filter = bloomFilter;
+        if (filter == null) {
+            return;
+        }
+        if (filter.insertions() >= filter.expectedInsertions()) {
+            // 写入次数已达预期（含已删除的用户ID），误判率开始上升：按当前数据重建
+            // 新用户尚未写入数据库，须在替换之前写入新的过滤器
+            LongBloomFilter rebuilt = buildBloomFilter();
+            rebuilt.put(id);
+            bloomFilter = rebuilt;
+        } else {
+            filter.put(id);
+        }
+    }
+
+    /**
+     * 定时任务：日志刷盘（组提交），日志过大时执行压缩
+     */
+    private void flushLog() {
+        try {
+            userLog.flush();
+            if (userLog.size() >= compactThreshold) {
+                // 仅在持有写锁时切换日志文件（耗时很短），保证旧日志的记录均已写入数据库；
+                // 写快照在锁外执行，不阻塞读写操作，快照期间的写操作由新日志重放
+                long logEpoch;
+                long stamp = writeLock();
+                try {
+                    logEpoch = userLog.rotate();
+                } finally {
+                    lock.unlockWrite(stamp);
+                }
+                userLog.snapshot(database, logEpoch);
+            }
+        } catch (RuntimeException e) {
+            log.error("UserDao flush log failed. {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 记录变更：新增或更新（调用方需持有写锁，且已写入数据库）
+     * <p>
+     * 追加日志，并生成变更事件；日志写入成功后才分配版本号，调用方须在释放写锁之后发布返回的事件
+     */
+    private UserChange recordPut(User user, User previous) {
+        if (userLog != null) {
+            userLog.appendPut(user);
+        }
+        return UserChange.put(user, previous, ++version);
+    }
+
+    /**
+     * 记录变更：删除（调用方需持有写锁，且已从数据库删除）
+     * <p>
+     * 追加日志，并生成变更事件；日志写入成功后才分配版本号，调用方须在释放写锁之后发布返回的事件
+     */
+    private UserChange recordDelete(User previous) {
+        if (userLog != null) {
+            userLog.appendDelete(previous.getId());
+        }
+        return UserChange.delete(previous, ++version);
+    }
+
+    /**
+     * 记录变更：清空（调用方需持有写锁，且已清空数据库）
+     * <p>
+     * 追加日志，并生成变更事件；日志写入成功后才分配版本号，调用方须在释放写锁之后发布返回的事件
+     */
+    private UserChange recordClear() {
+        if (userLog != null) {
+            userLog.appendClear();
+        }
+        return UserChange.clear(++version);
     }
 
     /**
      * 判断用户名是否已存在
      * <p>
-     * 类似于数据库唯一索引
+     * 类似于数据库唯一索引：通过 nameIndex 查找，无需遍历全表
      */
     private boolean isExistName(String name) {
-        Collection<User> values = database.values();
-        for (User user : values) {
-            if (Objects.equals(name, user.getName())) {
-                return true;
-            }
+        return name != null && nameIndex.containsKey(name);
+    }
+
+    /**
+     * 添加唯一索引（调用方需持有写锁）
+     */
+    private void indexName(String name, Long id) {
+        if (name != null) {
+            nameIndex.put(name, id);
+        }
+    }
+
+    /**
+     * 删除唯一索引（调用方需持有写锁）
+     */
+    private void unindexName(String name) {
+        if (name != null) {
+            nameIndex.remove(name);
+        }
+    }
+
+    /**
+     * 记录新增的用户ID（调用方需持有写锁），超出容量时覆盖最早的记录
+     */
+    private void recordCreated(long id) {
+        recentIds[recentTail] = id;
+        recentTail = (recentTail + 1) % RECENT_CAPACITY;
+        if (recentCount < RECENT_CAPACITY) {
+            recentCount++;
         }
-        return false;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,407 @@
+package com.igeeksky.xcache.samples;
+
+import com.igeeksky.xcache.samples.id.IdGeneratorType;
+import com.igeeksky.xcache.samples.latency.LatencyProperties;
+import com.igeeksky.xcache.samples.store.StoreType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 模拟数据库配置
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@ConfigurationProperties(prefix = "samples.user-dao")
+public class UserDaoProperties {
+
+    /**
+     * 存储引擎类型（默认值：MAP）
+     */
+    private StoreType storeType = StoreType.MAP;
+
+    /**
+     * 存储引擎初始容量（默认值：1024）
+     */
+    private int initialCapacity = 1024;
+
+    /**
+     * 持久化配置
+     */
+    private final Persistence persistence = new Persistence();
+
+    /**
+     * 主键生成器配置
+     */
+    private final IdGeneratorProperties idGenerator = new IdGeneratorProperties();
+
+    /**
+     * 延迟与故障模拟配置
+     */
+    private final Latency latency = new Latency();
+
+    /**
+     * 批量查询并行配置
+     */
+    private final Parallel parallel = new Parallel();
+
+    /**
+     * 数据变更事件配置
+     */
+    private final ChangeStream changeStream = new ChangeStream();
+
+    /**
+     * 用户ID布隆过滤器配置
+     */
+    private final BloomFilter bloomFilter = new BloomFilter();
+
+    public StoreType getStoreType() {
+        return storeType;
+    }
+
+    public void setStoreType(StoreType storeType) {
+        this.storeType = storeType;
+    }
+
+    public int getInitialCapacity() {
+        return initialCapacity;
+    }
+
+    public void setInitialCapacity(int initialCapacity) {
+        this.initialCapacity = initialCapacity;
+    }
+
+    public Persistence getPersistence() {
+        return persistence;
+    }
+
+    public IdGeneratorProperties getIdGenerator() {
+        return idGenerator;
+    }
+
+    public Latency getLatency() {
+        return latency;
+    }
+
+    public Parallel getParallel() {
+        return parallel;
+    }
+
+    public ChangeStream getChangeStream() {
+        return changeStream;
+    }
+
+    public BloomFilter getBloomFilter() {
+        return bloomFilter;
+    }
+
+    /**
+     * 持久化配置
+     * <p>
+     * 启用后，写操作会追加到日志文件，应用重启时从快照与日志恢复数据，无需重新初始化数据。
+     */
+    public static class Persistence {
+
+        /**
+         * 是否启用持久化（默认值：false）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 数据目录（默认值：data/user-dao）
+         */
+        private String dir = "data/user-dao";
+
+        /**
+         * 日志文件每次映射的最小长度（默认值：67108864 单位：字节）
+         */
+        private int mappedSize = 64 * 1024 * 1024;
+
+        /**
+         * 日志刷盘间隔，即组提交周期（默认值：10 单位：毫秒）
+         * <p>
+         * 进程崩溃不会丢失数据，操作系统崩溃或断电最多丢失此间隔内的写操作。
+         */
+        private long flushInterval = 10;
+
+        /**
+         * 日志长度超过此阈值时，生成快照并切换到新的日志文件（默认值：268435456 单位：字节）
+         */
+        private int compactThreshold = 256 * 1024 * 1024;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDir() {
+            return dir;
+        }
+
+        public void setDir(String dir) {
+            this.dir = dir;
+        }
+
+        public int getMappedSize() {
+            return mappedSize;
+        }
+
+        public void setMappedSize(int mappedSize) {
+            this.mappedSize = mappedSize;
+        }
+
+        public long getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(long flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public int getCompactThreshold() {
+            return compactThreshold;
+        }
+
+        public void setCompactThreshold(int compactThreshold) {
+            this.compactThreshold = compactThreshold;
+        }
+
+    }
+
+    /**
+     * 主键生成器配置
+     */
+    public static class IdGeneratorProperties {
+
+        /**
+         * 主键生成器类型（默认值：SEQUENCE）
+         */
+        private IdGeneratorType type = IdGeneratorType.SEQUENCE;
+
+        /**
+         * 号段文件（仅适用于 BLOCK 类型）
+         * <p>
+         * 如果配置，多个应用实例通过此文件共享号段，避免主键冲突；如未配置，则仅在当前 JVM 内分配号段。
+         */
+        private String blockFile;
+
+        /**
+         * 节点每次从号段来源租借的主键数量（默认值：10000，仅适用于 BLOCK 类型）
+         */
+        private int nodeBlockSize = 10000;
+
+        /**
+         * 每个分段每次从节点号段租借的主键数量（默认值：100，仅适用于 BLOCK 类型）
+         * <p>
+         * 分段数量为 CPU 核数的两倍（向上取 2 的幂），线程按线程ID散列到分段。
+         */
+        private int stripeBlockSize = 100;
+
+        public IdGeneratorType getType() {
+            return type;
+        }
+
+        public void setType(IdGeneratorType type) {
+            this.type = type;
+        }
+
+        public String getBlockFile() {
+            return blockFile;
+        }
+
+        public void setBlockFile(String blockFile) {
+            this.blockFile = blockFile;
+        }
+
+        public int getNodeBlockSize() {
+            return nodeBlockSize;
+        }
+
+        public void setNodeBlockSize(int nodeBlockSize) {
+            this.nodeBlockSize = nodeBlockSize;
+        }
+
+        public int getStripeBlockSize() {
+            return stripeBlockSize;
+        }
+
+        public void setStripeBlockSize(int stripeBlockSize) {
+            this.stripeBlockSize = stripeBlockSize;
+        }
+
+    }
+
+    /**
+     * 延迟与故障模拟配置
+     * <p>
+     * 默认无延迟；配置后，读操作会在锁外阻塞一段时间，并按故障率抛出异常，以模拟真实数据库的响应时间与偶发故障。
+     */
+    public static class Latency {
+
+        /**
+         * 单条查询（findUser）的延迟与故障模型
+         */
+        private final LatencyProperties findUser = new LatencyProperties();
+
+        /**
+         * 批量查询（findUserList）的延迟与故障模型
+         */
+        private final LatencyProperties findUserList = new LatencyProperties();
+
+        public LatencyProperties getFindUser() {
+            return findUser;
+        }
+
+        public LatencyProperties getFindUserList() {
+            return findUserList;
+        }
+
+    }
+
+    /**
+     * 批量查询并行配置
+     * <p>
+     * 键数量达到阈值时，findUserList 将键集合切分为多个分区，使用虚拟线程并行查询。
+     * 纯内存查询时，分区调度的开销仅在数千个键以上才能被摊薄；模拟延迟时，并行可将总耗时降至单个分区的耗时。
+     */
+    public static class Parallel {
+
+        /**
+         * 并行阈值（默认值：4096，小于等于 0 表示禁用并行查询）
+         */
+        private int threshold = 4096;
+
+        /**
+         * 分区大小（默认值：1024）
+         */
+        private int partitionSize = 1024;
+
+        public int getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(int threshold) {
+            this.threshold = threshold;
+        }
+
+        public int getPartitionSize() {
+            return partitionSize;
+        }
+
+        public void setPartitionSize(int partitionSize) {
+            this.partitionSize = partitionSize;
+        }
+
+    }
+
+    /**
+     * 数据变更事件配置
+     */
+    public static class ChangeStream {
+
+        /**
+         * 每批投递的最大事件数量（默认值：256）
+         */
+        private int batchSize = 256;
+
+        /**
+         * 待投递事件的队列容量（默认值：65536），队列已满时写操作不阻塞，之后的事件按用户ID合并为删除缓存的事件
+         */
+        private int capacity = 65536;
+
+        /**
+         * 监听器处理失败后的重试次数（默认值：3），重试次数用尽后由监听器补偿（例如删除相关缓存）
+         */
+        private int retries = 3;
+
+        /**
+         * 重试间隔（默认值：100 单位：毫秒）
+         */
+        private long retryInterval = 100;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getRetries() {
+            return retries;
+        }
+
+        public void setRetries(int retries) {
+            this.retries = retries;
+        }
+
+        public long getRetryInterval() {
+            return retryInterval;
+        }
+
+        public void setRetryInterval(long retryInterval) {
+            this.retryInterval = retryInterval;
+        }
+
+    }
+
+    /**
+     * 用户ID布隆过滤器配置
+     * <p>
+     * 启用后，查询不存在的用户ID时可直接返回，无需查询缓存与数据库，避免缓存穿透。
+     * 内存占用约为 -n × ln(fpp) / (ln2)² 位，例如 1000 万个用户ID、误判率 0.01 时约 11.4 MB。
+     */
+    public static class BloomFilter {
+
+        /**
+         * 是否启用布隆过滤器（默认值：false）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 预期写入的用户ID数量（默认值：1000000），实际写入次数超过此值时按当前数据量的两倍重建
+         */
+        private long expectedInsertions = 1_000_000;
+
+        /**
+         * 预期误判率（默认值：0.01）
+         */
+        private double fpp = 0.01;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getExpectedInsertions() {
+            return expectedInsertions;
+        }
+
+        public void setExpectedInsertions(long expectedInsertions) {
+            this.expectedInsertions = expectedInsertions;
+        }
+
+        public double getFpp() {
+            return fpp;
+        }
+
+        public void setFpp(double fpp) {
+            this.fpp = fpp;
+        }
+
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.igeeksky.xcache.samples.change;
+
+/**
+ * 数据变更类型
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public enum ChangeType {
+
+    /**
+     * 新增或更新
+     */
+    PUT,
+
+    /**
+     * 删除
+     */
+    DELETE,
+
+    /**
+     * 清空
+     */
+    CLEAR,
+
+    /**
+     * 删除缓存：发布器队列已满时，同一用户的多个变更事件合并为此事件，监听器应删除该用户的缓存
+     */
+    EVICT
+
+}
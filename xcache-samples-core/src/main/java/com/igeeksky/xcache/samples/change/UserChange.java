@@ -0,0 +1,44 @@
+package com.igeeksky.xcache.samples.change;
+
+import com.igeeksky.xcache.samples.User;
+
+/**
+ * 用户数据变更事件
+ *
+ * @param id       用户ID（CLEAR 事件为 0）
+ * @param type     变更类型
+ * @param version  版本号（严格递增，与数据库中的写入顺序一致）
+ * @param user     变更后的用户信息（PUT 事件有值；EVICT 事件为最后一次变更后的用户信息，已删除时为 null；其余为 null）
+ * @param previous 变更前的用户信息（新增及 CLEAR 事件为 null；EVICT 事件为第一次变更前的用户信息），可用于清理旧用户名的索引缓存
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public record UserChange(long id, ChangeType type, long version, User user, User previous) {
+
+    public static UserChange put(User user, User previous, long version) {
+        return new UserChange(user.getId(), ChangeType.PUT, version, user, previous);
+    }
+
+    public static UserChange delete(User previous, long version) {
+        return new UserChange(previous.getId(), ChangeType.DELETE, version, null, previous);
+    }
+
+    public static UserChange clear(long version) {
+        return new UserChange(0L, ChangeType.CLEAR, version, null, null);
+    }
+
+    /**
+     * 将新增、更新或删除事件转换为 EVICT 事件
+     */
+    public static UserChange evict(UserChange change) {
+        return new UserChange(change.id, ChangeType.EVICT, change.version, change.user, change.previous);
+    }
+
+    /**
+     * 合并同一用户的两个 EVICT 事件：保留较早的变更前用户信息，以及较晚的版本号与变更后用户信息
+     */
+    public static UserChange evict(UserChange older, UserChange newer) {
+        return new UserChange(newer.id, ChangeType.EVICT, newer.version, newer.user, older.previous);
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.igeeksky.xcache.samples.change;
+
+import java.util.List;
+
+/**
+ * 用户数据变更监听器
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@FunctionalInterface
+public interface UserChangeListener {
+
+    /**
+     * 处理一批变更事件
+     * <p>
+     * 同一监听器的事件由单一线程按版本号顺序投递，因此无需考虑并发与乱序。
+     * <p>
+     * 发布器队列溢出后，投递的是合并后的 {@link ChangeType#EVICT} 事件（可能位于一个 CLEAR 事件之后），
+     * 这些事件之间的顺序无关紧要，监听器删除相应的缓存即可。
+     *
+     * @param changes 变更事件（按版本号升序；EVICT 事件除外）
+     */
+    void onChanges(List<UserChange> changes);
+
+    /**
+     * 一批变更事件处理失败且重试次数已用尽
+     * <p>
+     * 实现类应进行补偿，例如删除这批事件涉及的缓存数据，使后续读取从数据源重新加载。默认不做任何处理。
+     *
+     * @param changes 处理失败的变更事件（按版本号升序）
+     * @param cause   最后一次处理失败的异常
+     */
+    default void onFailure(List<UserChange> changes, RuntimeException cause) {
+    }
+
+}
@@ -0,0 +1,302 @@
+package com.igeeksky.xcache.samples.change;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 用户数据变更发布器
+ * <p>
+ * 写操作仅将事件放入队列，由后台线程批量投递给监听器，因此写操作的耗时与缓存维护解耦。
+ * <p>
+ * 顺序：数据源在释放锁之后才发布事件，因此并发写操作的发布顺序可能与版本号顺序不一致。
+ * 版本号须从 1 开始连续递增（包括无监听器时），发布器按版本号重新排序，仅当之前的版本均已到达时才将事件放入队列。
+ * <p>
+ * 溢出：发布从不阻塞。监听器处理过慢导致队列已满时，队列中及之后的事件按用户ID合并为 {@link ChangeType#EVICT} 事件，
+ * 监听器据此删除缓存，使后续读取从数据源重新加载；待合并的事件全部投递之后，恢复逐条投递。
+ * 因此内存占用的上限为队列容量加上发生变更的用户数量，且监听器变慢（例如 Redis 不可用而不断重试）时写操作不受影响。
+ * <p>
+ * 失败处理：监听器抛出异常时，间隔一段时间后重试整批事件；重试次数用尽后调用
+ * {@link UserChangeListener#onFailure(List, RuntimeException)}，由监听器自行补偿（例如删除相关缓存）。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class UserChangePublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(UserChangePublisher.class);
+
+    private final int batchSize;
+    private final int capacity;
+    private final int retries;
+    private final long retryInterval;
+    private final List<UserChangeListener> listeners = new CopyOnWriteArrayList<>();
+    // 保护以下所有状态（使用 ReentrantLock 而非 synchronized，虚拟线程等待时不会固定载体线程）
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+
+    // 下一个应放入队列的版本号
+    private long nextVersion = 1;
+    // 提前到达的事件（之前的版本尚未发布），按版本号索引
+    private final Map<Long, UserChange> early = new HashMap<>();
+    // 待投递的事件（按版本号升序）
+    private final ArrayDeque<UserChange> queue = new ArrayDeque<>();
+    // 溢出后合并的事件：清空事件（没有时为 null）及按用户ID合并的 EVICT 事件
+    private UserChange overflowClear;
+    private final LinkedHashMap<Long, UserChange> overflow = new LinkedHashMap<>();
+    private long overflows;
+
+    private Thread dispatcher;
+    private volatile boolean closed;
+
+    /**
+     * @param batchSize     每批投递的最大事件数量
+     * @param capacity      队列容量（逐条投递的事件数量上限，超出后合并为 EVICT 事件）
+     * @param retries       投递失败后的重试次数
+     * @param retryInterval 重试间隔（单位：毫秒）
+     */
+    public UserChangePublisher(int batchSize, int capacity, int retries, long retryInterval) {
+        this.batchSize = Math.max(1, batchSize);
+        this.capacity = Math.max(1, capacity);
+        this.retries = Math.max(0, retries);
+        this.retryInterval = Math.max(0, retryInterval);
+    }
+
+    /**
+     * 订阅变更事件
+     * <p>
+     * 仅接收订阅之后放入队列的事件。
+     *
+     * @param listener 监听器
+     */
+    public void subscribe(UserChangeListener listener) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("UserChangePublisher has been closed");
+            }
+            listeners.add(listener);
+            if (dispatcher == null) {
+                dispatcher = new Thread(this::dispatch, "user-dao-change");
+                dispatcher.setDaemon(true);
+                dispatcher.start();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 取消订阅
+     *
+     * @param listener 监听器
+     */
+    public void unsubscribe(UserChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 发布变更事件（无监听器时直接丢弃），不阻塞
+     *
+     * @param change 变更事件
+     */
+    public void publish(UserChange change) {
+        publish(List.of(change));
+    }
+
+    /**
+     * 发布一批变更事件（无监听器时直接丢弃），不阻塞
+     * <p>
+     * 每个版本号均须发布一次，否则之后的事件将一直等待。
+     *
+     * @param changes 变更事件（同一写操作产生的事件，按版本号升序）
+     */
+    public void publish(List<UserChange> changes) {
+        lock.lock();
+        try {
+            for (UserChange change : changes) {
+                if (change.version() != nextVersion) {
+                    early.put(change.version(), change);
+                    continue;
+                }
+                accept(change);
+                UserChange next;
+                while ((next = early.remove(nextVersion)) != null) {
+                    accept(next);
+                }
+            }
+            if (!queue.isEmpty() || isOverflowing()) {
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 溢出次数（队列已满而转为合并事件的次数）
+     */
+    public long getOverflows() {
+        lock.lock();
+        try {
+            return overflows;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 停止投递：已入队的事件投递完毕后，后台线程退出
+     */
+    public void close() {
+        Thread thread;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            thread = dispatcher;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 将版本号连续的事件放入队列（调用方需持有锁）
+     */
+    private void accept(UserChange change) {
+        nextVersion++;
+        if (closed || listeners.isEmpty()) {
+            return;
+        }
+        if (!isOverflowing() && queue.size() < capacity) {
+            queue.add(change);
+            return;
+        }
+        if (!isOverflowing()) {
+            overflows++;
+            log.warn("UserChangePublisher queue is full, capacity: {}, coalesce changes into evictions.", capacity);
+            queue.forEach(this::coalesce);
+            queue.clear();
+        }
+        coalesce(change);
+    }
+
+    /**
+     * 合并为溢出事件（调用方需持有锁）
+     * <p>
+     * 清空事件使之前的合并事件全部失效；其余事件按用户ID合并为 EVICT 事件，
+     * 保留最早的变更前用户信息与最新的变更后用户信息，以便监听器清理相关的用户名索引缓存。
+     */
+    private void coalesce(UserChange change) {
+        if (change.type() == ChangeType.CLEAR) {
+            overflow.clear();
+            overflowClear = change;
+            return;
+        }
+        UserChange evict = UserChange.evict(change);
+        overflow.merge(change.id(), evict, (old, current) -> UserChange.evict(old, current));
+    }
+
+    private boolean isOverflowing() {
+        return overflowClear != null || !overflow.isEmpty();
+    }
+
+    private void dispatch() {
+        List<UserChange> batch = new ArrayList<>(batchSize);
+        while (true) {
+            lock.lock();
+            try {
+                while (queue.isEmpty() && !isOverflowing() && !closed) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (!queue.isEmpty()) {
+                    // 溢出时队列中的事件已全部移入合并事件，因此队列中的事件总是早于合并事件
+                    for (int i = 0; i < batchSize && !queue.isEmpty(); i++) {
+                        batch.add(queue.poll());
+                    }
+                } else if (isOverflowing()) {
+                    drainOverflow(batch);
+                } else {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            deliver(List.copyOf(batch));
+            batch.clear();
+        }
+    }
+
+    /**
+     * 取出一批合并事件：清空事件在前（调用方需持有锁）
+     */
+    private void drainOverflow(List<UserChange> batch) {
+        if (overflowClear != null) {
+            batch.add(overflowClear);
+            overflowClear = null;
+        }
+        Iterator<UserChange> iterator = overflow.values().iterator();
+        while (batch.size() < batchSize && iterator.hasNext()) {
+            batch.add(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private void deliver(List<UserChange> changes) {
+        for (UserChangeListener listener : listeners) {
+            deliver(listener, changes);
+        }
+    }
+
+    /**
+     * 投递一批事件给监听器：失败时重试，重试次数用尽后通知监听器补偿
+     */
+    private void deliver(UserChangeListener listener, List<UserChange> changes) {
+        long first = changes.get(0).version();
+        long last = changes.get(changes.size() - 1).version();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                listener.onChanges(changes);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= retries || closed) {
+                    log.error("UserChangeListener failed, versions: [{} - {}], attempts: {}",
+                            first, last, attempt + 1, e);
+                    fail(listener, changes, e);
+                    return;
+                }
+                log.warn("UserChangeListener failed, versions: [{} - {}], retry after {} ms. {}",
+                        first, last, retryInterval, e.getMessage());
+            }
+            // 等待一段时间后重试整批事件
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(retryInterval));
+        }
+    }
+
+    private void fail(UserChangeListener listener, List<UserChange> changes, RuntimeException cause) {
+        try {
+            listener.onFailure(changes, cause);
+        } catch (RuntimeException e) {
+            log.error("UserChangeListener onFailure failed, versions: [{} - {}]",
+                    changes.get(0).version(), changes.get(changes.size() - 1).version(), e);
+        }
+    }
+
+}
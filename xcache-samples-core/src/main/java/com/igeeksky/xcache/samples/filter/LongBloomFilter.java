@@ -0,0 +1,137 @@
+package com.igeeksky.xcache.samples.filter;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 基于原始类型 long 键的布隆过滤器
+ * <p>
+ * 用于判断键是否可能存在：返回 false 时键一定不存在；返回 true 时键可能存在（存在一定的误判率）。
+ * <p>
+ * 空间：m = -n × ln(p) / (ln2)²，哈希函数数量：k = m / n × ln2。
+ * 例如 n = 10,000,000，p = 0.01 时，m ≈ 95,850,584 位（约 11.4 MB），k = 7。
+ * <p>
+ * 线程安全：写入使用原子的按位或操作，读取使用 acquire 语义，写入后其它线程立即可见，不会出现误判为不存在。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class LongBloomFilter {
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] words;
+    private final long bitSize;
+    private final int hashCount;
+    private final long expectedInsertions;
+    // 写入次数（含重复写入），用于估算当前误判率
+    private final LongAdder insertions = new LongAdder();
+
+    /**
+     * @param expectedInsertions 预期写入的键数量
+     * @param fpp                预期误判率（0 < fpp < 1）
+     */
+    public LongBloomFilter(long expectedInsertions, double fpp) {
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("fpp must be in (0, 1)");
+        }
+        this.expectedInsertions = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-this.expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int wordCount = Math.toIntExact(Math.max(1, (bits + 63) >>> 6));
+        this.words = new long[wordCount];
+        this.bitSize = (long) wordCount << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / this.expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * 写入键
+     *
+     * @param key 键
+     */
+    public void put(long key) {
+        long hash1 = mix(key);
+        long hash2 = mix(hash1) | 1L;
+        long combined = hash1;
+        for (int i = 0; i < hashCount; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitSize;
+            long mask = 1L << index;
+            int word = (int) (index >>> 6);
+            if (((long) WORDS.getAcquire(words, word) & mask) == 0) {
+                WORDS.getAndBitwiseOrRelease(words, word, mask);
+            }
+            combined += hash2;
+        }
+        insertions.increment();
+    }
+
+    /**
+     * 判断键是否可能存在
+     *
+     * @param key 键
+     * @return {@code false}：一定不存在；{@code true}：可能存在
+     */
+    public boolean mightContain(long key) {
+        long hash1 = mix(key);
+        long hash2 = mix(hash1) | 1L;
+        long combined = hash1;
+        for (int i = 0; i < hashCount; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitSize;
+            if (((long) WORDS.getAcquire(words, (int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+            combined += hash2;
+        }
+        return true;
+    }
+
+    /**
+     * @return 预期写入的键数量
+     */
+    public long expectedInsertions() {
+        return expectedInsertions;
+    }
+
+    /**
+     * @return 写入次数（含重复写入）
+     */
+    public long insertions() {
+        return insertions.sum();
+    }
+
+    /**
+     * @return 位数组长度
+     */
+    public long bitSize() {
+        return bitSize;
+    }
+
+    /**
+     * @return 哈希函数数量
+     */
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * 按当前写入次数估算误判率：(1 - e^(-k × n / m))^k
+     *
+     * @return 估算的误判率
+     */
+    public double estimatedFpp() {
+        return Math.pow(1 - Math.exp(-hashCount * (double) insertions() / bitSize), hashCount);
+    }
+
+    /**
+     * 64 位混合函数（MurmurHash3 fmix64），使连续的键均匀分布
+     */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+}
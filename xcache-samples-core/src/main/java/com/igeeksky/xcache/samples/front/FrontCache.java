@@ -0,0 +1,443 @@
+package com.igeeksky.xcache.samples.front;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 前置缓存（stale-while-revalidate）
+ * <p>
+ * 位于 xcache 缓存之前的本地缓存，每个数据记录加载时间：
+ * <ul>
+ *     <li>新鲜期内：直接返回；</li>
+ *     <li>宽限期内：立即返回旧数据，同时通过 reloader 异步重新加载，同一个键同时仅有一个重新加载任务；</li>
+ *     <li>超过宽限期或不存在：通过 loader 同步加载。</li>
+ * </ul>
+ * 因此热点数据过期后，调用方无需等待二级缓存或数据源的往返耗时。
+ * <p>
+ * 如果启用提前刷新，后台线程按近期访问频率排序，周期性地提前重新加载热点数据，冷数据则不占用刷新预算。
+ * <p>
+ * 如果启用持久化，关闭时将键、加载时间及编码后的值写入快照文件，下次启动时直接恢复到前置缓存
+ * （丢弃已超过宽限期的数据，不访问二级缓存或数据源），重启后热点数据无需等待首次访问即可命中。
+ * <p>
+ * 注意：前置缓存仅存在于当前实例，不会随 xcache 的缓存数据同步（cache-sync）而失效，数据最长可能陈旧 ttl + grace。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class FrontCache<K, V> {
+
+    private static final Logger log = LoggerFactory.getLogger(FrontCache.class);
+
+    private final String name;
+    private final long ttl;
+    private final long grace;
+    private final int maxSize;
+    private final Function<? super K, ? extends V> reloader;
+    private final ExecutorService executor;
+
+    // 提前刷新配置
+    private final boolean refreshEnabled;
+    private final long refreshAfter;
+    private final double refreshJitter;
+    private final int refreshTaskSize;
+    // 提前刷新调度器（未启用提前刷新时为 null）
+    private final ScheduledExecutorService scheduler;
+    // 持久化（未启用持久化时为 null）
+    private final FrontCacheSnapshot<K, V> snapshot;
+    private final Path snapshotFile;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    // 正在重新加载的键
+    private final Set<K> reloading = ConcurrentHashMap.newKeySet();
+
+    // 统计信息
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+    private final LongAdder reloadFailures = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+
+    /**
+     * @param name       名称（用于线程名称与日志）
+     * @param properties 配置
+     * @param reloader   异步重新加载函数（返回 null 表示数据已不存在）
+     */
+    public FrontCache(String name, FrontCacheProperties properties, Function<? super K, ? extends V> reloader) {
+        this(name, properties, reloader, null);
+    }
+
+    /**
+     * @param name       名称（用于线程名称、日志及快照文件名）
+     * @param properties 配置
+     * @param reloader   异步重新加载函数（返回 null 表示数据已不存在）
+     * @param snapshot   快照（为 null 或未启用持久化时，不持久化）
+     */
+    public FrontCache(String name, FrontCacheProperties properties, Function<? super K, ? extends V> reloader,
+                      FrontCacheSnapshot<K, V> snapshot) {
+        this.name = name;
+        this.ttl = Math.max(0, properties.getTtl());
+        this.grace = Math.max(0, properties.getGrace());
+        this.maxSize = Math.max(1, properties.getMaxSize());
+        this.reloader = reloader;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-reload-", 0).factory());
+        FrontCacheProperties.Refresh refresh = properties.getRefresh();
+        this.refreshEnabled = refresh.isEnabled();
+        this.refreshAfter = Math.max(0, refresh.getAfter());
+        this.refreshJitter = Math.min(Math.max(0, refresh.getJitter()), 0.99);
+        this.refreshTaskSize = Math.max(1, refresh.getTaskSize());
+        if (refreshEnabled) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, name + "-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1, refresh.getPeriod());
+            this.scheduler.scheduleWithFixedDelay(this::refresh, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+        FrontCacheProperties.Persistence persistence = properties.getPersistence();
+        if (snapshot != null && persistence.isEnabled()) {
+            this.snapshot = snapshot;
+            this.snapshotFile = Path.of(persistence.getDir(), name + ".snapshot");
+            restore();
+        } else {
+            this.snapshot = null;
+            this.snapshotFile = null;
+        }
+    }
+
+    /**
+     * 获取数据
+     *
+     * @param key    键
+     * @param loader 同步加载函数（数据不存在或已超过宽限期时调用）
+     * @return 值
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            entry.hits++;
+            long age = System.currentTimeMillis() - entry.loadTime;
+            if (age < ttl) {
+                hits.increment();
+                return entry.value;
+            }
+            if (age < ttl + grace) {
+                staleHits.increment();
+                reloadAsync(key, entry);
+                return entry.value;
+            }
+        }
+        misses.increment();
+        V value = loader.apply(key);
+        if (value != null) {
+            // 与异步重新加载相同：仅当数据未被其它线程修改时才写入，避免旧的加载结果覆盖加载期间写入的新数据
+            Entry<V> fresh = newEntry(value, System.currentTimeMillis());
+            boolean stored = (entry == null) ? entries.putIfAbsent(key, fresh) == null : entries.replace(key, entry, fresh);
+            if (stored && entries.size() > maxSize) {
+                evict();
+            }
+        } else if (entry != null) {
+            entries.remove(key, entry);
+        }
+        return value;
+    }
+
+    /**
+     * 写入数据（加载时间为当前时间）
+     *
+     * @param key   键
+     * @param value 值
+     */
+    public void put(K key, V value) {
+        put(key, value, System.currentTimeMillis());
+    }
+
+    /**
+     * 写入数据
+     *
+     * @param key      键
+     * @param value    值
+     * @param loadTime 加载时间（单位：毫秒）
+     */
+    public void put(K key, V value, long loadTime) {
+        entries.put(key, newEntry(value, loadTime));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * 删除数据
+     *
+     * @param key 键
+     */
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * 清空数据
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return 当前缓存数量
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息快照
+     */
+    public Stats getStats() {
+        return new Stats(hits.sum(), staleHits.sum(), misses.sum(), reloads.sum(), reloadFailures.sum(),
+                refreshes.sum(), entries.size());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 遍历所有数据（用于写入快照）
+     *
+     * @param visitor 数据访问者
+     * @throws IOException 访问者抛出的异常
+     */
+    void forEach(EntryVisitor<K, V> visitor) throws IOException {
+        for (Map.Entry<K, Entry<V>> e : entries.entrySet()) {
+            Entry<V> entry = e.getValue();
+            visitor.visit(e.getKey(), entry.value, entry.loadTime);
+        }
+    }
+
+    /**
+     * 停止异步重新加载；如果启用持久化，将数据写入快照文件
+     */
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        executor.shutdownNow();
+        if (snapshot != null) {
+            dump();
+        }
+    }
+
+    /**
+     * 从快照文件恢复数据：直接写入前置缓存，不访问二级缓存或数据源
+     * <p>
+     * 保留快照中的加载时间，因此恢复的数据不会比关闭前更“新鲜”，宽限期内的数据首次访问即触发异步重新加载。
+     * <p>
+     * 无论成功与否，读取后均删除快照文件：避免异常退出后再次启动时恢复更旧的数据，损坏的文件也无需保留。
+     */
+    private void restore() {
+        long start = System.nanoTime();
+        try {
+            FrontCacheSnapshot.Entries<K, V> snapshotEntries = snapshot.read(snapshotFile, ttl, grace);
+            if (snapshotEntries != null) {
+                for (FrontCacheSnapshot.Entry<K, V> e : snapshotEntries.entries()) {
+                    put(e.key(), e.value(), e.loadTime());
+                }
+                log.info("{} restored from snapshot: {}, createTime={}, restored={}, expired={}, elapsed={}ms",
+                        name, snapshotFile, snapshotEntries.createTime(), snapshotEntries.entries().size(),
+                        snapshotEntries.expired(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("{} restore snapshot failed: {}. {}", name, snapshotFile, e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(snapshotFile);
+            } catch (IOException e) {
+                log.warn("{} delete snapshot failed: {}. {}", name, snapshotFile, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 将数据写入快照文件
+     */
+    private void dump() {
+        long start = System.nanoTime();
+        try {
+            int count = snapshot.write(snapshotFile, this);
+            log.info("{} dumped to snapshot: {}, count={}, elapsed={}ms", name, snapshotFile, count,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException | RuntimeException e) {
+            log.warn("{} dump snapshot failed: {}. {}", name, snapshotFile, e.getMessage());
+        }
+    }
+
+    /**
+     * 提前刷新：从已到达刷新时间的数据中，选出近期访问次数最多的 refreshTaskSize 个异步重新加载
+     * <p>
+     * 同时将所有数据的访问次数减半，使访问频率反映近期热度；近期未被访问的数据不刷新。
+     */
+    private void refresh() {
+        try {
+            long now = System.currentTimeMillis();
+            // 小顶堆：保留访问次数最多的 refreshTaskSize 个候选数据
+            PriorityQueue<Candidate<K, V>> top = new PriorityQueue<>(refreshTaskSize + 1,
+                    Comparator.comparingInt(Candidate::hits));
+            for (Map.Entry<K, Entry<V>> e : entries.entrySet()) {
+                Entry<V> entry = e.getValue();
+                int count = entry.hits;
+                entry.hits = count >>> 1;
+                if (count == 0 || now < entry.refreshAt || reloading.contains(e.getKey())) {
+                    continue;
+                }
+                if (top.size() < refreshTaskSize) {
+                    top.offer(new Candidate<>(e.getKey(), entry, count));
+                } else if (count > top.peek().hits()) {
+                    top.poll();
+                    top.offer(new Candidate<>(e.getKey(), entry, count));
+                }
+            }
+            for (Candidate<K, V> candidate : top) {
+                refreshes.increment();
+                reloadAsync(candidate.key(), candidate.entry());
+            }
+        } catch (RuntimeException e) {
+            log.error("{} refresh failed. {}", name, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 创建缓存数据：如果启用提前刷新，按随机提前比例计算刷新时间
+     */
+    private Entry<V> newEntry(V value, long loadTime) {
+        long refreshAt = Long.MAX_VALUE;
+        if (refreshEnabled) {
+            double factor = 1 - refreshJitter * ThreadLocalRandom.current().nextDouble();
+            refreshAt = loadTime + (long) (refreshAfter * factor);
+        }
+        return new Entry<>(value, loadTime, refreshAt);
+    }
+
+    /**
+     * 异步重新加载：仅当数据未被其它线程修改时才替换，避免旧的加载结果覆盖新写入的数据
+     */
+    private void reloadAsync(K key, Entry<V> stale) {
+        if (!reloading.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    V value = reloader.apply(key);
+                    if (value == null) {
+                        entries.remove(key, stale);
+                    } else {
+                        Entry<V> fresh = newEntry(value, System.currentTimeMillis());
+                        // 继承访问次数，否则刚刷新的热点数据在下一周期的排序中会被低估
+                        fresh.hits = stale.hits;
+                        entries.replace(key, stale, fresh);
+                    }
+                    reloads.increment();
+                } catch (RuntimeException e) {
+                    // 重新加载失败：保留旧数据，宽限期内的后续请求会再次尝试
+                    reloadFailures.increment();
+                    log.warn("{} reload failed, key: {}. {}", name, key, e.getMessage());
+                } finally {
+                    reloading.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            reloading.remove(key);
+        }
+    }
+
+    /**
+     * 超过最大缓存数量时，淘汰约 10% 的数据
+     * <p>
+     * ConcurrentHashMap 的遍历顺序由哈希值决定，与访问顺序无关，因此近似于随机淘汰。
+     */
+    private void evict() {
+        int excess = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        Iterator<K> iterator = entries.keySet().iterator();
+        while (excess-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 缓存数据
+     * <p>
+     * 以对象标识判断相等，异步重新加载时据此判断数据是否已被其它线程替换。
+     */
+    private static final class Entry<V> {
+
+        private final V value;
+        // 加载时间（单位：毫秒）
+        private final long loadTime;
+        // 提前刷新时间（单位：毫秒，未启用提前刷新时为 Long.MAX_VALUE）
+        private final long refreshAt;
+        // 近期访问次数（近似计数：并发递增可能丢失少量计数，但不影响热度排序）
+        private volatile int hits;
+
+        Entry(V value, long loadTime, long refreshAt) {
+            this.value = value;
+            this.loadTime = loadTime;
+            this.refreshAt = refreshAt;
+        }
+
+    }
+
+    /**
+     * 数据访问者（用于写入快照）
+     */
+    @FunctionalInterface
+    interface EntryVisitor<K, V> {
+
+        void visit(K key, V value, long loadTime) throws IOException;
+
+    }
+
+    /**
+     * 提前刷新的候选数据
+     */
+    private record Candidate<K, V>(K key, Entry<V> entry, int hits) {
+    }
+
+    /**
+     * 统计信息
+     *
+     * @param hits           新鲜期内命中次数
+     * @param staleHits      宽限期内命中次数（返回旧数据并异步重新加载）
+     * @param misses         未命中次数（同步加载）
+     * @param reloads        异步重新加载成功次数
+     * @param reloadFailures 异步重新加载失败次数
+     * @param refreshes      提前刷新次数（热点数据在过期前的异步重新加载）
+     * @param size           当前缓存数量
+     */
+    public record Stats(long hits, long staleHits, long misses, long reloads, long reloadFailures, long refreshes,
+                        int size) {
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d, staleHits=%d, misses=%d, reloads=%d, reloadFailures=%d, refreshes=%d, size=%d",
+                    hits, staleHits, misses, reloads, reloadFailures, refreshes, size);
+        }
+
+    }
+
+}
@@ -0,0 +1,197 @@
+package com.igeeksky.xcache.samples.front;
+
+/**
+ * 前置缓存配置
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class FrontCacheProperties {
+
+    /**
+     * 是否启用前置缓存（默认值：false）
+     */
+    private boolean enabled = false;
+
+    /**
+     * 数据新鲜期（默认值：60000 单位：毫秒），加载后未超过此时长的数据直接返回
+     */
+    private long ttl = 60000;
+
+    /**
+     * 数据宽限期（默认值：30000 单位：毫秒）
+     * <p>
+     * 数据超过新鲜期但未超过宽限期时，立即返回旧数据，同时异步重新加载（同一个键同时仅有一个重新加载任务）；
+     * 超过宽限期的数据视为不存在，同步加载。
+     */
+    private long grace = 30000;
+
+    /**
+     * 最大缓存数量（默认值：100000），超过时随机淘汰部分数据
+     */
+    private int maxSize = 100000;
+
+    /**
+     * 热点数据提前刷新配置
+     */
+    private final Refresh refresh = new Refresh();
+
+    /**
+     * 持久化配置
+     */
+    private final Persistence persistence = new Persistence();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(long ttl) {
+        this.ttl = ttl;
+    }
+
+    public long getGrace() {
+        return grace;
+    }
+
+    public void setGrace(long grace) {
+        this.grace = grace;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Refresh getRefresh() {
+        return refresh;
+    }
+
+    public Persistence getPersistence() {
+        return persistence;
+    }
+
+    /**
+     * 热点数据提前刷新配置
+     * <p>
+     * 每个刷新周期内，从已到达刷新时间的数据中选出访问频率最高的 taskSize 个提前异步重新加载，使热点数据始终保持新鲜；
+     * 访问频率为衰减计数（每个周期减半），因此反映的是近期热度。
+     */
+    public static class Refresh {
+
+        /**
+         * 是否启用提前刷新（默认值：false）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 数据加载后经过此时长即可刷新（默认值：30000 单位：毫秒），应小于 ttl
+         */
+        private long after = 30000;
+
+        /**
+         * 刷新时间的随机提前比例（默认值：0.2，取值范围：[0, 1)）
+         * <p>
+         * 每个数据的刷新时间为：加载时间 + after × (1 - jitter × 随机数)，避免同时写入的数据同时刷新。
+         */
+        private double jitter = 0.2;
+
+        /**
+         * 刷新周期（默认值：1000 单位：毫秒）
+         */
+        private long period = 1000;
+
+        /**
+         * 每个周期最多刷新的数据数量（默认值：1000）
+         */
+        private int taskSize = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getAfter() {
+            return after;
+        }
+
+        public void setAfter(long after) {
+            this.after = after;
+        }
+
+        public double getJitter() {
+            return jitter;
+        }
+
+        public void setJitter(double jitter) {
+            this.jitter = jitter;
+        }
+
+        public long getPeriod() {
+            return period;
+        }
+
+        public void setPeriod(long period) {
+            this.period = period;
+        }
+
+        public int getTaskSize() {
+            return taskSize;
+        }
+
+        public void setTaskSize(int taskSize) {
+            this.taskSize = taskSize;
+        }
+
+    }
+
+    /**
+     * 持久化配置
+     * <p>
+     * 启用后，正常关闭时将数据写入快照文件（二进制格式，含校验和与加载时间），下次启动时恢复并删除快照文件；
+     * 已超过新鲜期与宽限期之和的数据在恢复时丢弃。异常退出时不写入快照，下次启动为冷启动。
+     */
+    public static class Persistence {
+
+        /**
+         * 是否启用持久化（默认值：false）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 快照目录（默认值：data/front-cache），快照文件名为：前置缓存名称 + ".snapshot"
+         */
+        private String dir = "data/front-cache";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDir() {
+            return dir;
+        }
+
+        public void setDir(String dir) {
+            this.dir = dir;
+        }
+
+    }
+
+}
@@ -0,0 +1,183 @@
+package com.igeeksky.xcache.samples.front;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 前置缓存快照文件
+ * <p>
+ * 保存键、加载时间及编码后的值：恢复时直接写入前置缓存，无需访问二级缓存或数据源。
+ * 值的编解码器由调用方提供，应与 xcache 配置的值编解码器一致。
+ * <p>
+ * 快照记录数据源的纪元（数据集标识）：纪元不一致说明数据源已不是写快照时的数据集（例如内存数据库重启后为空），
+ * 此时整个快照作废，避免恢复已不存在的数据。
+ * <p>
+ * 文件格式（大端序）：
+ * <pre>
+ * magic(int) | version(int) | epoch(long) | createTime(long) | count(int)
+ * { keyLength(int) | key | loadTime(long) | valueLength(int) | value } × count
+ * crc32(long)：以上所有字节的校验和
+ * </pre>
+ * 先写入临时文件，完成后再原子替换，因此写入过程中进程退出不会损坏已有快照。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class FrontCacheSnapshot<K, V> {
+
+    private static final int MAGIC = 0x46435331; // "FCS1"
+    // 版本 3：保存编码后的值及数据源纪元
+    private static final int VERSION = 3;
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES * 2 + Integer.BYTES;
+
+    private final SnapshotCodec<K> keyCodec;
+    private final SnapshotCodec<V> valueCodec;
+    private final long epoch;
+
+    /**
+     * @param keyCodec   键编解码器
+     * @param valueCodec 值编解码器
+     * @param epoch      数据源纪元（仅恢复纪元相同的快照）
+     */
+    public FrontCacheSnapshot(SnapshotCodec<K> keyCodec, SnapshotCodec<V> valueCodec, long epoch) {
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        this.epoch = epoch;
+    }
+
+    /**
+     * 将前置缓存的数据写入快照文件
+     *
+     * @param file  快照文件
+     * @param cache 前置缓存
+     * @return 写入的数据数量
+     * @throws IOException 写入失败
+     */
+    public int write(Path file, FrontCache<K, V> cache) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        // 先编码到内存：遍历期间数据数量可能变化，文件头中的数量需与实际写入的数量一致
+        ByteArrayOutputStream body = new ByteArrayOutputStream(Math.max(1024, cache.size() * 64));
+        DataOutputStream bodyOut = new DataOutputStream(body);
+        int[] count = {0};
+        cache.forEach((key, value, loadTime) -> {
+            byte[] k = keyCodec.encode(key);
+            byte[] v = valueCodec.encode(value);
+            bodyOut.writeInt(k.length);
+            bodyOut.write(k);
+            bodyOut.writeLong(loadTime);
+            bodyOut.writeInt(v.length);
+            bodyOut.write(v);
+            count[0]++;
+        });
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (OutputStream fileOut = new BufferedOutputStream(Files.newOutputStream(temp))) {
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(fileOut, crc));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(epoch);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(count[0]);
+            body.writeTo(out);
+            out.flush();
+            new DataOutputStream(fileOut).writeLong(crc.getValue());
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count[0];
+    }
+
+    /**
+     * 读取快照文件中的数据
+     * <p>
+     * 已超过新鲜期与宽限期之和的数据直接丢弃（不解码值）。
+     *
+     * @param file  快照文件
+     * @param ttl   数据新鲜期（单位：毫秒）
+     * @param grace 数据宽限期（单位：毫秒）
+     * @return 快照中的数据（快照文件不存在时返回 null）
+     * @throws IOException 读取失败、文件已损坏或数据源纪元不一致
+     */
+    public Entries<K, V> read(Path file, long ttl, long grace) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length < HEADER_SIZE + Long.BYTES) {
+            throw new IOException("snapshot is truncated: " + file);
+        }
+        int length = bytes.length - Long.BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        in.skipNBytes(length);
+        if (crc.getValue() != in.readLong()) {
+            throw new IOException("snapshot checksum mismatch: " + file);
+        }
+
+        in = new DataInputStream(new ByteArrayInputStream(bytes, 0, length));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("snapshot magic mismatch: " + file);
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("unsupported snapshot version: " + version);
+        }
+        long snapshotEpoch = in.readLong();
+        if (snapshotEpoch != epoch) {
+            throw new IOException("snapshot epoch mismatch: " + snapshotEpoch + ", current: " + epoch);
+        }
+        long createTime = in.readLong();
+        int count = in.readInt();
+        long now = System.currentTimeMillis();
+        List<Entry<K, V>> entries = new ArrayList<>(Math.min(count, 1 << 20));
+        int expired = 0;
+        for (int i = 0; i < count; i++) {
+            byte[] key = in.readNBytes(in.readInt());
+            long loadTime = in.readLong();
+            byte[] value = in.readNBytes(in.readInt());
+            if (now - loadTime >= ttl + grace) {
+                expired++;
+                continue;
+            }
+            entries.add(new Entry<>(keyCodec.decode(key), valueCodec.decode(value), loadTime));
+        }
+        return new Entries<>(createTime, entries, expired);
+    }
+
+    /**
+     * 快照中的数据
+     *
+     * @param createTime 快照创建时间（单位：毫秒）
+     * @param entries    未过期的数据
+     * @param expired    已过期而丢弃的数据数量
+     * @param <K>        键类型
+     * @param <V>        值类型
+     */
+    public record Entries<K, V>(long createTime, List<Entry<K, V>> entries, int expired) {
+    }
+
+    /**
+     * 快照中的单个数据
+     *
+     * @param key      键
+     * @param value    值
+     * @param loadTime 加载时间（单位：毫秒）
+     * @param <K>      键类型
+     * @param <V>      值类型
+     */
+    public record Entry<K, V>(K key, V value, long loadTime) {
+    }
+
+}
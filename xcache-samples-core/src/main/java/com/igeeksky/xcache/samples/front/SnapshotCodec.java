@@ -0,0 +1,78 @@
+package com.igeeksky.xcache.samples.front;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
+/**
+ * 前置缓存快照的键、值编解码器
+ *
+ * @param <T> 数据类型
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public interface SnapshotCodec<T> {
+
+    /**
+     * 编码
+     *
+     * @param value 数据（非空）
+     * @return 字节数组
+     * @throws IOException 编码失败
+     */
+    byte[] encode(T value) throws IOException;
+
+    /**
+     * 解码
+     *
+     * @param bytes 字节数组
+     * @return 数据
+     * @throws IOException 解码失败
+     */
+    T decode(byte[] bytes) throws IOException;
+
+    /**
+     * Long 类型编解码器（固定 8 字节）
+     *
+     * @return 编解码器
+     */
+    static SnapshotCodec<Long> longCodec() {
+        return new SnapshotCodec<>() {
+            @Override
+            public byte[] encode(Long value) {
+                return ByteBuffer.allocate(Long.BYTES).putLong(value).array();
+            }
+
+            @Override
+            public Long decode(byte[] bytes) throws IOException {
+                if (bytes.length != Long.BYTES) {
+                    throw new IOException("invalid long length: " + bytes.length);
+                }
+                return ByteBuffer.wrap(bytes).getLong();
+            }
+        };
+    }
+
+    /**
+     * 通过编码函数与解码函数创建编解码器（例如适配 xcache 的值编解码器）
+     *
+     * @param encoder 编码函数
+     * @param decoder 解码函数
+     * @param <T>     数据类型
+     * @return 编解码器
+     */
+    static <T> SnapshotCodec<T> of(Function<? super T, byte[]> encoder, Function<byte[], ? extends T> decoder) {
+        return new SnapshotCodec<>() {
+            @Override
+            public byte[] encode(T value) {
+                return encoder.apply(value);
+            }
+
+            @Override
+            public T decode(byte[] bytes) {
+                return decoder.apply(bytes);
+            }
+        };
+    }
+
+}
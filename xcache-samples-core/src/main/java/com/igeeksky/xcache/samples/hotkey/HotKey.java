@@ -0,0 +1,12 @@
+package com.igeeksky.xcache.samples.hotkey;
+
+/**
+ * 热点键
+ *
+ * @param key   键
+ * @param count 当前统计窗口内的估算访问次数
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public record HotKey(long key, long count) {
+}
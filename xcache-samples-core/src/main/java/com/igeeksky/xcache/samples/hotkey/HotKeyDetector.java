@@ -0,0 +1,183 @@
+package com.igeeksky.xcache.samples.hotkey;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 热点键探测器（Count-Min Sketch + Top-K）
+ * <p>
+ * Count-Min Sketch 以固定内存估算每个键的访问次数（只会高估，不会低估）；
+ * Top-K 集合保存估算访问次数最多的 K 个键。
+ * <p>
+ * 已在 Top-K 集合中的键仅需更新计数，无需加锁；仅当新键的估算次数超过集合中的最小值时，才加锁替换。
+ * 调用 {@link #decay()} 将所有计数减半，使统计结果反映近期热度。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class HotKeyDetector {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L
+    };
+
+    private final int depth;
+    private final int widthMask;
+    private final AtomicLongArray table;
+    // 总访问次数（与计数器同步衰减），用于估算哈希冲突带来的计数偏差
+    private final LongAdder total = new LongAdder();
+    private final int topK;
+
+    // Top-K 集合（成员判断无需加锁，修改需持有锁）
+    private final Set<Long> members = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock lock = new ReentrantLock();
+    // Top-K 集合已满时，集合中的最小估算次数（集合未满时为 0）
+    private volatile long minCount;
+
+    /**
+     * @param topK  热点键数量
+     * @param width 每行计数器数量（向上取整为 2 的幂）
+     * @param depth 行数，即哈希函数数量（取值范围：[1, 8]）
+     */
+    public HotKeyDetector(int topK, int width, int depth) {
+        this.topK = Math.max(1, topK);
+        this.depth = Math.min(Math.max(1, depth), SEEDS.length);
+        int w = Integer.highestOneBit(Math.max(16, width - 1)) << 1;
+        this.widthMask = w - 1;
+        this.table = new AtomicLongArray(w * this.depth);
+    }
+
+    /**
+     * 记录一次访问
+     *
+     * @param key 键
+     */
+    public void record(long key) {
+        total.increment();
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            estimate = Math.min(estimate, table.incrementAndGet(index(key, i)));
+        }
+        if (members.contains(key)) {
+            return;
+        }
+        if (members.size() < topK || estimate > minCount) {
+            offer(key, estimate);
+        }
+    }
+
+    /**
+     * 估算键的访问次数
+     *
+     * @param key 键
+     * @return 估算访问次数
+     */
+    public long estimate(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            estimate = Math.min(estimate, table.get(index(key, i)));
+        }
+        return estimate;
+    }
+
+    /**
+     * 获取热点键（按估算访问次数降序排列）
+     * <p>
+     * Count-Min Sketch 的估算值包含哈希冲突带来的偏差（期望值约为 总访问次数 / 每行计数器数量），
+     * 因此判断是否达到阈值时先扣除此偏差，避免访问量较大时将冷门键误判为热点键。
+     *
+     * @param threshold 最小访问次数（扣除冲突偏差后）
+     * @return 访问次数达到 threshold 的热点键
+     */
+    public List<HotKey> hotKeys(long threshold) {
+        long noise = total.sum() / (widthMask + 1);
+        List<HotKey> hotKeys = new ArrayList<>(members.size());
+        for (Long key : members) {
+            long count = estimate(key);
+            if (count - noise >= threshold) {
+                hotKeys.add(new HotKey(key, count));
+            }
+        }
+        hotKeys.sort(Comparator.comparingLong(HotKey::count).reversed());
+        return hotKeys;
+    }
+
+    /**
+     * 衰减：所有计数减半，并移除计数归零的热点键
+     * <p>
+     * 与并发的 {@link #record(long)} 之间没有同步，可能丢失少量计数，不影响热度估算。
+     */
+    public void decay() {
+        long sum = total.sumThenReset();
+        total.add(sum >>> 1);
+        for (int i = 0, length = table.length(); i < length; i++) {
+            long value = table.get(i);
+            if (value != 0) {
+                table.set(i, value >>> 1);
+            }
+        }
+        lock.lock();
+        try {
+            members.removeIf(key -> estimate(key) == 0);
+            minCount = (members.size() < topK) ? 0 : minEstimate();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 尝试将键加入 Top-K 集合：集合已满时，替换估算次数最小的键
+     */
+    private void offer(long key, long estimate) {
+        lock.lock();
+        try {
+            if (members.contains(key)) {
+                return;
+            }
+            if (members.size() < topK) {
+                members.add(key);
+            } else {
+                long min = Long.MAX_VALUE;
+                Long minKey = null;
+                for (Long member : members) {
+                    long count = estimate(member);
+                    if (count < min) {
+                        min = count;
+                        minKey = member;
+                    }
+                }
+                if (minKey == null || estimate <= min) {
+                    minCount = min;
+                    return;
+                }
+                members.remove(minKey);
+                members.add(key);
+            }
+            minCount = (members.size() < topK) ? 0 : minEstimate();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long minEstimate() {
+        long min = Long.MAX_VALUE;
+        for (Long member : members) {
+            min = Math.min(min, estimate(member));
+        }
+        return (min == Long.MAX_VALUE) ? 0 : min;
+    }
+
+    private int index(long key, int row) {
+        long hash = (key ^ (key >>> 31)) * SEEDS[row];
+        hash ^= hash >>> 29;
+        return row * (widthMask + 1) + (int) (hash & widthMask);
+    }
+
+}
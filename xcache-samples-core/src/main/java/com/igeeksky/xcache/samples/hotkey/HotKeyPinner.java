@@ -0,0 +1,208 @@
+package com.igeeksky.xcache.samples.hotkey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 热点键本地驻留
+ * <p>
+ * 读取时记录访问次数，每个统计周期选出访问次数达到阈值的热点键，批量加载后驻留在本地内存；
+ * 驻留的数据不设过期时间，直到不再是热点键为止，期间每个周期重新加载一次以保持最新。
+ * <p>
+ * 写操作需调用 {@link #put(long, Object)} 与 {@link #remove(long)} 同步更新驻留数据。
+ *
+ * @param <V> 值类型
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class HotKeyPinner<V> {
+
+    private static final Logger log = LoggerFactory.getLogger(HotKeyPinner.class);
+
+    private final String name;
+    private final long threshold;
+    private final HotKeyDetector detector;
+    // 批量加载函数（结果中不存在的键视为数据已不存在）
+    private final Function<Set<Long>, Map<Long, V>> loader;
+    private final ScheduledExecutorService scheduler;
+
+    // 驻留数据
+    private final ConcurrentHashMap<Long, V> pinned = new ConcurrentHashMap<>();
+    // 正在重新加载的驻留键，及重新加载期间被写操作更新过的键（加载结果可能比写入的数据旧，因此不覆盖）
+    // 写操作标记与加载结果的替换均在 pinned.compute 中执行：同一个键的两者互斥，不会出现检查之后被写操作插入的情况
+    private volatile Set<Long> loading = Collections.emptySet();
+    private final Set<Long> written = ConcurrentHashMap.newKeySet();
+
+    // 统计信息
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+
+    /**
+     * @param name       名称（用于线程名称与日志）
+     * @param properties 配置
+     * @param loader     批量加载函数（结果中不存在的键视为数据已不存在）
+     */
+    public HotKeyPinner(String name, HotKeyProperties properties, Function<Set<Long>, Map<Long, V>> loader) {
+        this.name = name;
+        this.threshold = Math.max(1, properties.getThreshold());
+        this.detector = new HotKeyDetector(properties.getTopK(), properties.getWidth(), properties.getDepth());
+        this.loader = loader;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, name + "-pin");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, properties.getPeriod());
+        this.scheduler.scheduleWithFixedDelay(this::refresh, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 记录一次访问，并返回驻留数据
+     *
+     * @param key 键
+     * @return 驻留数据（非驻留键返回 null）
+     */
+    public V get(long key) {
+        detector.record(key);
+        V value = pinned.get(key);
+        if (value != null) {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * 更新驻留数据（非驻留键忽略）
+     *
+     * @param key   键
+     * @param value 值
+     */
+    public void put(long key, V value) {
+        pinned.compute(key, (k, old) -> {
+            markWritten(k);
+            return (old != null) ? value : null;
+        });
+    }
+
+    /**
+     * 删除驻留数据
+     *
+     * @param key 键
+     */
+    public void remove(long key) {
+        pinned.compute(key, (k, old) -> {
+            markWritten(k);
+            return null;
+        });
+    }
+
+    /**
+     * 清空驻留数据
+     */
+    public void clear() {
+        written.addAll(loading);
+        pinned.clear();
+    }
+
+    /**
+     * 获取热点键（按估算访问次数降序排列）
+     *
+     * @return 当前统计周期内的热点键及估算访问次数（已剔除访问次数未超过哈希冲突偏差的候选键）
+     */
+    public List<HotKey> hotKeys() {
+        return detector.hotKeys(1);
+    }
+
+    /**
+     * 获取驻留键
+     *
+     * @return 驻留键集合
+     */
+    public Set<Long> pinnedKeys() {
+        return new TreeSet<>(pinned.keySet());
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息快照
+     */
+    public Stats getStats() {
+        return new Stats(hits.sum(), loads.sum(), loadFailures.sum(), pinned.size());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 停止周期任务
+     */
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void markWritten(long key) {
+        if (loading.contains(key)) {
+            written.add(key);
+        }
+    }
+
+    /**
+     * 周期任务：选出访问次数达到阈值的热点键，批量加载并替换驻留数据，然后将所有计数减半
+     */
+    private void refresh() {
+        List<HotKey> hotKeys = detector.hotKeys(threshold);
+        detector.decay();
+        Set<Long> keys = new HashSet<>(hotKeys.size());
+        hotKeys.forEach(hotKey -> keys.add(hotKey.key()));
+        pinned.keySet().retainAll(keys);
+        if (keys.isEmpty()) {
+            return;
+        }
+        written.clear();
+        loading = keys;
+        try {
+            Map<Long, V> values = loader.apply(keys);
+            loads.increment();
+            for (Long key : keys) {
+                V value = (values != null) ? values.get(key) : null;
+                // 加载结果为 null 时删除驻留数据
+                pinned.compute(key, (k, old) -> written.contains(k) ? old : value);
+            }
+        } catch (Throwable e) {
+            // 加载失败：保留原驻留数据，下一周期重试
+            loadFailures.increment();
+            log.warn("[{}] load hot keys failed. {}", name, e.getMessage());
+        } finally {
+            loading = Collections.emptySet();
+        }
+    }
+
+    /**
+     * 统计信息
+     *
+     * @param hits         驻留数据命中次数
+     * @param loads        驻留数据批量加载次数
+     * @param loadFailures 驻留数据批量加载失败次数
+     * @param size         当前驻留数量
+     */
+    public record Stats(long hits, long loads, long loadFailures, int size) {
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d, loads=%d, loadFailures=%d, size=%d", hits, loads, loadFailures, size);
+        }
+
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.igeeksky.xcache.samples.hotkey;
+
+/**
+ * 热点键探测与本地驻留配置
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class HotKeyProperties {
+
+    /**
+     * 是否启用热点键探测（默认值：false）
+     */
+    private boolean enabled = false;
+
+    /**
+     * 热点键候选数量（默认值：32），即 Top-K 中的 K
+     */
+    private int topK = 32;
+
+    /**
+     * 驻留阈值（默认值：100）
+     * <p>
+     * 一个统计周期内估算访问次数（扣除哈希冲突偏差后）不小于此值的候选热点键，驻留在本地内存，读取时不再访问 xcache 缓存。
+     */
+    private long threshold = 100;
+
+    /**
+     * 统计周期（默认值：1000 单位：毫秒）
+     * <p>
+     * 每个周期结束时：重新选出驻留键并批量加载其最新数据，然后将所有计数减半。
+     * 因此驻留数据最多比 xcache 缓存旧一个周期（其它实例的更新经由 cache-sync 使本地缓存失效后，下一周期即可读到）。
+     */
+    private long period = 1000;
+
+    /**
+     * Count-Min Sketch 每行计数器数量（默认值：16384，向上取整为 2 的幂）
+     */
+    private int width = 16384;
+
+    /**
+     * Count-Min Sketch 行数（默认值：4，取值范围：[1, 8]）
+     */
+    private int depth = 4;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    public void setTopK(int topK) {
+        this.topK = topK;
+    }
+
+    public long getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(long threshold) {
+        this.threshold = threshold;
+    }
+
+    public long getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(long period) {
+        this.period = period;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public void setWidth(int width) {
+        this.width = width;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.igeeksky.xcache.samples.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 号段主键生成器
+ * <p>
+ * 两级号段：节点从共享的 {@link IdBlockSource} 租借大号段（nodeBlockSize），
+ * 各分段再从节点号段中租借小号段（stripeBlockSize）。
+ * <p>
+ * 分段数量固定（不少于 CPU 核数的两倍），线程按线程ID散列到分段，在分段号段内通过原子自增分配主键，无需加锁；
+ * 仅当分段号段用完时才需访问节点号段，仅当节点号段用完时才需访问共享的号段来源，因此多线程、多实例均可无冲突地分配主键。
+ * <p>
+ * 号段归属于分段而非线程：每个请求一个虚拟线程时，新线程直接使用所在分段的剩余号段，不会每次新增都租借新号段并浪费其余主键。
+ * <p>
+ * 注意：主键全局唯一但不连续，且不保证单调递增。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class BlockIdGenerator implements IdGenerator {
+
+    private final IdBlockSource source;
+    private final int nodeBlockSize;
+    private final int stripeBlockSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // 分段号段（数量为 2 的幂），写入新号段时需持有 lock
+    private final AtomicReferenceArray<Block> stripes;
+    private final int mask;
+
+    // 号段代数：重置或跳号后递增，旧代数的号段全部作废
+    private volatile long generation;
+
+    // 节点号段（由 lock 保护）
+    private long nodeNext;
+    private long nodeEnd;
+
+    public BlockIdGenerator(IdBlockSource source, int nodeBlockSize, int stripeBlockSize) {
+        if (stripeBlockSize <= 0 || nodeBlockSize < stripeBlockSize) {
+            throw new IllegalArgumentException("nodeBlockSize must be greater than or equal to stripeBlockSize, and stripeBlockSize must be positive");
+        }
+        this.source = source;
+        this.nodeBlockSize = nodeBlockSize;
+        this.stripeBlockSize = stripeBlockSize;
+        int size = tableSizeFor(Runtime.getRuntime().availableProcessors() * 2);
+        this.stripes = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    @Override
+    public long nextId() {
+        int index = stripe();
+        for (; ; ) {
+            Block block = stripes.get(index);
+            if (block != null && block.generation == generation) {
+                // 号段用完后自增仍会继续，但超出 end 的值不会被使用
+                long id = block.next.getAndIncrement();
+                if (id < block.end) {
+                    return id;
+                }
+            }
+            refill(index, block);
+        }
+    }
+
+    /**
+     * 作废本节点已租借的号段
+     * <p>
+     * 号段来源由所有节点共享，因此不会回退：之后生成的主键从新租借的号段开始。
+     */
+    @Override
+    public void reset() {
+        lock.lock();
+        try {
+            invalidate();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void advance(long minNext) {
+        lock.lock();
+        try {
+            source.advance(minNext);
+            invalidate();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 为分段租借新号段（如其它线程已替换该分段的号段，则直接返回）
+     * <p>
+     * 从节点号段中租借，节点号段不足时从号段来源租借新的节点号段。
+     */
+    private void refill(int index, Block exhausted) {
+        lock.lock();
+        try {
+            if (stripes.get(index) != exhausted) {
+                return;
+            }
+            if (nodeNext >= nodeEnd) {
+                nodeNext = source.lease(nodeBlockSize);
+                nodeEnd = nodeNext + nodeBlockSize;
+            }
+            long start = nodeNext;
+            long end = Math.min(start + stripeBlockSize, nodeEnd);
+            nodeNext = end;
+            stripes.set(index, new Block(start, end, generation));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 作废所有已租借的号段（调用方需持有锁）
+     */
+    private void invalidate() {
+        nodeNext = 0;
+        nodeEnd = 0;
+        generation++;
+    }
+
+    /**
+     * 当前线程对应的分段：同一线程总是使用同一分段，不同线程均匀分布到各分段
+     */
+    private int stripe() {
+        long h = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+
+    private static int tableSizeFor(int n) {
+        return (n <= 1) ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    /**
+     * 分段号段：[next, end)，由多个线程通过原子自增共享
+     */
+    private static final class Block {
+
+        private final AtomicLong next;
+        private final long end;
+        private final long generation;
+
+        private Block(long next, long end, long generation) {
+            this.next = new AtomicLong(next);
+            this.end = end;
+            this.generation = generation;
+        }
+
+    }
+
+}
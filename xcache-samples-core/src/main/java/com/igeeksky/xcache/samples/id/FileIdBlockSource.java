@@ -0,0 +1,73 @@
+package com.igeeksky.xcache.samples.id;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * 基于文件的号段来源：多个应用实例共享同一文件，通过文件锁保证号段不重叠
+ * <p>
+ * 文件内容为 8 字节的下一个号段起始值。此实现用于在单机上模拟多实例部署，
+ * 生产环境可替换为基于 Redis（INCRBY）或数据库的实现。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class FileIdBlockSource implements IdBlockSource {
+
+    // 文件锁由整个 JVM 持有，同一 JVM 内的多个线程（或多个实例）不能重复获取，因此需先获取进程内的锁
+    private static final ReentrantLock LOCK = new ReentrantLock();
+
+    private final Path file;
+
+    public FileIdBlockSource(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public long lease(int size) {
+        return update(next -> next + size);
+    }
+
+    @Override
+    public void advance(long minNext) {
+        update(next -> Math.max(next, minNext));
+    }
+
+    /**
+     * 在文件锁保护下读取并更新下一个号段起始值
+     *
+     * @param function 根据旧值计算新值
+     * @return 旧值
+     */
+    private long update(LongUnaryOperator function) {
+        LOCK.lock();
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+                long next = (channel.read(buffer, 0) == Long.BYTES) ? buffer.flip().getLong() : 1L;
+                buffer.clear().putLong(function.applyAsLong(next)).flip();
+                channel.write(buffer, 0);
+                channel.force(false);
+                return next;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("FileIdBlockSource update failed. file:" + file, e);
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.igeeksky.xcache.samples.id;
+
+/**
+ * 号段来源：所有节点共享的号段分配器
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public interface IdBlockSource {
+
+    /**
+     * 租借号段
+     *
+     * @param size 号段长度
+     * @return 号段起始值，号段范围为 {@code [start, start + size)}
+     */
+    long lease(int size);
+
+    /**
+     * 保证之后租借的号段起始值均不小于 minNext
+     *
+     * @param minNext 下一个号段起始值的最小值
+     */
+    void advance(long minNext);
+
+}
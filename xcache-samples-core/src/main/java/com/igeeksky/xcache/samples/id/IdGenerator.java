@@ -0,0 +1,33 @@
+package com.igeeksky.xcache.samples.id;
+
+/**
+ * 主键生成器
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public interface IdGenerator {
+
+    /**
+     * 获取下一个主键
+     *
+     * @return 主键（正数）
+     */
+    long nextId();
+
+    /**
+     * 重置主键生成器（清空数据后调用）
+     * <p>
+     * 仅适用于单个 JVM 的生成器从 1 重新开始；多实例共享号段的生成器仅作废本节点已租借的号段，
+     * 不会回退共享的号段来源，否则会与其它实例分配重复的主键。
+     */
+    void reset();
+
+    /**
+     * 保证之后生成的主键均不小于 minNext（用于从持久化数据恢复后跳过已使用的主键）
+     *
+     * @param minNext 下一个主键的最小值
+     */
+    void advance(long minNext);
+
+}
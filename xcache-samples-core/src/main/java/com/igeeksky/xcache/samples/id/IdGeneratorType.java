@@ -0,0 +1,21 @@
+package com.igeeksky.xcache.samples.id;
+
+/**
+ * 主键生成器类型
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public enum IdGeneratorType {
+
+    /**
+     * {@link SequenceIdGenerator}：单个 AtomicLong 自增，主键连续
+     */
+    SEQUENCE,
+
+    /**
+     * {@link BlockIdGenerator}：按号段分配，主键不连续，但多线程、多实例分配主键均无竞争
+     */
+    BLOCK
+
+}
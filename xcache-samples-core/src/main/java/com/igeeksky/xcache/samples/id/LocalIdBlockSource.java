@@ -0,0 +1,25 @@
+package com.igeeksky.xcache.samples.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单个 JVM 内的号段来源
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class LocalIdBlockSource implements IdBlockSource {
+
+    private final AtomicLong next = new AtomicLong(1);
+
+    @Override
+    public long lease(int size) {
+        return next.getAndAdd(size);
+    }
+
+    @Override
+    public void advance(long minNext) {
+        next.accumulateAndGet(minNext, Math::max);
+    }
+
+}
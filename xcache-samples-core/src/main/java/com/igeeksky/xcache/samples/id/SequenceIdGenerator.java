@@ -0,0 +1,30 @@
+package com.igeeksky.xcache.samples.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 自增主键生成器（仅适用于单个 JVM）
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class SequenceIdGenerator implements IdGenerator {
+
+    private final AtomicLong sequence = new AtomicLong(1);
+
+    @Override
+    public long nextId() {
+        return sequence.getAndIncrement();
+    }
+
+    @Override
+    public void reset() {
+        sequence.set(1L);
+    }
+
+    @Override
+    public void advance(long minNext) {
+        sequence.accumulateAndGet(minNext, Math::max);
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.igeeksky.xcache.samples.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * JFR 事件：缓存操作
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@Name("com.igeeksky.xcache.samples.CacheOperation")
+@Label("Cache Operation")
+@Category({"Xcache Samples", "Cache"})
+@Description("Cache get/put/remove, loader invocation or change-stream application")
+@StackTrace(false)
+public class CacheOperationEvent extends Event {
+
+    @Label("Cache")
+    String cache;
+
+    @Label("Level")
+    @Description("pinned, front, cache, loader or sync")
+    String level;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Key Count")
+    int keyCount;
+
+}
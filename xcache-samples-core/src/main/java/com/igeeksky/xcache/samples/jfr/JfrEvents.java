@@ -0,0 +1,93 @@
+package com.igeeksky.xcache.samples.jfr;
+
+/**
+ * JFR 事件发送器
+ * <p>
+ * 未启用时 begin 方法返回 null，commit 方法直接返回，不创建事件对象；
+ * 启用但未开启 JFR 记录时，事件的 begin、end、shouldCommit 均为 JIT 可消除的空操作。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public final class JfrEvents {
+
+    private final boolean enabled;
+
+    /**
+     * @param enabled 是否发送 JFR 事件
+     */
+    public JfrEvents(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * 开始缓存操作事件
+     *
+     * @return 事件（未启用时返回 null）
+     */
+    public CacheOperationEvent beginCache() {
+        if (!enabled) {
+            return null;
+        }
+        CacheOperationEvent event = new CacheOperationEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * 结束并提交缓存操作事件
+     *
+     * @param event     事件（为 null 时忽略）
+     * @param cache     缓存名称
+     * @param level     缓存层级（pinned、front、cache、loader、sync）
+     * @param operation 操作名称
+     * @param keyCount  键数量
+     */
+    public void commit(CacheOperationEvent event, String cache, String level, String operation, int keyCount) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.cache = cache;
+            event.level = level;
+            event.operation = operation;
+            event.keyCount = keyCount;
+            event.commit();
+        }
+    }
+
+    /**
+     * 开始锁等待事件
+     *
+     * @return 事件（未启用时返回 null）
+     */
+    public LockWaitEvent beginLock() {
+        if (!enabled) {
+            return null;
+        }
+        LockWaitEvent event = new LockWaitEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * 结束并提交锁等待事件
+     *
+     * @param event 事件（为 null 时忽略）
+     * @param lock  锁名称
+     * @param mode  锁模式（read、write）
+     */
+    public void commit(LockWaitEvent event, String lock, String mode) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.lock = lock;
+            event.mode = mode;
+            event.commit();
+        }
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.igeeksky.xcache.samples.jfr;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * JFR 事件配置
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@ConfigurationProperties(prefix = "samples.jfr")
+public class JfrProperties {
+
+    /**
+     * 是否发送 JFR 事件（默认值：false）
+     * <p>
+     * 启用后，还需开启 JFR 记录（如 -XX:StartFlightRecording）事件才会写入记录文件。
+     */
+    private boolean enabled = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+}
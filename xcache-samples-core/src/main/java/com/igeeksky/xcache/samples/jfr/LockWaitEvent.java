@@ -0,0 +1,24 @@
+package com.igeeksky.xcache.samples.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * JFR 事件：锁等待
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@Name("com.igeeksky.xcache.samples.LockWait")
+@Label("Lock Wait")
+@Category({"Xcache Samples", "Lock"})
+@Description("Time spent acquiring a lock")
+@StackTrace(false)
+public class LockWaitEvent extends Event {
+
+    @Label("Lock")
+    String lock;
+
+    @Label("Mode")
+    String mode;
+
+}
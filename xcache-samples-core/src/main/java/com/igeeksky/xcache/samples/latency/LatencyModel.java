@@ -0,0 +1,110 @@
+package com.igeeksky.xcache.samples.latency;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 延迟与故障模型：模拟真实数据源的访问耗时与偶发故障
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public final class LatencyModel {
+
+    private static final double NANOS_PER_MILLI = 1_000_000D;
+
+    private static final LatencyModel NONE = new LatencyModel(new LatencyProperties());
+
+    private final String name;
+    private final LatencyType type;
+    private final double fixed;
+    private final double min;
+    private final double max;
+    private final double median;
+    private final double sigma;
+    private final double perKey;
+    private final double errorRate;
+
+    private LatencyModel(LatencyProperties properties) {
+        this("", properties);
+    }
+
+    private LatencyModel(String name, LatencyProperties properties) {
+        this.name = name;
+        this.type = properties.getType();
+        this.fixed = properties.getFixed();
+        this.min = properties.getMin();
+        this.max = properties.getMax();
+        this.median = properties.getMedian();
+        this.sigma = properties.getSigma();
+        this.perKey = properties.getPerKey();
+        this.errorRate = properties.getErrorRate();
+        if (type == LatencyType.UNIFORM && max < min) {
+            throw new IllegalArgumentException("latency [" + name + "]: max must be greater than or equal to min");
+        }
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("latency [" + name + "]: errorRate must be in [0, 1]");
+        }
+    }
+
+    /**
+     * 根据配置创建延迟模型
+     *
+     * @param name       名称（用于异常信息）
+     * @param properties 配置
+     * @return 延迟模型
+     */
+    public static LatencyModel of(String name, LatencyProperties properties) {
+        if (properties == null) {
+            return NONE;
+        }
+        return new LatencyModel(name, properties);
+    }
+
+    /**
+     * 是否模拟延迟或故障
+     *
+     * @return {@code true}：有延迟或故障率；{@code false}：无延迟且无故障
+     */
+    public boolean isEnabled() {
+        return type != LatencyType.NONE || perKey > 0 || errorRate > 0;
+    }
+
+    /**
+     * 模拟一次数据源访问：阻塞当前线程一段时间，然后按故障率抛出异常
+     *
+     * @param keys 本次访问的键数量
+     */
+    public void apply(int keys) {
+        long nanos = sample(keys);
+        if (nanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(nanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("[" + name + "] interrupted", e);
+            }
+        }
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            throw new RuntimeException("[" + name + "] simulated data source failure");
+        }
+    }
+
+    /**
+     * 采样本次访问的延迟
+     *
+     * @param keys 本次访问的键数量
+     * @return 延迟（单位：纳秒）
+     */
+    public long sample(int keys) {
+        double millis = switch (type) {
+            case NONE -> 0D;
+            case FIXED -> fixed;
+            case UNIFORM -> (max > min) ? ThreadLocalRandom.current().nextDouble(min, max) : min;
+            case LOG_NORMAL -> median * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian());
+        };
+        millis += perKey * keys;
+        return (long) (millis * NANOS_PER_MILLI);
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.igeeksky.xcache.samples.latency;
+
+/**
+ * 延迟与故障模型配置
+ * <p>
+ * 单次调用的延迟 = 按 type 采样的基础延迟 + perKey × 键数量；延迟结束后，按 errorRate 概率抛出异常。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class LatencyProperties {
+
+    /**
+     * 延迟分布类型（默认值：NONE）
+     */
+    private LatencyType type = LatencyType.NONE;
+
+    /**
+     * 固定延迟（默认值：0 单位：毫秒，仅适用于 FIXED）
+     */
+    private double fixed = 0;
+
+    /**
+     * 最小延迟（默认值：0 单位：毫秒，仅适用于 UNIFORM）
+     */
+    private double min = 0;
+
+    /**
+     * 最大延迟（默认值：0 单位：毫秒，仅适用于 UNIFORM）
+     */
+    private double max = 0;
+
+    /**
+     * 延迟中位数（默认值：0 单位：毫秒，仅适用于 LOG_NORMAL）
+     */
+    private double median = 0;
+
+    /**
+     * 对数标准差（默认值：0.5，仅适用于 LOG_NORMAL）
+     */
+    private double sigma = 0.5;
+
+    /**
+     * 每个键的额外延迟（默认值：0 单位：毫秒），用于模拟批量查询的耗时随键数量增长
+     */
+    private double perKey = 0;
+
+    /**
+     * 故障率（默认值：0，取值范围：[0, 1]）
+     */
+    private double errorRate = 0;
+
+    public LatencyType getType() {
+        return type;
+    }
+
+    public void setType(LatencyType type) {
+        this.type = type;
+    }
+
+    public double getFixed() {
+        return fixed;
+    }
+
+    public void setFixed(double fixed) {
+        this.fixed = fixed;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public void setMin(double min) {
+        this.min = min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public void setMax(double max) {
+        this.max = max;
+    }
+
+    public double getMedian() {
+        return median;
+    }
+
+    public void setMedian(double median) {
+        this.median = median;
+    }
+
+    public double getSigma() {
+        return sigma;
+    }
+
+    public void setSigma(double sigma) {
+        this.sigma = sigma;
+    }
+
+    public double getPerKey() {
+        return perKey;
+    }
+
+    public void setPerKey(double perKey) {
+        this.perKey = perKey;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+}
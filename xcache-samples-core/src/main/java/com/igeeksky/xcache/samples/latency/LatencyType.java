@@ -0,0 +1,31 @@
+package com.igeeksky.xcache.samples.latency;
+
+/**
+ * 延迟分布类型
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public enum LatencyType {
+
+    /**
+     * 无延迟
+     */
+    NONE,
+
+    /**
+     * 固定延迟：fixed
+     */
+    FIXED,
+
+    /**
+     * 均匀分布：[min, max)
+     */
+    UNIFORM,
+
+    /**
+     * 对数正态分布：以 median 为中位数，sigma 越大长尾越明显（真实数据库的响应时间通常近似此分布）
+     */
+    LOG_NORMAL
+
+}
@@ -0,0 +1,235 @@
+package com.igeeksky.xcache.samples.loader;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 微批加载器
+ * <p>
+ * 将短时间窗口内并发的单键加载请求合并为一次批量加载：
+ * 窗口内的第一个请求线程负责在窗口结束时发起批量加载；如果窗口内的键数量达到上限，则由使窗口满的请求线程立即发起批量加载。
+ * 其余请求线程等待批量加载完成后获取各自的结果。
+ * <p>
+ * 代价是每个请求最多增加一个窗口的延迟，收益是数据源的查询次数大幅减少（适用于冷启动时大量并发的缓存未命中）。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class BatchLoader<K, V> {
+
+    private final String name;
+    private final Function<Set<K>, Map<K, V>> loader;
+    private final int maxBatchSize;
+    private final long windowNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // 当前正在收集键的批次（仅在持有锁时读写）
+    private Batch<K, V> current;
+
+    // 统计信息
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder keys = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxBatch = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param name         名称（用于异常信息与统计日志）
+     * @param loader       批量加载函数
+     * @param maxBatchSize 每批的最大键数量
+     * @param window       窗口时长
+     * @param unit         窗口时长单位
+     */
+    public BatchLoader(String name, Function<Set<K>, Map<K, V>> loader, int maxBatchSize, long window, TimeUnit unit) {
+        this.name = name;
+        this.loader = loader;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.windowNanos = unit.toNanos(Math.max(0, window));
+    }
+
+    /**
+     * 加载单个键对应的值
+     * <p>
+     * 阻塞直到所在批次加载完成。
+     *
+     * @param key 键
+     * @return 值（数据源中不存在时返回 null）
+     */
+    public V load(K key) {
+        long start = System.nanoTime();
+        Batch<K, V> batch;
+        CompletableFuture<V> future;
+        boolean leader = false, full = false;
+        lock.lock();
+        try {
+            if (current == null) {
+                current = new Batch<>();
+                leader = true;
+            }
+            batch = current;
+            future = batch.add(key, start);
+            if (batch.size() >= maxBatchSize) {
+                current = null;
+                full = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (full) {
+            dispatch(batch);
+        } else if (leader) {
+            awaitWindow(future);
+            if (take(batch)) {
+                dispatch(batch);
+            }
+        }
+        return join(future);
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息快照
+     */
+    public Stats getStats() {
+        return new Stats(batches.sum(), keys.sum(), requests.sum(), maxBatch.get(), waitNanos.sum());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 窗口发起者等待窗口结束（如果批次因键数量达到上限而提前加载完成，则提前返回）
+     */
+    private void awaitWindow(CompletableFuture<V> future) {
+        if (windowNanos <= 0) {
+            return;
+        }
+        try {
+            future.get(windowNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException ignored) {
+            // 窗口结束 或 批次已加载完成（异常由 join 处理）
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 如果批次仍在收集键，则将其取出，由当前线程发起加载
+     */
+    private boolean take(Batch<K, V> batch) {
+        lock.lock();
+        try {
+            if (current == batch) {
+                current = null;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatch(Batch<K, V> batch) {
+        long now = System.nanoTime();
+        int size = batch.size();
+        batches.increment();
+        keys.add(size);
+        requests.add(batch.requests);
+        waitNanos.add(now * batch.requests - batch.enqueueNanos);
+        maxBatch.accumulate(size);
+
+        Map<K, V> results;
+        try {
+            results = loader.apply(Collections.unmodifiableSet(batch.futures.keySet()));
+        } catch (Throwable e) {
+            // 任何异常（包括 Error）都必须完成所有等待结果，否则等待中的请求线程将永远阻塞；
+            // 发起加载的线程同样在等待自己的结果，因此异常会由 join 重新抛出，此处无需再抛出
+            batch.futures.values().forEach(f -> f.completeExceptionally(e));
+            return;
+        }
+        batch.futures.forEach((key, f) -> f.complete(results == null ? null : results.get(key)));
+    }
+
+    private V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException("[" + name + "] load failed", e.getCause());
+        }
+    }
+
+    /**
+     * 批次：收集中的键及对应的等待结果（仅在持有锁时修改）
+     */
+    private static final class Batch<K, V> {
+
+        private final Map<K, CompletableFuture<V>> futures = new HashMap<>();
+        // 请求数量（同一批次内的重复键共享同一结果，因此可能大于键数量）
+        private int requests;
+        // 所有请求的入队时间之和，用于计算平均等待时长
+        private long enqueueNanos;
+
+        CompletableFuture<V> add(K key, long now) {
+            requests++;
+            enqueueNanos += now;
+            return futures.computeIfAbsent(key, k -> new CompletableFuture<>());
+        }
+
+        int size() {
+            return futures.size();
+        }
+
+    }
+
+    /**
+     * 统计信息
+     *
+     * @param batches   批量加载次数
+     * @param keys      批量加载的键总数
+     * @param requests  单键加载请求总数
+     * @param maxBatch  最大批次键数量
+     * @param waitNanos 请求等待批量加载开始的总时长（即合并带来的额外延迟）
+     */
+    public record Stats(long batches, long keys, long requests, long maxBatch, long waitNanos) {
+
+        /**
+         * @return 平均批次键数量
+         */
+        public double avgBatchSize() {
+            return batches == 0 ? 0 : (double) keys / batches;
+        }
+
+        /**
+         * @return 平均额外延迟（单位：毫秒）
+         */
+        public double avgWaitMillis() {
+            return requests == 0 ? 0 : waitNanos / 1_000_000D / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("batches=%d, keys=%d, requests=%d, maxBatch=%d, avgBatch=%.2f, avgWait=%.3fms",
+                    batches, keys, requests, maxBatch, avgBatchSize(), avgWaitMillis());
+        }
+
+    }
+
+}
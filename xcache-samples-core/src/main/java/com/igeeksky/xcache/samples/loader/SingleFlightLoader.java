@@ -0,0 +1,143 @@
+package com.igeeksky.xcache.samples.loader;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 按键合并的批量加载器（singleflight）
+ * <p>
+ * 多个并发的批量加载请求的键集可能部分重叠：每个请求仅加载当前无其它请求正在加载的键，
+ * 其余键则等待正在进行的加载完成后共享其结果，从而避免重复查询数据源。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class SingleFlightLoader<K, V> {
+
+    private final String name;
+    private final Function<Set<K>, Map<K, V>> loader;
+
+    // 正在加载的键及其结果（加载完成后移除）
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inflight = new ConcurrentHashMap<>();
+
+    // 统计信息
+    private final LongAdder loadedKeys = new LongAdder();
+    private final LongAdder joinedKeys = new LongAdder();
+
+    /**
+     * @param name   名称（用于异常信息与统计日志）
+     * @param loader 批量加载函数
+     */
+    public SingleFlightLoader(String name, Function<Set<K>, Map<K, V>> loader) {
+        this.name = name;
+        this.loader = loader;
+    }
+
+    /**
+     * 批量加载键对应的值
+     *
+     * @param keys 键集
+     * @return 键值对集合（不包含数据源中不存在的键）
+     */
+    public Map<K, V> loadAll(Set<? extends K> keys) {
+        Map<K, CompletableFuture<V>> owned = new HashMap<>();
+        Map<K, CompletableFuture<V>> joined = new HashMap<>();
+        for (K key : keys) {
+            CompletableFuture<V> future = new CompletableFuture<>();
+            CompletableFuture<V> existing = inflight.putIfAbsent(key, future);
+            if (existing == null) {
+                owned.put(key, future);
+            } else {
+                joined.put(key, existing);
+            }
+        }
+        loadedKeys.add(owned.size());
+        joinedKeys.add(joined.size());
+
+        Map<K, V> results = new HashMap<>();
+        if (!owned.isEmpty()) {
+            load(owned, results);
+        }
+        joined.forEach((key, future) -> {
+            V value = join(future);
+            if (value != null) {
+                results.put(key, value);
+            }
+        });
+        return results;
+    }
+
+    /**
+     * 加载当前请求负责的键，完成对应的等待结果后移除
+     */
+    private void load(Map<K, CompletableFuture<V>> owned, Map<K, V> results) {
+        try {
+            Map<K, V> loaded = loader.apply(Collections.unmodifiableSet(owned.keySet()));
+            owned.forEach((key, future) -> {
+                V value = (loaded == null) ? null : loaded.get(key);
+                future.complete(value);
+                if (value != null) {
+                    results.put(key, value);
+                }
+            });
+        } catch (Throwable e) {
+            // 任何异常（包括 Error）都必须完成等待结果，否则共享这些键的其它请求将永远阻塞
+            owned.values().forEach(future -> future.completeExceptionally(e));
+            throw e;
+        } finally {
+            owned.forEach(inflight::remove);
+        }
+    }
+
+    private V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException("[" + name + "] load failed", e.getCause());
+        }
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息快照
+     */
+    public Stats getStats() {
+        return new Stats(loadedKeys.sum(), joinedKeys.sum());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 统计信息
+     *
+     * @param loadedKeys 由当前请求加载的键数量
+     * @param joinedKeys 共享其它请求加载结果的键数量（即节省的查询键数量）
+     */
+    public record Stats(long loadedKeys, long joinedKeys) {
+
+        @Override
+        public String toString() {
+            return String.format("loadedKeys=%d, joinedKeys=%d", loadedKeys, joinedKeys);
+        }
+
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.igeeksky.xcache.samples.loader;
+
+import com.igeeksky.xcache.samples.User;
+import com.igeeksky.xcache.samples.UserDao;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户数据回源
+ * <p>
+ * 缓存未命中时的数据加载入口，在 UserDao 之上提供微批加载、批量加载合并等优化，可通过 samples.user-loader 配置。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@Component
+@EnableConfigurationProperties(UserLoaderProperties.class)
+public class UserLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(UserLoader.class);
+
+    private final UserDao userDao;
+    // 微批加载器（未启用时为 null）
+    private final BatchLoader<Long, User> batchLoader;
+    // 批量加载合并器（未启用时为 null）
+    private final SingleFlightLoader<Long, User> singleFlightLoader;
+    // 统计信息日志调度器（未启用任何优化或不输出日志时为 null）
+    private final ScheduledExecutorService scheduler;
+
+    public UserLoader(UserDao userDao, UserLoaderProperties properties) {
+        this.userDao = userDao;
+        if (properties.getSingleFlight().isEnabled()) {
+            this.singleFlightLoader = new SingleFlightLoader<>("user-loader", userDao::findUserList);
+        } else {
+            this.singleFlightLoader = null;
+        }
+        UserLoaderProperties.Batch batch = properties.getBatch();
+        if (batch.isEnabled()) {
+            // 微批加载的批量查询同样经过批量加载合并（如已启用）
+            this.batchLoader = new BatchLoader<>("user-loader", this::loadAll,
+                    batch.getMaxSize(), batch.getWindow(), TimeUnit.MICROSECONDS);
+        } else {
+            this.batchLoader = null;
+        }
+        long period = properties.getStatsPeriod();
+        if ((batchLoader != null || singleFlightLoader != null) && period > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "user-loader-stats");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleAtFixedRate(this::logStats, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * 加载单个用户信息
+     * <p>
+     * 启用微批加载时，与窗口内的其它单键请求合并为一次批量查询。
+     *
+     * @param id 用户ID
+     * @return 用户信息（用户不存在时返回 null）
+     */
+    public User load(Long id) {
+        if (batchLoader == null) {
+            return userDao.findUser(id);
+        }
+        return batchLoader.load(id);
+    }
+
+    /**
+     * 批量加载用户信息
+     * <p>
+     * 启用批量加载合并时，与其它并发请求重叠的用户ID不再重复查询，而是共享正在进行的加载结果。
+     *
+     * @param ids 用户ID集合
+     * @return 用户信息集合（不包含不存在的用户）
+     */
+    public Map<Long, User> loadAll(Set<? extends Long> ids) {
+        if (singleFlightLoader == null) {
+            return userDao.findUserList(ids);
+        }
+        return singleFlightLoader.loadAll(ids);
+    }
+
+    /**
+     * 获取微批加载统计信息
+     *
+     * @return 统计信息（未启用微批加载时返回 null）
+     */
+    public BatchLoader.Stats getBatchStats() {
+        return (batchLoader == null) ? null : batchLoader.getStats();
+    }
+
+    /**
+     * 获取批量加载合并统计信息
+     *
+     * @return 统计信息（未启用批量加载合并时返回 null）
+     */
+    public SingleFlightLoader.Stats getSingleFlightStats() {
+        return (singleFlightLoader == null) ? null : singleFlightLoader.getStats();
+    }
+
+    private void logStats() {
+        if (batchLoader != null) {
+            log.info("{} batch: {}", batchLoader.getName(), batchLoader.getStats());
+        }
+        if (singleFlightLoader != null) {
+            log.info("{} single-flight: {}", singleFlightLoader.getName(), singleFlightLoader.getStats());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+}
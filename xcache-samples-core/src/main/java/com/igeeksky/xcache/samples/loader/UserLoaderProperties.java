@@ -0,0 +1,115 @@
+package com.igeeksky.xcache.samples.loader;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 用户数据回源配置
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@ConfigurationProperties(prefix = "samples.user-loader")
+public class UserLoaderProperties {
+
+    /**
+     * 统计信息日志的输出周期（默认值：60000 单位：毫秒，小于等于 0 表示不输出）
+     */
+    private long statsPeriod = 60000;
+
+    /**
+     * 微批加载配置
+     */
+    private final Batch batch = new Batch();
+
+    /**
+     * 批量加载合并配置
+     */
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    public long getStatsPeriod() {
+        return statsPeriod;
+    }
+
+    public void setStatsPeriod(long statsPeriod) {
+        this.statsPeriod = statsPeriod;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * 微批加载配置
+     * <p>
+     * 启用后，并发的单键回源请求在窗口内合并为一次批量查询。
+     */
+    public static class Batch {
+
+        /**
+         * 是否启用微批加载（默认值：false）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 窗口时长（默认值：1000 单位：微秒）
+         */
+        private long window = 1000;
+
+        /**
+         * 每批的最大键数量（默认值：256），达到此数量时立即发起批量查询，无需等待窗口结束
+         */
+        private int maxSize = 256;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getWindow() {
+            return window;
+        }
+
+        public void setWindow(long window) {
+            this.window = window;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+    }
+
+    /**
+     * 批量加载合并配置
+     * <p>
+     * 启用后，并发的批量回源请求中重叠的键仅查询一次：每个请求仅加载无其它请求正在加载的键，其余键共享正在进行的加载结果。
+     */
+    public static class SingleFlight {
+
+        /**
+         * 是否启用批量加载合并（默认值：false）
+         */
+        private boolean enabled = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.igeeksky.xcache.samples.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 缓存指标
+ * <p>
+ * 按缓存名称与操作记录延迟分布（单位：纳秒）及批量操作的键数量分布。
+ * 调用方应在初始化时获取直方图并保存为字段，热点路径上直接调用 {@link LongHistogram#record(long)}，无需查找与分配对象。
+ * <p>
+ * 如果存在 Micrometer 的 MeterRegistry（引入 actuator 时自动配置），同时注册为以下指标：
+ * <ul>
+ *     <li>samples.cache.latency：延迟百分位数（单位：秒），标签：cache、operation、quantile；</li>
+ *     <li>samples.cache.batch.size：批量操作的键数量百分位数，标签：cache、operation、quantile；</li>
+ *     <li>samples.cache.latency.count、samples.cache.batch.size.count：记录次数。</li>
+ * </ul>
+ * 同一直方图的所有指标共享一个统计快照（有效期 1 秒）：一次采集只计算一次快照，各百分位数也来自同一时刻的数据。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@Component
+public class CacheMetrics {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    // 指标采集时统计快照的有效期：同一次采集中依次读取的各项指标复用同一个快照
+    private static final long SNAPSHOT_TTL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final MeterRegistry registry;
+    private final Map<String, LongHistogram> latencies = new ConcurrentHashMap<>();
+    private final Map<String, LongHistogram> batchSizes = new ConcurrentHashMap<>();
+
+    public CacheMetrics(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry.getIfAvailable();
+    }
+
+    /**
+     * 获取延迟直方图（不存在则创建）
+     *
+     * @param cache     缓存名称
+     * @param operation 操作名称
+     * @return 延迟直方图（单位：纳秒）
+     */
+    public LongHistogram latency(String cache, String operation) {
+        return latencies.computeIfAbsent(key(cache, operation), k -> {
+            LongHistogram histogram = new LongHistogram();
+            register("samples.cache.latency", "seconds", NANOS_PER_SECOND, cache, operation, histogram);
+            return histogram;
+        });
+    }
+
+    /**
+     * 获取批量操作的键数量直方图（不存在则创建）
+     *
+     * @param cache     缓存名称
+     * @param operation 操作名称
+     * @return 键数量直方图
+     */
+    public LongHistogram batchSize(String cache, String operation) {
+        return batchSizes.computeIfAbsent(key(cache, operation), k -> {
+            LongHistogram histogram = new LongHistogram();
+            register("samples.cache.batch.size", "keys", 1, cache, operation, histogram);
+            return histogram;
+        });
+    }
+
+    /**
+     * 获取所有直方图的统计快照
+     *
+     * @return latency 与 batchSize 两组快照，键为 "缓存名称:操作名称"
+     */
+    public Map<String, Map<String, LongHistogram.Snapshot>> snapshot() {
+        Map<String, Map<String, LongHistogram.Snapshot>> result = new TreeMap<>();
+        result.put("latency", snapshot(latencies));
+        result.put("batchSize", snapshot(batchSizes));
+        return result;
+    }
+
+    /**
+     * 重置所有直方图（例如压测的预热阶段结束后）
+     */
+    public void reset() {
+        latencies.values().forEach(LongHistogram::reset);
+        batchSizes.values().forEach(LongHistogram::reset);
+    }
+
+    private static Map<String, LongHistogram.Snapshot> snapshot(Map<String, LongHistogram> histograms) {
+        Map<String, LongHistogram.Snapshot> result = new TreeMap<>();
+        histograms.forEach((key, histogram) -> result.put(key, histogram.snapshot()));
+        return result;
+    }
+
+    private void register(String name, String unit, double scale, String cache, String operation,
+                          LongHistogram histogram) {
+        if (registry == null) {
+            return;
+        }
+        Tags tags = Tags.of("cache", cache, "operation", operation);
+        CachedSnapshot snapshot = new CachedSnapshot(histogram);
+        gauge(name, unit, tags.and("quantile", "0.5"), snapshot, s -> s.get().p50() / scale);
+        gauge(name, unit, tags.and("quantile", "0.9"), snapshot, s -> s.get().p90() / scale);
+        gauge(name, unit, tags.and("quantile", "0.99"), snapshot, s -> s.get().p99() / scale);
+        gauge(name, unit, tags.and("quantile", "0.999"), snapshot, s -> s.get().p999() / scale);
+        gauge(name, unit, tags.and("quantile", "1.0"), snapshot, s -> s.get().max() / scale);
+        FunctionCounter.builder(name + ".count", snapshot, s -> s.get().count())
+                .tags(tags)
+                .register(registry);
+    }
+
+    private void gauge(String name, String unit, Tags tags, CachedSnapshot snapshot,
+                       ToDoubleFunction<CachedSnapshot> function) {
+        Gauge.builder(name, snapshot, function).baseUnit(unit).tags(tags).register(registry);
+    }
+
+    private static String key(String cache, String operation) {
+        return cache + ":" + operation;
+    }
+
+    /**
+     * 直方图的统计快照（有效期内复用，过期后由下一次读取重新计算）
+     */
+    static final class CachedSnapshot {
+
+        private final LongHistogram histogram;
+        private final long ttlNanos;
+        private LongHistogram.Snapshot snapshot;
+        private long takenAt;
+
+        CachedSnapshot(LongHistogram histogram) {
+            this(histogram, SNAPSHOT_TTL_NANOS);
+        }
+
+        CachedSnapshot(LongHistogram histogram, long ttlNanos) {
+            this.histogram = histogram;
+            this.ttlNanos = ttlNanos;
+        }
+
+        /**
+         * 采集线程依次读取各项指标，竞争很少，因此直接加锁，避免并发采集时重复计算快照
+         */
+        synchronized LongHistogram.Snapshot get() {
+            long now = System.nanoTime();
+            if (snapshot == null || now - takenAt >= ttlNanos) {
+                snapshot = histogram.snapshot();
+                takenAt = now;
+            }
+            return snapshot;
+        }
+
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.igeeksky.xcache.samples.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 缓存指标端点
+ * <p>
+ * GET /actuator/cachemetrics：获取各缓存操作的延迟（单位：纳秒）与批量键数量的百分位数；<br>
+ * DELETE /actuator/cachemetrics：重置统计数据。
+ * <p>
+ * 需通过 management.endpoints.web.exposure.include 开放此端点。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@Component
+@Endpoint(id = "cachemetrics")
+public class CacheMetricsEndpoint {
+
+    private final CacheMetrics cacheMetrics;
+
+    public CacheMetricsEndpoint(CacheMetrics cacheMetrics) {
+        this.cacheMetrics = cacheMetrics;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, LongHistogram.Snapshot>> metrics() {
+        return cacheMetrics.snapshot();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        cacheMetrics.reset();
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.igeeksky.xcache.samples.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对数线性直方图（类似 HdrHistogram）
+ * <p>
+ * 将 [0, Long.MAX_VALUE] 按 2 的幂划分为若干区间，每个区间再等分为 32 个子桶，因此相对误差不超过 1/32（约 3%）；
+ * 小于 32 的值精确计数。共 1888 个桶，占用约 15 KB。
+ * <p>
+ * 记录操作仅包含位运算与原子递增，不分配对象，可用于热点路径；统计结果为启动以来（或上次重置以来）的累计值。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class LongHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BITS) * SUB_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * 记录一个值（负数按 0 记录）
+     *
+     * @param value 值
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.getAndIncrement(index(value));
+        count.increment();
+        sum.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * 重置所有统计数据
+     * <p>
+     * 与并发的记录操作之间没有同步，重置期间记录的少量数据可能丢失。
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    /**
+     * 获取统计快照
+     *
+     * @return 统计快照
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += (counts[i] = buckets.get(i));
+        }
+        long maxValue = max.get();
+        if (total == 0) {
+            return new Snapshot(0, 0, 0, 0, 0, 0, 0, 0);
+        }
+        double mean = (double) sum.sum() / total;
+        return new Snapshot(total, mean,
+                percentile(counts, total, 0.5, maxValue),
+                percentile(counts, total, 0.9, maxValue),
+                percentile(counts, total, 0.99, maxValue),
+                percentile(counts, total, 0.999, maxValue),
+                percentile(counts, total, 0.9999, maxValue),
+                maxValue);
+    }
+
+    /**
+     * 计算百分位数：返回对应桶的上界（不超过最大值）
+     */
+    private static long percentile(long[] counts, long total, double quantile, long maxValue) {
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    private static int index(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        return (shift + 1) * SUB_COUNT + (int) ((value >>> shift) - SUB_COUNT);
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_COUNT - 1;
+        long sub = index % SUB_COUNT;
+        long upper = ((SUB_COUNT + sub + 1) << shift) - 1;
+        return (upper < 0) ? Long.MAX_VALUE : upper;
+    }
+
+    /**
+     * 统计快照
+     *
+     * @param count 记录次数
+     * @param mean  平均值
+     * @param p50   50 百分位数
+     * @param p90   90 百分位数
+     * @param p99   99 百分位数
+     * @param p999  99.9 百分位数
+     * @param p9999 99.99 百分位数
+     * @param max   最大值
+     */
+    public record Snapshot(long count, double mean, long p50, long p90, long p99, long p999, long p9999, long max) {
+
+        @Override
+        public String toString() {
+            return String.format("count=%d, mean=%.1f, p50=%d, p90=%d, p99=%d, p999=%d, p9999=%d, max=%d",
+                    count, mean, p50, p90, p99, p999, p9999, max);
+        }
+
+    }
+
+}
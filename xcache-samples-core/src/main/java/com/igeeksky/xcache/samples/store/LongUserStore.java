@@ -0,0 +1,320 @@
+package com.igeeksky.xcache.samples.store;
+
+import com.igeeksky.xcache.samples.User;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * 基于原始类型 long 键的存储引擎
+ * <p>
+ * 数据按键的哈希值分散到多个分段，每个分段是一个线性探测的开放寻址哈希表：
+ * 键存储于 {@code long[]}，值存储于 {@code User[]}，无需为每个元素创建 Long 对象和链表节点，
+ * 因此每个元素仅占用约 16~24 字节（不含 User 对象本身），可大幅降低千万级数据时的内存占用与 GC 压力。
+ * <p>
+ * 并发控制：每个分段一把 StampedLock，写操作持有写锁，读操作使用乐观读（读期间有写操作时才转为悲观读锁）。
+ * <p>
+ * 删除采用后移（backward shift）算法，无需墓碑标记，因此频繁删除也不会导致探测链变长。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class LongUserStore implements UserStore {
+
+    // 分段数量（必须为 2 的幂）
+    private static final int SHARD_COUNT = 16;
+    // 分段索引使用哈希值的最高 SHARD_BITS 位，槽位索引使用其后的若干位
+    // 斐波那契散列的高位分布均匀，低位则不然（最低位与用户ID的奇偶性相同），因此均不使用低位
+    private static final int SHARD_BITS = Integer.numberOfTrailingZeros(SHARD_COUNT);
+    private static final int SHARD_SHIFT = Long.SIZE - SHARD_BITS;
+    // 负载因子
+    private static final float LOAD_FACTOR = 0.75f;
+    // 分段最小容量
+    private static final int MIN_CAPACITY = 16;
+    // 分段最大容量
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final int shardCapacity;
+
+    private final Shard[] shards = new Shard[SHARD_COUNT];
+
+    public LongUserStore(int initialCapacity) {
+        this.shardCapacity = tableSizeFor((int) Math.ceil(initialCapacity / (double) SHARD_COUNT / LOAD_FACTOR));
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            shards[i] = new Shard(shardCapacity);
+        }
+    }
+
+    @Override
+    public User get(long id) {
+        long hash = hash(id);
+        return shardFor(hash).get(id, hash);
+    }
+
+    @Override
+    public User put(long id, User user) {
+        long hash = hash(id);
+        return shardFor(hash).put(id, hash, user);
+    }
+
+    @Override
+    public User remove(long id) {
+        long hash = hash(id);
+        return shardFor(hash).remove(id, hash);
+    }
+
+    @Override
+    public void forEach(Consumer<User> consumer) {
+        for (Shard shard : shards) {
+            shard.forEach(consumer);
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (Shard shard : shards) {
+            shard.clear(shardCapacity);
+        }
+    }
+
+    private Shard shardFor(long hash) {
+        return shards[(int) (hash >>> SHARD_SHIFT)];
+    }
+
+    /**
+     * 斐波那契散列：使连续的用户ID均匀分布于各分段
+     */
+    private static long hash(long id) {
+        return id * 0x9E3779B97F4A7C15L;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        if (capacity <= MIN_CAPACITY) {
+            return MIN_CAPACITY;
+        }
+        if (capacity >= MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    /**
+     * 哈希表
+     * <p>
+     * keys 与 values 长度相同且同时创建，扩容时整体替换，因此乐观读期间不会出现数组越界。
+     * <p>
+     * 槽位是否为空以 values[i] 是否为 null 判断，因此任意 long 值（包括 0）均可作为键。
+     */
+    private static final class Table {
+
+        private final long[] keys;
+        private final User[] values;
+        private final int mask;
+        private final int shift;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new User[capacity];
+            this.mask = capacity - 1;
+            this.shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+        }
+
+        /**
+         * 计算键的理想槽位：跳过用于选择分段的最高位，取其后 log2(capacity) 位
+         */
+        private int home(long hash) {
+            return (int) ((hash << SHARD_BITS) >>> shift);
+        }
+
+        private int indexOf(long key, long hash) {
+            int i = home(hash);
+            // 最多探测 capacity 次：乐观读期间数据可能变化，需保证循环一定会结束
+            for (int n = 0; n <= mask; n++) {
+                if (values[i] == null) {
+                    return -1;
+                }
+                if (keys[i] == key) {
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+    }
+
+    private static final class Shard {
+
+        private final StampedLock lock = new StampedLock();
+
+        private Table table;
+        private int size;
+        private int threshold;
+
+        private Shard(int capacity) {
+            this.reset(capacity);
+        }
+
+        private User get(long key, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0L) {
+                Table t = this.table;
+                int i = t.indexOf(key, hash);
+                User value = (i >= 0) ? t.values[i] : null;
+                if (lock.validate(stamp)) {
+                    return value;
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                Table t = this.table;
+                int i = t.indexOf(key, hash);
+                return (i >= 0) ? t.values[i] : null;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private User put(long key, long hash, User value) {
+            long stamp = lock.writeLock();
+            try {
+                Table t = this.table;
+                int mask = t.mask;
+                int i = t.home(hash);
+                while (t.values[i] != null) {
+                    if (t.keys[i] == key) {
+                        User old = t.values[i];
+                        t.values[i] = value;
+                        return old;
+                    }
+                    i = (i + 1) & mask;
+                }
+                if (size >= mask) {
+                    // 仅当分段容量已达上限且无法扩容时才会出现
+                    throw new IllegalStateException("LongUserStore shard is full");
+                }
+                t.keys[i] = key;
+                t.values[i] = value;
+                if (++size > threshold) {
+                    resize();
+                }
+                return null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private User remove(long key, long hash) {
+            long stamp = lock.writeLock();
+            try {
+                Table t = this.table;
+                int i = t.indexOf(key, hash);
+                if (i < 0) {
+                    return null;
+                }
+                User old = t.values[i];
+                shiftBackward(t, i);
+                size--;
+                return old;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * 后移删除：将 hole 之后探测链上的元素前移填补空位，保证探测链不中断
+         */
+        private static void shiftBackward(Table t, int hole) {
+            int mask = t.mask;
+            int i = (hole + 1) & mask;
+            while (t.values[i] != null) {
+                int home = t.home(hash(t.keys[i]));
+                // 元素的理想位置不在 (hole, i] 区间内（循环意义上），则可前移至 hole
+                boolean movable = (hole <= i) ? (home <= hole || home > i) : (home <= hole && home > i);
+                if (movable) {
+                    t.keys[hole] = t.keys[i];
+                    t.values[hole] = t.values[i];
+                    hole = i;
+                }
+                i = (i + 1) & mask;
+            }
+            t.keys[hole] = 0L;
+            t.values[hole] = null;
+        }
+
+        private void resize() {
+            Table old = this.table;
+            int capacity = old.keys.length;
+            if (capacity >= MAX_CAPACITY) {
+                return;
+            }
+            Table t = new Table(capacity << 1);
+            int mask = t.mask;
+            for (int j = 0; j < capacity; j++) {
+                User value = old.values[j];
+                if (value != null) {
+                    long key = old.keys[j];
+                    int i = t.home(hash(key));
+                    while (t.values[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    t.keys[i] = key;
+                    t.values[i] = value;
+                }
+            }
+            this.table = t;
+            this.threshold = (int) (t.keys.length * LOAD_FACTOR);
+        }
+
+        private void forEach(Consumer<User> consumer) {
+            // 仅在持有读锁时复制数组，遍历在锁外执行：消费者可能执行 IO（例如写快照），不应长时间阻塞写操作
+            User[] values;
+            long stamp = lock.readLock();
+            try {
+                values = table.values.clone();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            for (User value : values) {
+                if (value != null) {
+                    consumer.accept(value);
+                }
+            }
+        }
+
+        private int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private void clear(int capacity) {
+            long stamp = lock.writeLock();
+            try {
+                this.reset(capacity);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void reset(int capacity) {
+            this.table = new Table(capacity);
+            this.size = 0;
+            this.threshold = (int) (capacity * LOAD_FACTOR);
+        }
+
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.igeeksky.xcache.samples.store;
+
+import com.igeeksky.xcache.samples.User;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 基于 ConcurrentHashMap 的存储引擎
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class MapUserStore implements UserStore {
+
+    private final int initialCapacity;
+
+    private volatile Map<Long, User> database;
+
+    public MapUserStore(int initialCapacity) {
+        this.initialCapacity = initialCapacity;
+        this.database = new ConcurrentHashMap<>(initialCapacity);
+    }
+
+    @Override
+    public User get(long id) {
+        return database.get(id);
+    }
+
+    @Override
+    public User put(long id, User user) {
+        return database.put(id, user);
+    }
+
+    @Override
+    public User remove(long id) {
+        return database.remove(id);
+    }
+
+    @Override
+    public void forEach(Consumer<User> consumer) {
+        database.values().forEach(consumer);
+    }
+
+    @Override
+    public int size() {
+        return database.size();
+    }
+
+    @Override
+    public void clear() {
+        // 直接替换为新的 Map，以便释放扩容后的大数组
+        this.database = new ConcurrentHashMap<>(initialCapacity);
+    }
+
+}
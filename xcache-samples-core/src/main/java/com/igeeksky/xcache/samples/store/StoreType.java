@@ -0,0 +1,23 @@
+package com.igeeksky.xcache.samples.store;
+
+/**
+ * 存储引擎类型
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public enum StoreType {
+
+    /**
+     * {@link MapUserStore}：基于 ConcurrentHashMap，键为 Long 对象
+     */
+    MAP,
+
+    /**
+     * {@link LongUserStore}：基于分段的开放寻址哈希表，键为原始类型 long
+     * <p>
+     * 无需为每个键创建 Long 对象和链表节点，适用于千万级数据的压测场景
+     */
+    LONG
+
+}
@@ -0,0 +1,562 @@
+package com.igeeksky.xcache.samples.store;
+
+import com.igeeksky.xcache.samples.User;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 用户数据持久化：追加写日志 + 快照
+ * <p>
+ * 1. 日志：每次写操作（新增、更新、删除、清空）追加一条记录，通过内存映射文件写入，无需系统调用；<br>
+ * 2. 组提交：写入仅修改映射内存，由 {@link #flush()} 定期将脏页刷到磁盘，多次写操作合并为一次 fsync；<br>
+ * 3. 压缩：日志过大时，先切换到新的日志文件，再将全量数据写为快照，快照写入完成后删除旧日志；<br>
+ * 4. 恢复：启动时先加载最新快照，再按顺序重放该快照之后的所有日志。
+ * <p>
+ * 快照为模糊快照：写快照期间不阻止写操作，因此快照可能包含切换日志之后的部分写操作。
+ * 由于日志记录均为整体覆盖（新增、更新、删除、清空），重放是幂等的，重放新日志后即可得到一致的数据。
+ * <p>
+ * 日志记录格式：{@code [int length][int crc32][byte op][long id][byte flags][int age][int nameLength][name]}，
+ * length 为 0 表示日志结束；length 最后写入，因此未写完的记录不会被重放。
+ * <p>
+ * 线程安全：追加的顺序由调用方保证（UserDao 写锁）；刷盘、写快照可与追加并发执行。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class UserLog implements Closeable {
+
+    private static final String SNAPSHOT_FILE = "users.snapshot";
+    private static final String LOG_FILE_PREFIX = "users-";
+    private static final String LOG_FILE_SUFFIX = ".log";
+
+    private static final int SNAPSHOT_MAGIC = 0x55534552;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final byte OP_CLEAR = 3;
+
+    private static final byte FLAG_NAME = 1;
+    private static final byte FLAG_AGE = 1 << 1;
+
+    // 记录头：length + crc32
+    private static final int HEADER_SIZE = 8;
+    // 记录体固定部分：op + id + flags + age + nameLength
+    private static final int PUT_FIXED_SIZE = 1 + 8 + 1 + 4 + 4;
+    private static final int DELETE_SIZE = 1 + 8;
+    private static final int CLEAR_SIZE = 1;
+
+    private final Path dir;
+    private final int mappedSize;
+    private final CRC32 crc32 = new CRC32();
+    // 保护 channel 与 buffer 的切换（扩容、压缩、刷盘）
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long epoch;
+    // 已切换但尚未被快照取代的旧日志（没有时为 null），仅由写快照的线程关闭
+    private FileChannel retiredChannel;
+    private MappedByteBuffer retiredBuffer;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int position;
+    private boolean dirty;
+
+    /**
+     * @param dir        数据目录
+     * @param mappedSize 日志文件每次映射的最小长度（字节）
+     */
+    public UserLog(Path dir, int mappedSize) {
+        this.dir = dir;
+        this.mappedSize = mappedSize;
+    }
+
+    /**
+     * 加载快照并重放日志，将数据恢复到存储引擎
+     *
+     * @param store 存储引擎（应为空）
+     */
+    public void recover(UserStore store) {
+        lock.lock();
+        try {
+            Files.createDirectories(dir);
+            readSnapshot(store);
+            deleteLogsBefore(epoch);
+            Path logFile = logFile(epoch);
+            if (Files.exists(logFile)) {
+                replay(logFile, store);
+            }
+            // 快照未写完时（例如写快照期间进程退出），切换后的新日志同样需要按顺序重放
+            while (Files.exists(logFile(epoch + 1))) {
+                epoch++;
+                replay(logFile(epoch), store);
+            }
+            open(logFile(epoch));
+        } catch (IOException e) {
+            throw new UncheckedIOException("UserLog recover failed. dir:" + dir, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 追加新增或更新记录
+     */
+    public void appendPut(User user) {
+        String name = user.getName();
+        Integer age = user.getAge();
+        byte[] nameBytes = (name != null) ? name.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        byte flags = (byte) ((name != null ? FLAG_NAME : 0) | (age != null ? FLAG_AGE : 0));
+
+        lock.lock();
+        try {
+            int start = reserve(PUT_FIXED_SIZE + nameBytes.length);
+            buffer.put(OP_PUT).putLong(user.getId()).put(flags).putInt(age != null ? age : 0)
+                    .putInt(nameBytes.length).put(nameBytes);
+            commit(start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 追加删除记录
+     */
+    public void appendDelete(long id) {
+        lock.lock();
+        try {
+            int start = reserve(DELETE_SIZE);
+            buffer.put(OP_DELETE).putLong(id);
+            commit(start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 追加清空记录
+     */
+    public void appendClear() {
+        lock.lock();
+        try {
+            int start = reserve(CLEAR_SIZE);
+            buffer.put(OP_CLEAR);
+            commit(start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 将已追加的记录刷到磁盘（组提交）
+     * <p>
+     * 仅在持有锁时获取当前的映射内存与有效长度，刷盘（fsync）在锁外执行，因此不会阻塞追加。
+     * 刷盘期间追加的记录由下一次刷盘负责。
+     */
+    public void flush() {
+        MappedByteBuffer target;
+        int end;
+        lock.lock();
+        try {
+            if (!dirty || buffer == null) {
+                return;
+            }
+            target = buffer;
+            end = position;
+            dirty = false;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            // 日志文件切换（压缩）或重新映射后，旧映射仍然有效，刷盘结果对同一文件同样生效
+            target.force(0, end);
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                // 刷盘失败：如未重新映射或切换日志文件，则恢复脏标记，由下一次刷盘重试
+                // （重新映射前会先刷盘；压缩后旧日志的数据已全部写入快照）
+                if (target == buffer) {
+                    dirty = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 当前日志文件的有效长度（字节）
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return position;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 压缩：切换到新的日志文件，然后将存储引擎的全量数据写为新快照，并删除旧日志
+     * <p>
+     * 调用方需保证切换日志之前追加的记录均已写入存储引擎，参见 {@link #rotate()}。
+     *
+     * @param store 存储引擎
+     */
+    public void compact(UserStore store) {
+        snapshot(store, rotate());
+    }
+
+    /**
+     * 切换到新的日志文件，之后追加的记录写入新日志
+     * <p>
+     * 仅打开并映射新文件，旧日志的刷盘与删除由 {@link #snapshot(UserStore, long)} 负责，因此耗时很短。
+     * 调用方需保证切换时，已追加到旧日志的记录均已写入存储引擎（UserDao 在写锁内切换）。
+     *
+     * @return 新日志的 epoch，即随后写快照时使用的 epoch
+     */
+    public long rotate() {
+        lock.lock();
+        try {
+            if (retiredChannel != null) {
+                throw new IllegalStateException("UserLog snapshot is in progress. dir:" + dir);
+            }
+            retiredChannel = channel;
+            retiredBuffer = buffer;
+            epoch++;
+            open(logFile(epoch));
+            return epoch;
+        } catch (IOException e) {
+            throw new UncheckedIOException("UserLog rotate failed. dir:" + dir, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 将存储引擎的全量数据写为快照，然后删除旧日志
+     * <p>
+     * 不持有锁：写快照期间追加、刷盘均可正常进行；写入失败时保留旧快照与旧日志，恢复时全部重放。
+     *
+     * @param store         存储引擎
+     * @param snapshotEpoch {@link #rotate()} 返回的 epoch
+     */
+    public void snapshot(UserStore store, long snapshotEpoch) {
+        FileChannel retired;
+        MappedByteBuffer retiredMapped;
+        lock.lock();
+        try {
+            retired = retiredChannel;
+            retiredMapped = retiredBuffer;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            if (retired != null) {
+                // 快照写入完成之前，恢复仍依赖旧日志，因此先将其刷到磁盘
+                retiredMapped.force();
+            }
+            writeSnapshot(store, snapshotEpoch);
+            deleteLogsBefore(snapshotEpoch);
+        } catch (IOException e) {
+            throw new UncheckedIOException("UserLog snapshot failed. dir:" + dir, e);
+        } finally {
+            if (retired != null) {
+                closeRetired(retired);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (retiredChannel != null) {
+                retiredBuffer.force();
+                retiredChannel.close();
+                retiredChannel = null;
+                retiredBuffer = null;
+            }
+            if (channel != null) {
+                buffer.force();
+                close0();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("UserLog close failed. dir:" + dir, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 预留记录空间，并将 buffer 定位到记录体的起始位置
+     *
+     * @return 记录的起始位置
+     */
+    private int reserve(int bodySize) {
+        int required = position + HEADER_SIZE + bodySize;
+        if (required > buffer.capacity()) {
+            remap((int) Math.max(required, Math.min(Integer.MAX_VALUE, buffer.capacity() * 2L)));
+        }
+        buffer.position(position + HEADER_SIZE);
+        return position;
+    }
+
+    /**
+     * 写入记录头：先写 crc32，最后写 length，length 写入后记录才可见
+     */
+    private void commit(int start) {
+        int end = buffer.position();
+        int length = end - start - HEADER_SIZE;
+        crc32.reset();
+        crc32.update(buffer.slice(start + HEADER_SIZE, length));
+        buffer.putInt(start + 4, (int) crc32.getValue());
+        buffer.putInt(start, length);
+        position = end;
+        dirty = true;
+    }
+
+    private void remap(int capacity) {
+        try {
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("UserLog remap failed. dir:" + dir, e);
+        }
+    }
+
+    private void open(Path logFile) throws IOException {
+        channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int capacity = (int) Math.max(channel.size(), mappedSize);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        position = validLength(buffer);
+        dirty = false;
+    }
+
+    private void close0() throws IOException {
+        channel.close();
+        channel = null;
+        buffer = null;
+        position = 0;
+    }
+
+    /**
+     * 关闭旧日志（如 close 已将其关闭，则不做任何处理）
+     */
+    private void closeRetired(FileChannel retired) {
+        lock.lock();
+        try {
+            if (retiredChannel == retired) {
+                retiredChannel = null;
+                retiredBuffer = null;
+                retired.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("UserLog close failed. dir:" + dir, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 删除已被快照取代的日志文件
+     */
+    private void deleteLogsBefore(long snapshotEpoch) throws IOException {
+        try (var files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(LOG_FILE_PREFIX) && name.endsWith(LOG_FILE_SUFFIX)) {
+                    String value = name.substring(LOG_FILE_PREFIX.length(), name.length() - LOG_FILE_SUFFIX.length());
+                    try {
+                        if (Long.parseLong(value) < snapshotEpoch) {
+                            Files.deleteIfExists(file);
+                        }
+                    } catch (NumberFormatException ignored) {
+                        // 非日志文件
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 重放日志
+     */
+    private void replay(Path logFile, UserStore store) throws IOException {
+        try (FileChannel ch = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            int end = validLength(buf);
+            int pos = 0;
+            while (pos < end) {
+                int length = buf.getInt(pos);
+                buf.position(pos + HEADER_SIZE);
+                byte op = buf.get();
+                if (op == OP_PUT) {
+                    User user = readUser(buf);
+                    store.put(user.getId(), user);
+                } else if (op == OP_DELETE) {
+                    store.remove(buf.getLong());
+                } else if (op == OP_CLEAR) {
+                    store.clear();
+                }
+                pos += HEADER_SIZE + length;
+            }
+        }
+    }
+
+    /**
+     * 逐条校验记录，返回最后一条完整记录的结束位置
+     */
+    private int validLength(ByteBuffer buf) {
+        int pos = 0;
+        int limit = buf.limit();
+        while (pos + HEADER_SIZE <= limit) {
+            int length = buf.getInt(pos);
+            if (length <= 0 || pos + HEADER_SIZE + length > limit) {
+                break;
+            }
+            crc32.reset();
+            crc32.update(buf.slice(pos + HEADER_SIZE, length));
+            if ((int) crc32.getValue() != buf.getInt(pos + 4)) {
+                break;
+            }
+            pos += HEADER_SIZE + length;
+        }
+        return pos;
+    }
+
+    private static User readUser(ByteBuffer buf) {
+        long id = buf.getLong();
+        byte flags = buf.get();
+        int age = buf.getInt();
+        byte[] nameBytes = new byte[buf.getInt()];
+        buf.get(nameBytes);
+        String name = (flags & FLAG_NAME) != 0 ? new String(nameBytes, StandardCharsets.UTF_8) : null;
+        return new User(id, name, (flags & FLAG_AGE) != 0 ? age : null);
+    }
+
+    /**
+     * 写入快照：先写临时文件并刷盘，再原子替换旧快照
+     */
+    private void writeSnapshot(UserStore store, long snapshotEpoch) throws IOException {
+        Path tmp = dir.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tmp.toFile())) {
+            CheckedOutputStream cos = new CheckedOutputStream(new BufferedOutputStream(fos, 1 << 16), new CRC32());
+            DataOutputStream out = new DataOutputStream(cos);
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(snapshotEpoch);
+            IOException[] error = new IOException[1];
+            store.forEach(user -> {
+                if (error[0] != null) {
+                    return;
+                }
+                try {
+                    writeUser(out, user);
+                } catch (IOException e) {
+                    error[0] = e;
+                }
+            });
+            if (error[0] != null) {
+                throw error[0];
+            }
+            // 结束标记（用户ID均为正数）
+            out.writeLong(-1L);
+            out.flush();
+            new DataOutputStream(fos).writeLong(cos.getChecksum().getValue());
+            fos.getChannel().force(true);
+        }
+        Files.move(tmp, dir.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeUser(DataOutputStream out, User user) throws IOException {
+        String name = user.getName();
+        Integer age = user.getAge();
+        byte[] nameBytes = (name != null) ? name.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        out.writeLong(user.getId());
+        out.writeByte((name != null ? FLAG_NAME : 0) | (age != null ? FLAG_AGE : 0));
+        out.writeInt(age != null ? age : 0);
+        out.writeInt(nameBytes.length);
+        out.write(nameBytes);
+    }
+
+    /**
+     * 读取快照，并设置当前日志的 epoch
+     * <p>
+     * 先完整校验快照的 crc32，校验通过后再加载数据，避免损坏的快照将部分数据写入存储引擎。
+     */
+    private void readSnapshot(UserStore store) throws IOException {
+        Path snapshot = dir.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(snapshot)) {
+            epoch = 0;
+            return;
+        }
+        verifySnapshot(snapshot);
+        try (InputStream fis = Files.newInputStream(snapshot)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(fis, 1 << 16));
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("invalid snapshot file:" + snapshot);
+            }
+            epoch = in.readLong();
+            long id;
+            while ((id = in.readLong()) != -1L) {
+                byte flags = in.readByte();
+                int age = in.readInt();
+                byte[] nameBytes = new byte[in.readInt()];
+                in.readFully(nameBytes);
+                String name = (flags & FLAG_NAME) != 0 ? new String(nameBytes, StandardCharsets.UTF_8) : null;
+                store.put(id, new User(id, name, (flags & FLAG_AGE) != 0 ? age : null));
+            }
+        }
+    }
+
+    /**
+     * 校验快照：文件末尾 8 字节为此前所有内容的 crc32
+     */
+    private static void verifySnapshot(Path snapshot) throws IOException {
+        try (FileChannel ch = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long end = ch.size() - Long.BYTES;
+            if (end < 0) {
+                throw new IOException("invalid snapshot file:" + snapshot);
+            }
+            CRC32 checksum = new CRC32();
+            ByteBuffer buf = ByteBuffer.allocate(1 << 16);
+            long pos = 0;
+            while (pos < end) {
+                buf.clear().limit((int) Math.min(buf.capacity(), end - pos));
+                int read = ch.read(buf, pos);
+                if (read < 0) {
+                    throw new EOFException("snapshot truncated:" + snapshot);
+                }
+                buf.flip();
+                checksum.update(buf);
+                pos += read;
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(Long.BYTES);
+            while (trailer.hasRemaining()) {
+                if (ch.read(trailer, end + trailer.position()) < 0) {
+                    throw new EOFException("snapshot truncated:" + snapshot);
+                }
+            }
+            if (trailer.getLong(0) != checksum.getValue()) {
+                throw new IOException("snapshot checksum mismatch:" + snapshot);
+            }
+        }
+    }
+
+    private Path logFile(long epoch) {
+        return dir.resolve(LOG_FILE_PREFIX + epoch + LOG_FILE_SUFFIX);
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.igeeksky.xcache.samples.store;
+
+import com.igeeksky.xcache.samples.User;
+
+import java.util.function.Consumer;
+
+/**
+ * 用户数据存储引擎
+ * <p>
+ * 实现类需保证线程安全：单条读写是原子的，且读操作可以与写操作并发执行。
+ * <p>
+ * 事务语义（唯一索引、批量操作的原子性）由 {@code UserDao} 通过读写锁保证，存储引擎无需关心。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public interface UserStore {
+
+    /**
+     * 根据用户ID获取用户信息
+     *
+     * @param id 用户ID
+     * @return 用户信息，如果不存在则返回 null
+     */
+    User get(long id);
+
+    /**
+     * 保存用户信息
+     *
+     * @param id   用户ID
+     * @param user 用户信息
+     * @return 旧的用户信息，如果不存在则返回 null
+     */
+    User put(long id, User user);
+
+    /**
+     * 删除用户信息
+     *
+     * @param id 用户ID
+     * @return 被删除的用户信息，如果不存在则返回 null
+     */
+    User remove(long id);
+
+    /**
+     * 遍历所有用户信息
+     * <p>
+     * 遍历期间如有并发写操作，不保证能读到最新数据；但遍历期间未被修改的数据必须遍历到，
+     * 且遍历不应长时间阻塞写操作（UserLog 在遍历期间写快照，不阻止写操作）。
+     *
+     * @param consumer 用户信息消费者
+     */
+    void forEach(Consumer<User> consumer);
+
+    /**
+     * 用户数量
+     *
+     * @return 用户数量
+     */
+    int size();
+
+    /**
+     * 清空所有数据
+     */
+    void clear();
+
+}
@@ -0,0 +1,121 @@
+package com.igeeksky.xcache.samples.trace;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存访问路径追踪（请求级）
+ * <p>
+ * 由 {@link #begin()} 绑定到当前线程，各缓存层在处理请求时通过 {@link #current()} 获取并记录：
+ * <ul>
+ *     <li>每个键由哪一层返回：内层先记录，外层仅在未记录时补充，因此记录的是实际提供数据的最内层；</li>
+ *     <li>各阶段的耗时：外层阶段的耗时包含内层阶段。</li>
+ * </ul>
+ * 未开启追踪时 {@link #current()} 返回 null，各缓存层仅多一次 ThreadLocal 读取。
+ * <p>
+ * 注意：仅记录当前线程的访问路径。启用微批加载或批量加载合并时，由其它请求的线程代为回源的键，记录为 cache 层。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public final class CacheTrace {
+
+    private static final ThreadLocal<CacheTrace> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, String> levels = new LinkedHashMap<>();
+    private final List<Stage> stages = new ArrayList<>();
+
+    private CacheTrace() {
+    }
+
+    /**
+     * 开启追踪并绑定到当前线程
+     *
+     * @return 追踪上下文
+     */
+    public static CacheTrace begin() {
+        CacheTrace trace = new CacheTrace();
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * 获取当前线程的追踪上下文
+     *
+     * @return 追踪上下文（未开启追踪时返回 null）
+     */
+    public static CacheTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 结束追踪，解除与当前线程的绑定
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 记录键由哪一层返回（已记录的键忽略）
+     *
+     * @param key   键
+     * @param level 缓存层（bloom、pinned、front、cache、loader）
+     */
+    public void served(Object key, String level) {
+        levels.putIfAbsent(String.valueOf(key), level);
+    }
+
+    /**
+     * 记录键集由哪一层返回（已记录的键忽略）
+     *
+     * @param keys  键集
+     * @param level 缓存层（bloom、pinned、front、cache、loader）
+     */
+    public void served(Collection<?> keys, String level) {
+        for (Object key : keys) {
+            served(key, level);
+        }
+    }
+
+    /**
+     * 记录阶段耗时（从 startNanos 至今）
+     *
+     * @param name       阶段名称
+     * @param startNanos 阶段开始时间（System.nanoTime()）
+     */
+    public void stage(String name, long startNanos) {
+        stages.add(new Stage(name, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos)));
+    }
+
+    /**
+     * 获取追踪快照
+     *
+     * @return 追踪快照
+     */
+    public Snapshot snapshot() {
+        long total = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        return new Snapshot(new LinkedHashMap<>(levels), new ArrayList<>(stages), total);
+    }
+
+    /**
+     * 阶段耗时
+     *
+     * @param name   阶段名称
+     * @param micros 耗时（单位：微秒）
+     */
+    public record Stage(String name, long micros) {
+    }
+
+    /**
+     * 追踪快照
+     *
+     * @param levels      每个键由哪一层返回（bloom：布隆过滤器判断不存在；pinned：热点键驻留数据；
+     *                    front：前置缓存；cache：xcache 缓存；loader：回源）
+     * @param stages      各阶段耗时（按完成顺序排列）
+     * @param totalMicros 总耗时（单位：微秒）
+     */
+    public record Snapshot(Map<String, String> levels, List<Stage> stages, long totalMicros) {
+    }
+
+}
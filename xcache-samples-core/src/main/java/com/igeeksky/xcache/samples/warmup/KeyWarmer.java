@@ -0,0 +1,152 @@
+package com.igeeksky.xcache.samples.warmup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 缓存预热执行器
+ * <p>
+ * 将键列表切分为多批，由 parallelism 个虚拟线程并行调用批量加载函数；所有线程共享同一个限速器，按键数量限速。
+ * <p>
+ * 单批加载失败仅记录日志，不影响其它批次：预热是尽力而为的优化，不应阻止应用启动。
+ *
+ * @param <K> 键类型
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class KeyWarmer<K> {
+
+    private static final Logger log = LoggerFactory.getLogger(KeyWarmer.class);
+
+    private final String name;
+    private final int chunkSize;
+    private final int parallelism;
+    // 每个键的许可间隔（单位：纳秒，0 表示不限速）
+    private final long nanosPerKey;
+    // 下一个许可的可用时间
+    private final AtomicLong nextPermit = new AtomicLong(System.nanoTime());
+
+    /**
+     * @param name        名称（用于线程名称与日志）
+     * @param chunkSize   每批加载的键数量
+     * @param parallelism 并行加载的线程数量
+     * @param rate        每秒最多加载的键数量（小于等于 0 表示不限速）
+     */
+    public KeyWarmer(String name, int chunkSize, int parallelism, long rate) {
+        this.name = name;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.parallelism = Math.max(1, parallelism);
+        this.nanosPerKey = (rate > 0) ? Math.max(1, TimeUnit.SECONDS.toNanos(1) / rate) : 0;
+    }
+
+    /**
+     * 预热：阻塞直到所有批次加载完成
+     *
+     * @param keys   键列表（重复的键仅加载一次）
+     * @param loader 批量加载函数，返回成功加载的数据
+     * @return 预热结果
+     */
+    public Result warm(Collection<? extends K> keys, Function<Set<K>, ? extends Map<K, ?>> loader) {
+        long start = System.nanoTime();
+        List<Set<K>> chunks = partition(keys);
+        LongAdder loaded = new LongAdder();
+        LongAdder failures = new LongAdder();
+        AtomicInteger index = new AtomicInteger();
+        int threads = Math.min(parallelism, chunks.size());
+        // 仅提交 threads 个工作任务，因此并行度不超过 parallelism
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    int next;
+                    while ((next = index.getAndIncrement()) < chunks.size()) {
+                        Set<K> chunk = chunks.get(next);
+                        acquire(chunk.size());
+                        try {
+                            Map<K, ?> values = loader.apply(chunk);
+                            loaded.add((values != null) ? values.size() : 0);
+                        } catch (RuntimeException e) {
+                            failures.increment();
+                            log.warn("[{}] warm up chunk failed, size: {}. {}", name, chunk.size(), e.getMessage());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("[{}] warm up interrupted", name);
+        } catch (ExecutionException e) {
+            log.warn("[{}] warm up failed. {}", name, e.getCause().toString());
+        } finally {
+            executor.shutdownNow();
+        }
+        int total = 0;
+        for (Set<K> chunk : chunks) {
+            total += chunk.size();
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new Result(total, loaded.sum(), chunks.size(), failures.sum(), elapsed);
+    }
+
+    private List<Set<K>> partition(Collection<? extends K> keys) {
+        Set<K> distinct = new LinkedHashSet<>(keys);
+        List<Set<K>> chunks = new ArrayList<>((distinct.size() + chunkSize - 1) / chunkSize);
+        Set<K> chunk = null;
+        for (K key : distinct) {
+            if (chunk == null || chunk.size() == chunkSize) {
+                chunk = new HashSet<>(chunkSize * 4 / 3 + 1);
+                chunks.add(chunk);
+            }
+            chunk.add(key);
+        }
+        return chunks;
+    }
+
+    /**
+     * 限速：为 permits 个键预留许可，并等待至许可可用
+     */
+    private void acquire(int permits) throws InterruptedException {
+        if (nanosPerKey == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long cost = nanosPerKey * permits;
+        long available = nextPermit.getAndUpdate(prev -> Math.max(prev, now) + cost);
+        long wait = available - now;
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * 预热结果
+     *
+     * @param keys          键数量（去重后）
+     * @param loaded        成功加载的数据数量（不存在的键不计入）
+     * @param chunks        批次数量
+     * @param failures      失败批次数量
+     * @param elapsedMillis 耗时（单位：毫秒）
+     */
+    public record Result(int keys, long loaded, int chunks, long failures, long elapsedMillis) {
+
+        @Override
+        public String toString() {
+            return String.format("keys=%d, loaded=%d, chunks=%d, failures=%d, elapsed=%dms",
+                    keys, loaded, chunks, failures, elapsedMillis);
+        }
+
+    }
+
+}
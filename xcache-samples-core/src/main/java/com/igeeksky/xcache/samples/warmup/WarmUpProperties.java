@@ -0,0 +1,117 @@
+package com.igeeksky.xcache.samples.warmup;
+
+/**
+ * 缓存预热配置
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class WarmUpProperties {
+
+    /**
+     * 是否启用缓存预热（默认值：false）
+     */
+    private boolean enabled = false;
+
+    /**
+     * 键来源（默认值：snapshot）
+     */
+    private WarmUpSource source = WarmUpSource.SNAPSHOT;
+
+    /**
+     * 预热的最大键数量（默认值：10000，仅适用于 snapshot）
+     */
+    private int size = 10000;
+
+    /**
+     * 键文件路径（仅适用于 file）
+     */
+    private String file;
+
+    /**
+     * 每批加载的键数量（默认值：500）
+     */
+    private int chunkSize = 500;
+
+    /**
+     * 并行加载的线程数量（默认值：4）
+     */
+    private int parallelism = 4;
+
+    /**
+     * 每秒最多加载的键数量（默认值：20000，小于等于 0 表示不限速），避免预热流量压垮数据源
+     */
+    private long rate = 20000;
+
+    /**
+     * 启动后统计缓存命中率的时长（默认值：60000 单位：毫秒，小于等于 0 表示不统计）
+     * <p>
+     * 未启用预热时同样统计，以便与冷启动对比。
+     */
+    private long reportAfter = 60000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public WarmUpSource getSource() {
+        return source;
+    }
+
+    public void setSource(WarmUpSource source) {
+        this.source = source;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public long getRate() {
+        return rate;
+    }
+
+    public void setRate(long rate) {
+        this.rate = rate;
+    }
+
+    public long getReportAfter() {
+        return reportAfter;
+    }
+
+    public void setReportAfter(long reportAfter) {
+        this.reportAfter = reportAfter;
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.igeeksky.xcache.samples.warmup;
+
+/**
+ * 缓存预热的键来源
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public enum WarmUpSource {
+
+    /**
+     * 数据库快照：最新创建的 N 个用户ID
+     */
+    SNAPSHOT,
+
+    /**
+     * 键文件：每行一个键，忽略空行及 # 开头的注释行
+     */
+    FILE
+
+}
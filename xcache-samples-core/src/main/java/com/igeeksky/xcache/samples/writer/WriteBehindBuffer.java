@@ -0,0 +1,335 @@
+package com.igeeksky.xcache.samples.writer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 延迟写缓冲区（write-behind）
+ * <p>
+ * 写请求仅放入缓冲区即返回，由后台线程定期或在积累到一定数量后批量写入数据源：
+ * <ul>
+ *     <li>合并：同一个键的多次写入仅保留最后一次的值，不占用额外容量；</li>
+ *     <li>背压：缓冲区中待写入的键数量达到容量上限时，写请求阻塞，直到后台线程写入一批数据；</li>
+ *     <li>有序：仅有一个后台线程按写入顺序批量写入，同一个键的新值一定在旧值之后写入；</li>
+ *     <li>可读：尚未写入完成的值（包括正在写入的一批）可通过 {@link #get(Object)} 读取，
+ *     回源加载应优先读取此值，否则会从数据源读到旧值；</li>
+ *     <li>关闭：停止接收写请求，并将缓冲区中的所有数据写入数据源后再退出。</li>
+ * </ul>
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class WriteBehindBuffer<K, V> {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindBuffer.class);
+
+    private final String name;
+    private final Consumer<Map<K, V>> writer;
+    private final int capacity;
+    private final int batchSize;
+    // 待写入数据达到此数量时立即写入，无需等待写入周期结束
+    private final int flushThreshold;
+    private final long flushIntervalNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition readyToFlush = lock.newCondition();
+    // 待写入数据（按首次写入顺序排列，仅在持有锁时读写）
+    private final LinkedHashMap<K, V> pending = new LinkedHashMap<>();
+    // 正在写入的一批数据（写入函数返回后清空，仅在持有锁时读写）
+    private final Map<K, V> flushing = new HashMap<>();
+    private final Thread flusher;
+    private boolean closed;
+
+    // 统计信息
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * @param name          名称（用于线程名称与日志）
+     * @param writer        批量写入函数（写入失败时应自行处理，抛出的异常仅记录日志）
+     * @param capacity      缓冲区容量（待写入的键数量上限）
+     * @param batchSize     每批写入的最大键数量
+     * @param flushInterval 写入周期（单位：毫秒）
+     */
+    public WriteBehindBuffer(String name, Consumer<Map<K, V>> writer, int capacity, int batchSize, long flushInterval) {
+        this.name = name;
+        this.writer = writer;
+        this.capacity = Math.max(1, capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushThreshold = Math.min(this.capacity, this.batchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushInterval));
+        this.flusher = new Thread(this::run, name + "-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * 提交写请求
+     * <p>
+     * 缓冲区已满时阻塞，直到有空余容量。
+     *
+     * @param key   键
+     * @param value 值
+     */
+    public void submit(K key, V value) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("[" + name + "] has been closed");
+            }
+            submitted.increment();
+            if (pending.containsKey(key)) {
+                pending.put(key, value);
+                coalesced.increment();
+                return;
+            }
+            while (pending.size() >= capacity) {
+                readyToFlush.signal();
+                notFull.awaitUninterruptibly();
+                if (closed) {
+                    throw new IllegalStateException("[" + name + "] has been closed");
+                }
+            }
+            pending.put(key, value);
+            // 缓冲区由空转为非空时，唤醒后台线程开始计时；达到写入阈值时，唤醒后台线程立即写入
+            if (pending.size() == 1 || pending.size() >= flushThreshold) {
+                readyToFlush.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取尚未写入完成的值
+     *
+     * @param key 键
+     * @return 待写入或正在写入的值（不存在时返回 null）
+     */
+    public V get(K key) {
+        lock.lock();
+        try {
+            V value = pending.get(key);
+            return (value != null) ? value : flushing.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 丢弃尚未写入的值（例如数据已被删除）
+     * <p>
+     * 正在写入的一批数据无法撤回，仅不再通过 {@link #get(Object)} 返回。
+     *
+     * @param key 键
+     */
+    public void discard(K key) {
+        lock.lock();
+        try {
+            doDiscard(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 仅当尚未写入的值为指定值时丢弃（例如该值写入失败，但不影响之后提交的新值）
+     *
+     * @param key   键
+     * @param value 值
+     */
+    public void discard(K key, V value) {
+        lock.lock();
+        try {
+            if (pending.remove(key, value)) {
+                notFull.signalAll();
+            }
+            flushing.remove(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 批量丢弃尚未写入的值
+     *
+     * @param keys 键集合
+     */
+    public void discardAll(Collection<? extends K> keys) {
+        lock.lock();
+        try {
+            keys.forEach(this::doDiscard);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 丢弃所有尚未写入的值
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            pending.clear();
+            flushing.clear();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void doDiscard(K key) {
+        if (pending.remove(key) != null) {
+            notFull.signalAll();
+        }
+        flushing.remove(key);
+    }
+
+    /**
+     * 停止接收写请求，并等待缓冲区中的所有数据写入完成
+     *
+     * @param timeout 最长等待时间（单位：毫秒）
+     */
+    public void close(long timeout) {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            readyToFlush.signal();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            log.warn("{} close timeout, {} entries not flushed.", name, size());
+        }
+    }
+
+    /**
+     * @return 缓冲区中待写入的键数量
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息快照
+     */
+    public Stats getStats() {
+        return new Stats(submitted.sum(), coalesced.sum(), flushed.sum(), batches.sum(), failures.sum(), size());
+    }
+
+    private void run() {
+        while (true) {
+            Map<K, V> batch = takeBatch();
+            if (batch == null) {
+                return;
+            }
+            try {
+                writer.accept(batch);
+                flushed.add(batch.size());
+            } catch (RuntimeException e) {
+                failures.add(batch.size());
+                log.error("{} flush failed, size: {}. {}", name, batch.size(), e.getMessage(), e);
+            }
+            batches.increment();
+            lock.lock();
+            try {
+                flushing.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 等待写入周期结束或待写入数据达到批量大小，然后取出一批数据
+     *
+     * @return 待写入的一批数据（已关闭且缓冲区为空时返回 null）
+     */
+    private Map<K, V> takeBatch() {
+        lock.lock();
+        try {
+            long nanos = flushIntervalNanos;
+            while (!closed && pending.size() < flushThreshold && (pending.isEmpty() || nanos > 0)) {
+                if (pending.isEmpty()) {
+                    readyToFlush.awaitUninterruptibly();
+                    nanos = flushIntervalNanos;
+                } else {
+                    try {
+                        nanos = readyToFlush.awaitNanos(nanos);
+                    } catch (InterruptedException e) {
+                        nanos = 0;
+                    }
+                }
+            }
+            if (pending.isEmpty()) {
+                return null;
+            }
+            Map<K, V> batch = new LinkedHashMap<>(Math.min(batchSize, pending.size()) * 4 / 3 + 1);
+            Iterator<Map.Entry<K, V>> iterator = pending.entrySet().iterator();
+            while (iterator.hasNext() && batch.size() < batchSize) {
+                Map.Entry<K, V> entry = iterator.next();
+                batch.put(entry.getKey(), entry.getValue());
+                iterator.remove();
+            }
+            flushing.putAll(batch);
+            notFull.signalAll();
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 统计信息
+     *
+     * @param submitted 写请求总数
+     * @param coalesced 被合并的写请求数量（即节省的写入次数）
+     * @param flushed   写入成功的键数量
+     * @param batches   批量写入次数
+     * @param failures  写入失败的键数量
+     * @param pending   当前待写入的键数量
+     */
+    public record Stats(long submitted, long coalesced, long flushed, long batches, long failures, int pending) {
+
+        @Override
+        public String toString() {
+            return String.format("submitted=%d, coalesced=%d, flushed=%d, batches=%d, failures=%d, pending=%d",
+                    submitted, coalesced, flushed, batches, failures, pending);
+        }
+
+    }
+
+}
@@ -0,0 +1,236 @@
+package com.igeeksky.xcache.samples;
+
+import com.igeeksky.xcache.samples.change.ChangeType;
+import com.igeeksky.xcache.samples.jfr.JfrProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class UserDaoTest {
+
+    @TempDir
+    Path dir;
+
+    private UserDao userDao;
+
+    @BeforeEach
+    void setUp() {
+        userDao = new UserDao(new UserDaoProperties(), new JfrProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userDao.close();
+    }
+
+    @Test
+    void saveAndFind() {
+        User created = userDao.save(new User(null, "Jack0", 18));
+        Assertions.assertNotNull(created.getId());
+        Assertions.assertEquals(created, userDao.findUser(created.getId()));
+        Assertions.assertEquals(created.getId(), userDao.findIdByName("Jack0"));
+        Assertions.assertEquals(Map.of(created.getId(), created), userDao.findUserList(Set.of(created.getId(), -1L)));
+    }
+
+    @Test
+    void saveDuplicateName() {
+        userDao.save(new User(null, "Jack0", 18));
+        Assertions.assertThrows(RuntimeException.class, () -> userDao.save(new User(null, "Jack0", 20)));
+    }
+
+    @Test
+    void updateRename() {
+        User created = userDao.save(new User(null, "Jack0", 18));
+        userDao.save(new User(null, "Jack1", 18));
+
+        Assertions.assertThrows(RuntimeException.class, () -> userDao.update(created.withName("Jack1")));
+
+        // 返回更新前的用户信息
+        Assertions.assertEquals(created, userDao.update(created.withName("Jack2")));
+        Assertions.assertNull(userDao.findIdByName("Jack0"));
+        Assertions.assertEquals(created.getId(), userDao.findIdByName("Jack2"));
+    }
+
+    @Test
+    void batchUpdateIsAtomic() {
+        User jack0 = userDao.save(new User(null, "Jack0", 18));
+        User jack1 = userDao.save(new User(null, "Jack1", 18));
+
+        // 批次内用户名重复：整个批次均不更新
+        List<User> invalid = List.of(jack0.withAge(20), jack1.withName("Jack0"));
+        Assertions.assertThrows(RuntimeException.class, () -> userDao.batchUpdate(invalid));
+        Assertions.assertEquals(jack0, userDao.findUser(jack0.getId()));
+        Assertions.assertEquals(jack1, userDao.findUser(jack1.getId()));
+
+        // 批次内互换用户名，返回更新前的用户信息
+        Map<Long, User> olds = userDao.batchUpdate(List.of(jack0.withName("Jack1"), jack1.withName("Jack0")));
+        Assertions.assertEquals(Map.of(jack0.getId(), jack0, jack1.getId(), jack1), olds);
+        Assertions.assertEquals(jack1.getId(), userDao.findIdByName("Jack0"));
+        Assertions.assertEquals(jack0.getId(), userDao.findIdByName("Jack1"));
+    }
+
+    /**
+     * 变更事件在写入数据库并释放写锁之后发布：监听器收到事件时，数据库中已是变更后的数据，且事件按版本号顺序投递
+     */
+    @Test
+    void changesPublishedAfterApply() throws InterruptedException {
+        int writers = 4;
+        int perWriter = 200;
+        List<String> errors = new CopyOnWriteArrayList<>();
+        List<Long> versions = new CopyOnWriteArrayList<>();
+        userDao.subscribe(changes -> changes.forEach(change -> {
+            versions.add(change.version());
+            // 每个用户先新增再更新一次：新增事件投递时可能已被更新，更新事件投递时必然是更新后的数据
+            User current = userDao.findUser(change.id());
+            boolean applied = (change.previous() == null) ? current != null : change.user().equals(current);
+            if (change.type() != ChangeType.PUT || !applied) {
+                errors.add("stale row: " + change + ", current: " + current);
+            }
+        }));
+        Thread[] threads = new Thread[writers];
+        for (int i = 0; i < writers; i++) {
+            int writer = i;
+            threads[i] = new Thread(() -> {
+                for (int n = 0; n < perWriter; n++) {
+                    User created = userDao.save(new User(null, "user-" + writer + "-" + n, 18));
+                    userDao.update(created.withAge(20));
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long expected = (long) writers * perWriter * 2;
+        long deadline = System.currentTimeMillis() + 5000;
+        while (versions.size() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(List.of(), errors);
+        Assertions.assertEquals(expected, versions.size());
+        for (int i = 0; i < versions.size(); i++) {
+            Assertions.assertEquals(i + 1, versions.get(i).longValue());
+        }
+    }
+
+    @Test
+    void batchDelete() {
+        User jack0 = userDao.save(new User(null, "Jack0", 18));
+        User jack1 = userDao.save(new User(null, "Jack1", 18));
+
+        Map<Long, User> deleted = userDao.batchDelete(Set.of(jack0.getId(), -1L));
+        Assertions.assertEquals(Map.of(jack0.getId(), jack0), deleted);
+        Assertions.assertNull(userDao.findUser(jack0.getId()));
+        Assertions.assertNull(userDao.findIdByName("Jack0"));
+        Assertions.assertEquals(jack1, userDao.findUser(jack1.getId()));
+    }
+
+    @Test
+    void findLatestIds() {
+        User jack0 = userDao.save(new User(null, "Jack0", 18));
+        User jack1 = userDao.save(new User(null, "Jack1", 18));
+        User jack2 = userDao.save(new User(null, "Jack2", 18));
+        userDao.delete(jack1.getId());
+
+        Assertions.assertEquals(List.of(jack2.getId()), userDao.findLatestIds(1));
+        Assertions.assertEquals(List.of(jack2.getId(), jack0.getId()), userDao.findLatestIds(10));
+
+        userDao.clear();
+        Assertions.assertEquals(List.of(), userDao.findLatestIds(10));
+    }
+
+    /**
+     * 布隆过滤器：新增的用户总是可能存在，包括写入次数超过预期而重建过滤器时新增的用户
+     */
+    @Test
+    void bloomFilter() {
+        UserDaoProperties properties = new UserDaoProperties();
+        properties.getBloomFilter().setEnabled(true);
+        properties.getBloomFilter().setExpectedInsertions(4);
+        UserDao dao = new UserDao(properties, new JfrProperties());
+        try {
+            for (int i = 0; i < 20; i++) {
+                User created = dao.save(new User(null, "Jack" + i, 18));
+                Assertions.assertTrue(dao.mightExist(created.getId()));
+            }
+            Assertions.assertFalse(dao.mightExist(null));
+        } finally {
+            dao.close();
+        }
+    }
+
+    /**
+     * 数据集纪元：启用持久化时重启后不变，未启用持久化时每个实例不同
+     */
+    @Test
+    void epoch() {
+        UserDaoProperties properties = new UserDaoProperties();
+        properties.getPersistence().setEnabled(true);
+        properties.getPersistence().setDir(dir.toString());
+        properties.getPersistence().setMappedSize(4096);
+        UserDao dao = new UserDao(properties, new JfrProperties());
+        long epoch = dao.getEpoch();
+        dao.save(new User(null, "Jack0", 18));
+        dao.close();
+
+        dao = new UserDao(properties, new JfrProperties());
+        try {
+            Assertions.assertEquals(epoch, dao.getEpoch());
+            Assertions.assertNotNull(dao.findIdByName("Jack0"));
+        } finally {
+            dao.close();
+        }
+
+        UserDao other = new UserDao(new UserDaoProperties(), new JfrProperties());
+        other.close();
+        Assertions.assertNotEquals(userDao.getEpoch(), other.getEpoch());
+    }
+
+    /**
+     * 批量读取不会读到批量写操作的中间状态（同一批次的用户年龄总是相同）
+     */
+    @Test
+    void findUserListNoTornRead() throws InterruptedException {
+        User jack0 = userDao.save(new User(null, "Jack0", 0));
+        User jack1 = userDao.save(new User(null, "Jack1", 0));
+        Set<Long> ids = Set.of(jack0.getId(), jack1.getId());
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger torn = new AtomicInteger();
+        Thread[] readers = new Thread[4];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread(() -> {
+                while (running.get()) {
+                    Map<Long, User> users = userDao.findUserList(ids);
+                    if (!users.get(jack0.getId()).getAge().equals(users.get(jack1.getId()).getAge())) {
+                        torn.incrementAndGet();
+                    }
+                }
+            });
+            readers[i].start();
+        }
+        for (int age = 1; age <= 20000; age++) {
+            userDao.batchUpdate(List.of(jack0.withAge(age), jack1.withAge(age)));
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        Assertions.assertEquals(0, torn.get());
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.igeeksky.xcache.samples.benchmark;
+
+import com.igeeksky.xcache.samples.filter.LongBloomFilter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 布隆过滤器基准测试
+ * <p>
+ * 写入 1000 万个键后，测量存在的键与不存在的键的判断吞吐量；
+ * 初始化时输出位数组占用的内存、哈希函数数量，以及使用 100 万个不存在的键实测的误判率。
+ * <p>
+ * 运行：{@code mvn -pl xcache-samples-core test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.igeeksky.xcache.samples.benchmark.BloomFilterBenchmark}
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BloomFilterBenchmark {
+
+    private static final int KEYS = 10_000_000;
+    private static final int PROBES = 1_000_000;
+
+    /**
+     * 预期误判率
+     */
+    @Param({"0.01", "0.001"})
+    public double fpp;
+
+    private LongBloomFilter filter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        filter = new LongBloomFilter(KEYS, fpp);
+        for (long key = 1; key <= KEYS; key++) {
+            filter.put(key);
+        }
+        int positives = 0;
+        for (long key = KEYS + 1; key <= KEYS + PROBES; key++) {
+            if (filter.mightContain(key)) {
+                positives++;
+            }
+        }
+        System.out.printf("%nfpp=%s, memory=%.1f MB, hashes=%d, measured fpp=%.5f, estimated fpp=%.5f%n",
+                fpp, filter.bitSize() / 8.0 / 1024 / 1024, filter.hashCount(),
+                (double) positives / PROBES, filter.estimatedFpp());
+    }
+
+    @Benchmark
+    public boolean mightContainHit() {
+        return filter.mightContain(ThreadLocalRandom.current().nextLong(1, KEYS + 1));
+    }
+
+    @Benchmark
+    public boolean mightContainMiss() {
+        return filter.mightContain(ThreadLocalRandom.current().nextLong(KEYS + 1, Long.MAX_VALUE));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BloomFilterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
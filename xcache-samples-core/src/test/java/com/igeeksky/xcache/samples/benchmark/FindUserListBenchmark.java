@@ -0,0 +1,93 @@
+package com.igeeksky.xcache.samples.benchmark;
+
+import com.igeeksky.xcache.samples.User;
+import com.igeeksky.xcache.samples.UserDao;
+import com.igeeksky.xcache.samples.UserDaoProperties;
+import com.igeeksky.xcache.samples.jfr.JfrProperties;
+import com.igeeksky.xcache.samples.latency.LatencyProperties;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量查询分区并行基准测试
+ * <p>
+ * 对比不同键数量下顺序查询与分区并行查询（分区大小 1024）的耗时，两条曲线的交点即并行阈值的建议值
+ * （对应配置项 samples.user-dao.parallel.threshold）。
+ * <p>
+ * perKey 为模拟的每个键的查询延迟（单位：毫秒）：0 表示纯内存查询，此时仅在数千个键以上并行才有收益；
+ * 模拟延迟时，并行查询的耗时约为单个分区的耗时。
+ * <p>
+ * 运行：{@code mvn -pl xcache-samples-core test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.igeeksky.xcache.samples.benchmark.FindUserListBenchmark}
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindUserListBenchmark {
+
+    private static final int PARTITION_SIZE = 1024;
+
+    @Param({"256", "1024", "2048", "4096", "8192", "16384", "65536"})
+    public int size;
+
+    /**
+     * sequential：顺序查询；parallel：分区并行查询
+     */
+    @Param({"sequential", "parallel"})
+    public String mode;
+
+    @Param({"0", "0.001"})
+    public double perKey;
+
+    private UserDao userDao;
+    private Set<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserDaoProperties properties = new UserDaoProperties();
+        properties.setInitialCapacity(size * 2);
+        UserDaoProperties.Parallel parallel = properties.getParallel();
+        // 并行模式下阈值设为 1，使任意数量的键均分区并行查询
+        parallel.setThreshold("parallel".equals(mode) ? 1 : 0);
+        parallel.setPartitionSize(PARTITION_SIZE);
+        LatencyProperties latency = properties.getLatency().getFindUserList();
+        latency.setPerKey(perKey);
+        userDao = new UserDao(properties, new JfrProperties());
+        ids = new HashSet<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            ids.add(userDao.save(new User(null, "user" + i, 18)).getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        userDao.close();
+    }
+
+    @Benchmark
+    public Map<Long, User> findUserList() {
+        return userDao.findUserList(ids);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(FindUserListBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.igeeksky.xcache.samples.benchmark;
+
+import com.igeeksky.xcache.samples.User;
+import com.igeeksky.xcache.samples.UserDao;
+import com.igeeksky.xcache.samples.UserDaoProperties;
+import com.igeeksky.xcache.samples.jfr.JfrProperties;
+import com.igeeksky.xcache.samples.warmup.KeyWarmer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 缓存预热耗时基准测试
+ * <p>
+ * 测量 KeyWarmer 预热 keys 个用户的总耗时（time-to-warm）：每批加载模拟一次 1 毫秒的远程往返（二级缓存或数据库），
+ * 对比不同并行度下的耗时，用于选择 samples.user-cache.warm-up.parallelism 与 chunk-size。
+ * <p>
+ * 运行：{@code mvn -pl xcache-samples-core test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.igeeksky.xcache.samples.benchmark.KeyWarmerBenchmark}
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class KeyWarmerBenchmark {
+
+    private static final long ROUND_TRIP_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Param({"10000", "100000"})
+    public int keys;
+
+    @Param({"100", "500"})
+    public int chunkSize;
+
+    @Param({"1", "4", "16"})
+    public int parallelism;
+
+    private UserDao userDao;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserDaoProperties properties = new UserDaoProperties();
+        properties.setInitialCapacity(keys * 2);
+        userDao = new UserDao(properties, new JfrProperties());
+        ids = new ArrayList<>(keys);
+        for (int i = 0; i < keys; i++) {
+            ids.add(userDao.save(new User(null, "user" + i, 18)).getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        userDao.close();
+    }
+
+    @Benchmark
+    public KeyWarmer.Result warm() {
+        KeyWarmer<Long> warmer = new KeyWarmer<>("benchmark", chunkSize, parallelism, 0);
+        return warmer.warm(ids, this::load);
+    }
+
+    private Map<Long, User> load(Set<Long> keys) {
+        LockSupport.parkNanos(ROUND_TRIP_NANOS);
+        return userDao.findUserList(keys);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(KeyWarmerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.igeeksky.xcache.samples.benchmark;
+
+import com.igeeksky.xcache.samples.User;
+import com.igeeksky.xcache.samples.UserDao;
+import com.igeeksky.xcache.samples.UserDaoProperties;
+import com.igeeksky.xcache.samples.jfr.JfrProperties;
+import com.igeeksky.xtool.core.collection.Maps;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量查询内存分配基准测试
+ * <p>
+ * 对比 findUserList 直接返回共享的不可变实例（当前实现）与每次命中复制一个对象（原实现 clone）
+ * 每次调用分配的字节数：结果见 GC 分析器输出的 {@code gc.alloc.rate.norm}（单位：字节/次）。
+ * <p>
+ * 运行：{@code mvn -pl xcache-samples-core test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.igeeksky.xcache.samples.benchmark.UserAllocationBenchmark}
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserAllocationBenchmark {
+
+    /**
+     * shared：返回共享实例；copy：每次命中复制一个对象
+     */
+    @Param({"shared", "copy"})
+    public String mode;
+
+    /**
+     * 每次批量查询的键数量
+     */
+    @Param({"100", "10000"})
+    public int size;
+
+    private UserDao userDao;
+    private Set<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserDaoProperties properties = new UserDaoProperties();
+        properties.getParallel().setThreshold(0);
+        userDao = new UserDao(properties, new JfrProperties());
+        ids = new HashSet<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            ids.add(userDao.save(new User(null, "user" + i, 18)).getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        userDao.close();
+    }
+
+    @Benchmark
+    public Map<Long, User> getUsers() {
+        Map<Long, User> users = userDao.findUserList(ids);
+        if ("shared".equals(mode)) {
+            return users;
+        }
+        Map<Long, User> copies = Maps.newHashMap(users.size());
+        users.forEach((id, user) -> copies.put(id, new User(user.getId(), user.getName(), user.getAge())));
+        return copies;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(UserAllocationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,217 @@
+package com.igeeksky.xcache.samples.benchmark;
+
+import com.igeeksky.xcache.samples.User;
+import com.igeeksky.xcache.samples.UserDao;
+import com.igeeksky.xcache.samples.UserDaoProperties;
+import com.igeeksky.xcache.samples.jfr.JfrProperties;
+import com.igeeksky.xtool.core.collection.Maps;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * UserDao 回源路径竞争基准测试
+ * <p>
+ * 对比 StampedLock 乐观读（当前实现）与全局读写锁（原实现）在 1、8、64 个线程下的吞吐量：
+ * 每次操作按 writePercent 概率执行一次批量更新，否则执行一次批量查询（即缓存未命中时的回源查询）。
+ * <p>
+ * 运行：{@code mvn -pl xcache-samples-core test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.igeeksky.xcache.samples.benchmark.UserDaoBenchmark}
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserDaoBenchmark {
+
+    private static final int USERS = 100_000;
+    private static final int READ_SIZE = 10;
+    private static final int WRITE_SIZE = 100;
+
+    /**
+     * stamped：当前实现；rwlock：原实现（全局 ReentrantReadWriteLock）
+     */
+    @Param({"stamped", "rwlock"})
+    public String impl;
+
+    /**
+     * 写操作比例（百分比）
+     */
+    @Param({"0", "1", "10"})
+    public int writePercent;
+
+    private Dao dao;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dao = "stamped".equals(impl) ? new StampedDao() : new RwLockDao();
+        ids = new long[USERS];
+        for (int i = 0; i < USERS; i++) {
+            ids[i] = dao.save(new User(null, "user" + i, 18));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dao.close();
+    }
+
+    @Benchmark
+    public Object missPath() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(100) < writePercent) {
+            int start = random.nextInt(USERS - WRITE_SIZE);
+            int age = random.nextInt(100);
+            List<User> users = new ArrayList<>(WRITE_SIZE);
+            for (int i = start; i < start + WRITE_SIZE; i++) {
+                users.add(new User(ids[i], "user" + i, age));
+            }
+            return dao.batchUpdate(users);
+        }
+        Set<Long> keys = new HashSet<>(READ_SIZE * 2);
+        while (keys.size() < READ_SIZE) {
+            keys.add(ids[random.nextInt(USERS)]);
+        }
+        return dao.findUserList(keys);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 8, 64}) {
+            Options options = new OptionsBuilder()
+                    .include(UserDaoBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+
+    /**
+     * 被测数据访问接口
+     */
+    private interface Dao {
+
+        long save(User user);
+
+        Map<Long, User> findUserList(Set<Long> ids);
+
+        Map<Long, User> batchUpdate(List<User> users);
+
+        void close();
+
+    }
+
+    /**
+     * 当前实现
+     */
+    private static class StampedDao implements Dao {
+
+        private final UserDao userDao;
+
+        StampedDao() {
+            UserDaoProperties properties = new UserDaoProperties();
+            properties.setInitialCapacity(USERS * 2);
+            // 仅测试锁竞争，不并行分区查询
+            properties.getParallel().setThreshold(0);
+            this.userDao = new UserDao(properties, new JfrProperties());
+        }
+
+        @Override
+        public long save(User user) {
+            return userDao.save(user).getId();
+        }
+
+        @Override
+        public Map<Long, User> findUserList(Set<Long> ids) {
+            return userDao.findUserList(ids);
+        }
+
+        @Override
+        public Map<Long, User> batchUpdate(List<User> users) {
+            return userDao.batchUpdate(users);
+        }
+
+        @Override
+        public void close() {
+            userDao.close();
+        }
+
+    }
+
+    /**
+     * 原实现：所有读操作获取全局读锁，所有写操作获取全局写锁
+     */
+    private static class RwLockDao implements Dao {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, User> database = new ConcurrentHashMap<>(USERS * 2);
+        private long nextId = 1;
+
+        @Override
+        public long save(User user) {
+            lock.writeLock().lock();
+            try {
+                long id = nextId++;
+                database.put(id, user.withId(id));
+                return id;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public Map<Long, User> findUserList(Set<Long> ids) {
+            lock.readLock().lock();
+            try {
+                Map<Long, User> users = Maps.newHashMap(ids.size());
+                for (Long id : ids) {
+                    User user = database.get(id);
+                    if (user != null) {
+                        users.put(id, user);
+                    }
+                }
+                return users;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public Map<Long, User> batchUpdate(List<User> users) {
+            Map<Long, User> map = Maps.newHashMap(users.size());
+            lock.writeLock().lock();
+            try {
+                for (User user : users) {
+                    if (database.get(user.getId()) == null) {
+                        throw new RuntimeException("user is not exist");
+                    }
+                    database.put(user.getId(), user);
+                    map.put(user.getId(), user);
+                }
+                return map;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+}
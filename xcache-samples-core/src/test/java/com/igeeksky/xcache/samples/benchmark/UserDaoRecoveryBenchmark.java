@@ -0,0 +1,109 @@
+package com.igeeksky.xcache.samples.benchmark;
+
+import com.igeeksky.xcache.samples.User;
+import com.igeeksky.xcache.samples.UserDao;
+import com.igeeksky.xcache.samples.UserDaoProperties;
+import com.igeeksky.xcache.samples.jfr.JfrProperties;
+import com.igeeksky.xcache.samples.store.LongUserStore;
+import com.igeeksky.xcache.samples.store.StoreType;
+import com.igeeksky.xcache.samples.store.UserLog;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * UserDao 启动恢复基准测试
+ * <p>
+ * 预先写入 users 个用户的快照，以及快照之后的日志（1% 的用户更新），
+ * 然后测量启用持久化的 UserDao 从创建到可用（加载快照 + 重放日志）的耗时。
+ * <p>
+ * 运行：{@code mvn -pl xcache-samples-core test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.igeeksky.xcache.samples.benchmark.UserDaoRecoveryBenchmark}
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class UserDaoRecoveryBenchmark {
+
+    private static final int MAPPED_SIZE = 64 * 1024 * 1024;
+
+    @Param({"1000000", "10000000"})
+    public int users;
+
+    @Param({"MAP", "LONG"})
+    public StoreType storeType;
+
+    private Path dir;
+    private UserDao userDao;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("user-dao-recovery");
+        LongUserStore store = new LongUserStore(users);
+        UserLog userLog = new UserLog(dir, MAPPED_SIZE);
+        userLog.recover(store);
+        for (long id = 1; id <= users; id++) {
+            store.put(id, new User(id, "user" + id, 18));
+        }
+        userLog.compact(store);
+        for (long id = 1; id <= users; id += 100) {
+            userLog.appendPut(new User(id, "user" + id, 20));
+        }
+        userLog.close();
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeUserDao() {
+        if (userDao != null) {
+            userDao.close();
+            userDao = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public UserDao recover() {
+        UserDaoProperties properties = new UserDaoProperties();
+        properties.setStoreType(storeType);
+        properties.setInitialCapacity(users);
+        UserDaoProperties.Persistence persistence = properties.getPersistence();
+        persistence.setEnabled(true);
+        persistence.setDir(dir.toString());
+        persistence.setMappedSize(MAPPED_SIZE);
+        // 避免测量期间触发压缩
+        persistence.setCompactThreshold(Integer.MAX_VALUE);
+        userDao = new UserDao(properties, new JfrProperties());
+        return userDao;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(UserDaoRecoveryBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.igeeksky.xcache.samples.benchmark;
+
+import com.igeeksky.xcache.samples.User;
+import com.igeeksky.xcache.samples.UserDao;
+import com.igeeksky.xcache.samples.UserDaoProperties;
+import com.igeeksky.xcache.samples.jfr.JfrProperties;
+import com.igeeksky.xcache.samples.writer.WriteBehindBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 延迟写基准测试
+ * <p>
+ * 对比更新用户时直接写数据库（UserDao.update）与提交到延迟写缓冲区（WriteBehindBuffer.submit）的延迟分布，
+ * 关注 p99：提交仅在缓冲区已满时阻塞，直接写数据库则需竞争写锁（启用持久化时还需追加日志）。
+ * <p>
+ * 运行：{@code mvn -pl xcache-samples-core test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.igeeksky.xcache.samples.benchmark.WriteBehindBenchmark}
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class WriteBehindBenchmark {
+
+    private static final int USERS = 100_000;
+
+    /**
+     * 是否启用数据库持久化
+     */
+    @Param({"false", "true"})
+    public boolean persistence;
+
+    private Path dir;
+    private UserDao userDao;
+    private WriteBehindBuffer<Long, User> buffer;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        UserDaoProperties properties = new UserDaoProperties();
+        properties.setInitialCapacity(USERS * 2);
+        if (persistence) {
+            dir = Files.createTempDirectory("write-behind");
+            properties.getPersistence().setEnabled(true);
+            properties.getPersistence().setDir(dir.toString());
+        }
+        userDao = new UserDao(properties, new JfrProperties());
+        ids = new long[USERS];
+        for (int i = 0; i < USERS; i++) {
+            ids[i] = userDao.save(new User(null, "user" + i, 18)).getId();
+        }
+        // 与 samples.user-cache.write-behind 的默认配置一致
+        buffer = new WriteBehindBuffer<>("benchmark", users -> userDao.batchUpdate(new ArrayList<>(users.values())),
+                10000, 500, 100);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        buffer.close(10000);
+        userDao.close();
+        if (dir != null) {
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public User update() {
+        return userDao.update(nextUser());
+    }
+
+    @Benchmark
+    public void submit() {
+        User user = nextUser();
+        buffer.submit(user.getId(), user);
+    }
+
+    private User nextUser() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(USERS);
+        return new User(ids[i], "user" + i, random.nextInt(100));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(WriteBehindBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,178 @@
+package com.igeeksky.xcache.samples.change;
+
+import com.igeeksky.xcache.samples.User;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class UserChangePublisherTest {
+
+    @Test
+    void deliverInOrder() throws InterruptedException {
+        UserChangePublisher publisher = new UserChangePublisher(16, 1024, 0, 0);
+        List<Long> versions = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+        publisher.subscribe(changes -> changes.forEach(change -> {
+            versions.add(change.version());
+            if (change.version() == 1000) {
+                done.countDown();
+            }
+        }));
+        for (long version = 1; version <= 1000; version++) {
+            publisher.publish(UserChange.put(new User(version, "user" + version, 18), null, version));
+        }
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+        publisher.close();
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertEquals(i + 1, versions.get(i).longValue());
+        }
+    }
+
+    @Test
+    void retryThenSucceed() throws InterruptedException {
+        UserChangePublisher publisher = new UserChangePublisher(16, 1024, 3, 1);
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        publisher.subscribe(new UserChangeListener() {
+            @Override
+            public void onChanges(List<UserChange> changes) {
+                if (attempts.incrementAndGet() < 3) {
+                    throw new RuntimeException("simulated failure");
+                }
+                done.countDown();
+            }
+
+            @Override
+            public void onFailure(List<UserChange> changes, RuntimeException cause) {
+                Assertions.fail("should not fail");
+            }
+        });
+        publisher.publish(UserChange.clear(1));
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+        publisher.close();
+        Assertions.assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void notifyFailureAfterRetries() throws InterruptedException {
+        UserChangePublisher publisher = new UserChangePublisher(16, 1024, 2, 1);
+        AtomicInteger attempts = new AtomicInteger();
+        List<UserChange> failed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+        publisher.subscribe(new UserChangeListener() {
+            @Override
+            public void onChanges(List<UserChange> changes) {
+                attempts.incrementAndGet();
+                throw new RuntimeException("simulated failure");
+            }
+
+            @Override
+            public void onFailure(List<UserChange> changes, RuntimeException cause) {
+                failed.addAll(changes);
+                done.countDown();
+            }
+        });
+        User user = new User(1L, "Jack1", 18);
+        publisher.publish(UserChange.delete(user, 1));
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+        publisher.close();
+        Assertions.assertEquals(3, attempts.get());
+        Assertions.assertEquals(1, failed.size());
+        Assertions.assertEquals(user, failed.get(0).previous());
+    }
+
+    /**
+     * 并发写操作在释放锁之后发布，到达顺序与版本号不一致：按版本号顺序投递
+     */
+    @Test
+    void reorderByVersion() throws InterruptedException {
+        UserChangePublisher publisher = new UserChangePublisher(16, 1024, 0, 0);
+        List<Long> versions = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+        publisher.subscribe(changes -> changes.forEach(change -> {
+            versions.add(change.version());
+            if (versions.size() == 4) {
+                done.countDown();
+            }
+        }));
+        publisher.publish(UserChange.clear(3));
+        publisher.publish(List.of(UserChange.clear(1), UserChange.clear(2)));
+        publisher.publish(UserChange.clear(4));
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+        publisher.close();
+        Assertions.assertEquals(List.of(1L, 2L, 3L, 4L), versions);
+    }
+
+    /**
+     * 队列已满时发布不阻塞：队列中及之后的事件按用户ID合并为 EVICT 事件，全部投递后恢复逐条投递
+     */
+    @Test
+    void coalesceWhenFull() throws InterruptedException {
+        UserChangePublisher publisher = new UserChangePublisher(16, 2, 0, 0);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<UserChange> delivered = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+        publisher.subscribe(changes -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            delivered.addAll(changes);
+            if (changes.get(changes.size() - 1).version() == 7) {
+                done.countDown();
+            }
+        });
+        User jack1 = new User(1L, "Jack1", 18);
+        // 第 1 个事件被后台线程取出并阻塞在监听器中
+        publisher.publish(UserChange.put(jack1, null, 1));
+        Assertions.assertTrue(entered.await(5, TimeUnit.SECONDS));
+        // 队列容量为 2：第 4 个事件溢出，之前的 2 个事件与之后的事件一并合并，且发布不阻塞
+        User jack2 = new User(2L, "Jack2", 18);
+        User renamed = new User(1L, "Rose1", 18);
+        publisher.publish(UserChange.put(jack2, null, 2));
+        publisher.publish(UserChange.put(renamed, jack1, 3));
+        publisher.publish(UserChange.delete(jack2, 4));
+        publisher.publish(UserChange.put(new User(1L, "Rose2", 18), renamed, 5));
+        Assertions.assertEquals(1, publisher.getOverflows());
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (delivered.size() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        // 合并事件投递完毕后恢复逐条投递
+        publisher.publish(UserChange.put(new User(3L, "Jack3", 18), null, 6));
+        publisher.publish(UserChange.put(new User(4L, "Jack4", 18), null, 7));
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+        publisher.close();
+
+        Assertions.assertEquals(5, delivered.size());
+        Assertions.assertEquals(ChangeType.PUT, delivered.get(0).type());
+        // 合并事件按用户ID首次出现的顺序排列
+        UserChange evict2 = delivered.get(1);
+        Assertions.assertEquals(ChangeType.EVICT, evict2.type());
+        Assertions.assertEquals(2L, evict2.id());
+        Assertions.assertNull(evict2.user());
+        UserChange evict1 = delivered.get(2);
+        Assertions.assertEquals(ChangeType.EVICT, evict1.type());
+        Assertions.assertEquals(1L, evict1.id());
+        Assertions.assertEquals(5L, evict1.version());
+        Assertions.assertEquals(jack1, evict1.previous());
+        Assertions.assertEquals("Rose2", evict1.user().getName());
+        Assertions.assertEquals(ChangeType.PUT, delivered.get(3).type());
+        Assertions.assertEquals(ChangeType.PUT, delivered.get(4).type());
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.igeeksky.xcache.samples.filter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class LongBloomFilterTest {
+
+    @Test
+    void noFalseNegative() {
+        LongBloomFilter filter = new LongBloomFilter(10000, 0.01);
+        for (long key = 1; key <= 10000; key++) {
+            filter.put(key);
+        }
+        for (long key = 1; key <= 10000; key++) {
+            Assertions.assertTrue(filter.mightContain(key));
+        }
+        Assertions.assertEquals(10000, filter.insertions());
+    }
+
+    @Test
+    void falsePositiveRate() {
+        LongBloomFilter filter = new LongBloomFilter(100000, 0.01);
+        for (long key = 1; key <= 100000; key++) {
+            filter.put(key);
+        }
+        int positives = 0;
+        for (long key = 100001; key <= 200000; key++) {
+            if (filter.mightContain(key)) {
+                positives++;
+            }
+        }
+        // 预期误判率 1%，允许一定的统计波动
+        Assertions.assertTrue(positives < 1500, "false positives: " + positives);
+        Assertions.assertTrue(filter.estimatedFpp() < 0.015);
+    }
+
+    @Test
+    void sizing() {
+        // m = -n × ln(p) / (ln2)² ≈ 9,585,059 位，按 64 位对齐；k = 7
+        LongBloomFilter filter = new LongBloomFilter(1_000_000, 0.01);
+        Assertions.assertEquals(9585088, filter.bitSize());
+        Assertions.assertEquals(7, filter.hashCount());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LongBloomFilter(1000, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LongBloomFilter(1000, 1));
+    }
+
+}
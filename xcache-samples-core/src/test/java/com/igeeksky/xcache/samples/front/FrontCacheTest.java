@@ -0,0 +1,249 @@
+package com.igeeksky.xcache.samples.front;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class FrontCacheTest {
+
+    private static final long TTL = 10_000;
+    private static final long GRACE = 10_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void freshHitAndMiss() {
+        AtomicInteger loads = new AtomicInteger();
+        Function<Long, String> loader = key -> {
+            loads.incrementAndGet();
+            return "v" + key;
+        };
+        FrontCache<Long, String> cache = newCache(key -> "r" + key);
+        Assertions.assertEquals("v1", cache.get(1L, loader));
+        Assertions.assertEquals("v1", cache.get(1L, loader));
+        Assertions.assertEquals(1, loads.get());
+        // 加载结果为 null 时不缓存
+        Assertions.assertNull(cache.get(2L, key -> null));
+        Assertions.assertEquals(1, cache.size());
+
+        FrontCache.Stats stats = cache.getStats();
+        Assertions.assertEquals(1, stats.hits());
+        Assertions.assertEquals(2, stats.misses());
+        cache.close();
+    }
+
+    /**
+     * 宽限期内立即返回旧数据，并异步重新加载
+     */
+    @Test
+    void staleWhileRevalidate() throws InterruptedException {
+        CountDownLatch reloaded = new CountDownLatch(1);
+        FrontCache<Long, String> cache = newCache(key -> {
+            reloaded.countDown();
+            return "new";
+        });
+        cache.put(1L, "old", System.currentTimeMillis() - TTL - 1);
+        Assertions.assertEquals("old", cache.get(1L, key -> Assertions.fail("should not load")));
+        // 轮询新值时，重新加载尚未完成的读取同样计为旧数据命中，因此先断言
+        Assertions.assertEquals(1, cache.getStats().staleHits());
+        Assertions.assertTrue(reloaded.await(5, TimeUnit.SECONDS));
+        awaitValue(cache, 1L, "new");
+        cache.close();
+    }
+
+    /**
+     * 超过宽限期：同步加载
+     */
+    @Test
+    void expiredLoadsSynchronously() {
+        FrontCache<Long, String> cache = newCache(key -> Assertions.fail("should not reload"));
+        cache.put(1L, "old", System.currentTimeMillis() - TTL - GRACE - 1);
+        Assertions.assertEquals("v1", cache.get(1L, key -> "v" + key));
+        cache.close();
+    }
+
+    /**
+     * 重新加载期间写入的新数据不会被旧的加载结果覆盖
+     */
+    @Test
+    void reloadDoesNotOverwriteNewerPut() throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger reloads = new AtomicInteger();
+        FrontCache<Long, String> cache = newCache(key -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            reloads.incrementAndGet();
+            return "reloaded";
+        });
+        cache.put(1L, "old", System.currentTimeMillis() - TTL - 1);
+        Assertions.assertEquals("old", cache.get(1L, key -> null));
+        Assertions.assertTrue(entered.await(5, TimeUnit.SECONDS));
+        cache.put(1L, "written");
+        release.countDown();
+
+        while (reloads.get() == 0) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+        Assertions.assertEquals("written", cache.get(1L, key -> null));
+        cache.close();
+    }
+
+    /**
+     * 同步加载期间写入的新数据不会被旧的加载结果覆盖
+     */
+    @Test
+    void loadDoesNotOverwriteNewerPut() {
+        FrontCache<Long, String> cache = newCache(key -> Assertions.fail("should not reload"));
+        Assertions.assertEquals("loaded", cache.get(1L, key -> {
+            cache.put(key, "written");
+            return "loaded";
+        }));
+        Assertions.assertEquals("written", cache.get(1L, key -> null));
+
+        cache.put(2L, "old", System.currentTimeMillis() - TTL - GRACE - 1);
+        Assertions.assertEquals("loaded", cache.get(2L, key -> {
+            cache.put(key, "written");
+            return "loaded";
+        }));
+        Assertions.assertEquals("written", cache.get(2L, key -> null));
+        cache.close();
+    }
+
+    /**
+     * 重新加载结果为 null（数据已不存在）时删除旧数据
+     */
+    @Test
+    void reloadRemovesMissing() throws InterruptedException {
+        FrontCache<Long, String> cache = newCache(key -> null);
+        cache.put(1L, "old", System.currentTimeMillis() - TTL - 1);
+        Assertions.assertEquals("old", cache.get(1L, key -> null));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cache.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(0, cache.size());
+        cache.close();
+    }
+
+    @Test
+    void evictWhenFull() {
+        FrontCacheProperties properties = properties();
+        properties.setMaxSize(100);
+        FrontCache<Long, String> cache = new FrontCache<>("test", properties, key -> null);
+        for (long key = 0; key < 1000; key++) {
+            cache.put(key, "v" + key);
+        }
+        Assertions.assertTrue(cache.size() <= 100);
+        cache.close();
+    }
+
+    /**
+     * 快照保存编码后的值：恢复时直接写入前置缓存，不调用加载函数，已过期的数据不恢复
+     */
+    @Test
+    void snapshotRestoresValuesWithoutLoading() {
+        FrontCacheProperties properties = persistentProperties();
+        FrontCache<Long, String> cache = new FrontCache<>("test", properties, key -> null, snapshot(1L));
+        long now = System.currentTimeMillis();
+        cache.put(1L, "v1", now);
+        cache.put(2L, "v2", now - TTL - 1);
+        cache.put(3L, "v3", now - TTL - GRACE - 1);
+        cache.close();
+        Assertions.assertTrue(Files.exists(dir.resolve("test.snapshot")));
+
+        FrontCache<Long, String> restored = new FrontCache<>("test", properties, key -> "new" + key, snapshot(1L));
+        Assertions.assertFalse(Files.exists(dir.resolve("test.snapshot")));
+        Assertions.assertEquals(2, restored.size());
+        Assertions.assertEquals("v1", restored.get(1L, key -> Assertions.fail("should be restored")));
+        // 保留快照中的加载时间：宽限期内的数据恢复后仍需重新加载
+        Assertions.assertEquals("v2", restored.get(2L, key -> Assertions.fail("should be restored")));
+        Assertions.assertEquals(1, restored.getStats().staleHits());
+        Assertions.assertNull(restored.get(3L, key -> null));
+        restored.close();
+    }
+
+    /**
+     * 数据源纪元已改变（例如内存数据库重启后为空）：整个快照作废
+     */
+    @Test
+    void snapshotDiscardedWhenEpochChanged() {
+        FrontCacheProperties properties = persistentProperties();
+        FrontCache<Long, String> cache = new FrontCache<>("test", properties, key -> null, snapshot(1L));
+        cache.put(1L, "v1");
+        cache.close();
+
+        FrontCache<Long, String> restored = new FrontCache<>("test", properties, key -> null, snapshot(2L));
+        Assertions.assertEquals(0, restored.size());
+        Assertions.assertFalse(Files.exists(dir.resolve("test.snapshot")));
+        restored.close();
+    }
+
+    @Test
+    void corruptSnapshotIsIgnored() throws IOException {
+        FrontCacheProperties properties = persistentProperties();
+        Path file = dir.resolve("test.snapshot");
+        Files.write(file, new byte[64]);
+
+        FrontCache<Long, String> cache = new FrontCache<>("test", properties, key -> null, snapshot(1L));
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertFalse(Files.exists(file));
+        cache.close();
+    }
+
+    private FrontCacheProperties persistentProperties() {
+        FrontCacheProperties properties = properties();
+        properties.getPersistence().setEnabled(true);
+        properties.getPersistence().setDir(dir.toString());
+        return properties;
+    }
+
+    private static FrontCacheSnapshot<Long, String> snapshot(long epoch) {
+        SnapshotCodec<String> valueCodec = SnapshotCodec.of(value -> value.getBytes(StandardCharsets.UTF_8),
+                bytes -> new String(bytes, StandardCharsets.UTF_8));
+        return new FrontCacheSnapshot<>(SnapshotCodec.longCodec(), valueCodec, epoch);
+    }
+
+    private static FrontCache<Long, String> newCache(Function<Long, String> reloader) {
+        return new FrontCache<>("test", properties(), reloader);
+    }
+
+    private static FrontCacheProperties properties() {
+        FrontCacheProperties properties = new FrontCacheProperties();
+        properties.setEnabled(true);
+        properties.setTtl(TTL);
+        properties.setGrace(GRACE);
+        return properties;
+    }
+
+    private static void awaitValue(FrontCache<Long, String> cache, Long key, String expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            if (expected.equals(cache.get(key, k -> null))) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        Assertions.fail("value not reloaded: " + key);
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.igeeksky.xcache.samples.hotkey;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class HotKeyPinnerTest {
+
+    private final Map<Long, String> source = new ConcurrentHashMap<>();
+
+    @Test
+    void pinHotKeys() throws InterruptedException {
+        source.put(1L, "a");
+        HotKeyPinner<String> pinner = new HotKeyPinner<>("test", properties(), this::load);
+        try {
+            awaitPinned(pinner, 1L, "a");
+
+            pinner.put(1L, "b");
+            Assertions.assertEquals("b", pinner.get(1L));
+            // 非驻留键忽略
+            pinner.put(2L, "c");
+            Assertions.assertFalse(pinner.pinnedKeys().contains(2L));
+
+            source.remove(1L);
+            pinner.remove(1L);
+            Assertions.assertNull(pinner.get(1L));
+        } finally {
+            pinner.close();
+        }
+    }
+
+    /**
+     * 重新加载期间被写操作更新的键，不会被旧的加载结果覆盖
+     */
+    @Test
+    void writeDuringLoadWins() throws InterruptedException {
+        source.put(1L, "a");
+        AtomicBoolean armed = new AtomicBoolean();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<Set<Long>, Map<Long, String>> loader = keys -> {
+            Map<Long, String> values = load(keys);
+            if (armed.compareAndSet(true, false)) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return values;
+        };
+        HotKeyPinner<String> pinner = new HotKeyPinner<>("test", properties(), loader);
+        try {
+            awaitPinned(pinner, 1L, "a");
+            armed.set(true);
+            while (!entered.await(10, TimeUnit.MILLISECONDS)) {
+                pinner.get(1L);
+            }
+            // 加载结果已读取（值为 a），此时写入新值
+            source.put(1L, "b");
+            pinner.put(1L, "b");
+            release.countDown();
+
+            for (int i = 0; i < 20; i++) {
+                Assertions.assertEquals("b", pinner.get(1L));
+                Thread.sleep(5);
+            }
+        } finally {
+            pinner.close();
+        }
+    }
+
+    private Map<Long, String> load(Set<Long> keys) {
+        Map<Long, String> values = new HashMap<>();
+        keys.forEach(key -> {
+            String value = source.get(key);
+            if (value != null) {
+                values.put(key, value);
+            }
+        });
+        return values;
+    }
+
+    private static HotKeyProperties properties() {
+        HotKeyProperties properties = new HotKeyProperties();
+        properties.setEnabled(true);
+        properties.setThreshold(1);
+        properties.setPeriod(20);
+        return properties;
+    }
+
+    private static void awaitPinned(HotKeyPinner<String> pinner, long key, String expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            if (expected.equals(pinner.get(key))) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        Assertions.fail("key not pinned: " + key);
+    }
+
+}
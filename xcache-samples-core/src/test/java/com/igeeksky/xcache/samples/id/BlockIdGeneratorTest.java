@@ -0,0 +1,113 @@
+package com.igeeksky.xcache.samples.id;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class BlockIdGeneratorTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void uniqueAcrossThreads() throws InterruptedException {
+        BlockIdGenerator generator = new BlockIdGenerator(new LocalIdBlockSource(), 1000, 10);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int n = 0; n < 10_000; n++) {
+                    long id = generator.nextId();
+                    Assertions.assertTrue(id > 0);
+                    ids.add(id);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(threads.length * 10_000, ids.size());
+    }
+
+    /**
+     * 每个主键一个新线程（例如每个请求一个虚拟线程）：号段归属于分段，新线程复用分段的剩余号段，不会浪费主键
+     */
+    @Test
+    void shortLivedThreadsShareStripeBlocks() throws InterruptedException {
+        int blockSize = 100;
+        BlockIdGenerator generator = new BlockIdGenerator(new LocalIdBlockSource(), 100_000, blockSize);
+        int count = 2000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        for (int n = 0; n < count; n++) {
+            Thread thread = new Thread(() -> ids.add(generator.nextId()));
+            thread.start();
+            thread.join();
+        }
+        Assertions.assertEquals(count, ids.size());
+        // 每个分段至多浪费一个号段的剩余部分
+        int stripes = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1);
+        long max = ids.stream().mapToLong(Long::longValue).max().orElse(0);
+        Assertions.assertTrue(max <= count + (long) stripes * blockSize, "max id: " + max);
+    }
+
+    /**
+     * 两个实例共享同一号段文件，分配的主键不重叠
+     */
+    @Test
+    void uniqueAcrossInstances() {
+        Path file = dir.resolve("id-block");
+        BlockIdGenerator generator1 = new BlockIdGenerator(new FileIdBlockSource(file), 100, 10);
+        BlockIdGenerator generator2 = new BlockIdGenerator(new FileIdBlockSource(file), 100, 10);
+        Set<Long> ids = new HashSet<>();
+        for (int n = 0; n < 5_000; n++) {
+            Assertions.assertTrue(ids.add(generator1.nextId()));
+            Assertions.assertTrue(ids.add(generator2.nextId()));
+        }
+    }
+
+    /**
+     * 重置仅作废本节点的号段，不回退共享的号段来源
+     */
+    @Test
+    void resetDoesNotRewindSharedSource() {
+        Path file = dir.resolve("id-block");
+        BlockIdGenerator generator1 = new BlockIdGenerator(new FileIdBlockSource(file), 100, 10);
+        BlockIdGenerator generator2 = new BlockIdGenerator(new FileIdBlockSource(file), 100, 10);
+        Set<Long> ids = new HashSet<>();
+        long max = 0;
+        for (int n = 0; n < 500; n++) {
+            long id1 = generator1.nextId();
+            long id2 = generator2.nextId();
+            ids.add(id1);
+            ids.add(id2);
+            max = Math.max(max, Math.max(id1, id2));
+        }
+
+        generator1.reset();
+        for (int n = 0; n < 500; n++) {
+            long id = generator1.nextId();
+            Assertions.assertTrue(id > max);
+            Assertions.assertTrue(ids.add(id));
+            Assertions.assertTrue(ids.add(generator2.nextId()));
+        }
+    }
+
+    @Test
+    void advance() {
+        BlockIdGenerator generator = new BlockIdGenerator(new LocalIdBlockSource(), 100, 10);
+        generator.nextId();
+        generator.advance(10_000);
+        Assertions.assertTrue(generator.nextId() >= 10_000);
+    }
+
+}
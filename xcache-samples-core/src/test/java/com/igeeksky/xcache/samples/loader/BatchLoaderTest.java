@@ -0,0 +1,106 @@
+package com.igeeksky.xcache.samples.loader;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class BatchLoaderTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 窗口内并发的单键请求合并为一次批量加载
+     */
+    @Test
+    void coalesceConcurrentLoads() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        BatchLoader<Long, String> loader = new BatchLoader<>("test", keys -> {
+            calls.incrementAndGet();
+            return values(keys);
+        }, 100, 200, TimeUnit.MILLISECONDS);
+
+        List<Future<String>> futures = loadConcurrently(loader, 8);
+        for (int i = 0; i < futures.size(); i++) {
+            Assertions.assertEquals("v" + i, futures.get(i).get(5, TimeUnit.SECONDS));
+        }
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals(1, loader.getStats().batches());
+        Assertions.assertEquals(8, loader.getStats().requests());
+    }
+
+    /**
+     * 键数量达到上限时立即加载，无需等待窗口结束
+     */
+    @Test
+    void dispatchWhenFull() throws Exception {
+        BatchLoader<Long, String> loader = new BatchLoader<>("test", BatchLoaderTest::values,
+                2, 1, TimeUnit.HOURS);
+        List<Future<String>> futures = loadConcurrently(loader, 2);
+        Assertions.assertEquals("v0", futures.get(0).get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("v1", futures.get(1).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void missingKey() {
+        BatchLoader<Long, String> loader = new BatchLoader<>("test", keys -> Map.of(), 100, 0, TimeUnit.MILLISECONDS);
+        Assertions.assertNull(loader.load(1L));
+    }
+
+    @Test
+    void propagateRuntimeException() throws Exception {
+        BatchLoader<Long, String> loader = new BatchLoader<>("test", keys -> {
+            throw new IllegalStateException("simulated failure");
+        }, 100, 100, TimeUnit.MILLISECONDS);
+        for (Future<String> future : loadConcurrently(loader, 4)) {
+            ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+    }
+
+    /**
+     * 批量加载抛出 Error 时，所有等待的请求均可结束，不会永远阻塞
+     */
+    @Test
+    void propagateError() throws Exception {
+        BatchLoader<Long, String> loader = new BatchLoader<>("test", keys -> {
+            throw new AssertionError("simulated error");
+        }, 100, 100, TimeUnit.MILLISECONDS);
+        for (Future<String> future : loadConcurrently(loader, 4)) {
+            ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(AssertionError.class, e.getCause());
+        }
+    }
+
+    private List<Future<String>> loadConcurrently(BatchLoader<Long, String> loader, int count) {
+        List<Future<String>> futures = new ArrayList<>(count);
+        for (long i = 0; i < count; i++) {
+            long key = i;
+            futures.add(executor.submit(() -> loader.load(key)));
+        }
+        return futures;
+    }
+
+    private static Map<Long, String> values(Set<Long> keys) {
+        Map<Long, String> values = new HashMap<>();
+        keys.forEach(key -> values.put(key, "v" + key));
+        return values;
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.igeeksky.xcache.samples.loader;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class SingleFlightLoaderTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void loadAll() {
+        SingleFlightLoader<Long, String> loader = new SingleFlightLoader<>("test", keys -> {
+            Map<Long, String> values = new HashMap<>();
+            keys.stream().filter(key -> key > 0).forEach(key -> values.put(key, "v" + key));
+            return values;
+        });
+        Assertions.assertEquals(Map.of(1L, "v1", 2L, "v2"), loader.loadAll(Set.of(0L, 1L, 2L)));
+        Assertions.assertEquals(3, loader.getStats().loadedKeys());
+        Assertions.assertEquals(0, loader.getStats().joinedKeys());
+    }
+
+    /**
+     * 重叠的键等待正在进行的加载完成后共享其结果，不重复加载
+     */
+    @Test
+    void shareOverlappingKeys() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Map<Long, Integer> loads = new ConcurrentHashMap<>();
+        SingleFlightLoader<Long, String> loader = new SingleFlightLoader<>("test", blocking(entered, release, keys -> {
+            Map<Long, String> values = new HashMap<>();
+            keys.forEach(key -> {
+                loads.merge(key, 1, Integer::sum);
+                values.put(key, "v" + key);
+            });
+            return values;
+        }));
+
+        Future<Map<Long, String>> first = executor.submit(() -> loader.loadAll(Set.of(1L, 2L)));
+        Assertions.assertTrue(entered.await(5, TimeUnit.SECONDS));
+        Future<Map<Long, String>> second = executor.submit(() -> loader.loadAll(Set.of(2L, 3L)));
+        // 第二个请求仅加载键 3，键 2 等待第一个请求的结果
+        Assertions.assertThrows(TimeoutException.class, () -> second.get(200, TimeUnit.MILLISECONDS));
+        release.countDown();
+
+        Assertions.assertEquals(Map.of(1L, "v1", 2L, "v2"), first.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(Map.of(2L, "v2", 3L, "v3"), second.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(Map.of(1L, 1, 2L, 1, 3L, 1), loads);
+        Assertions.assertEquals(1, loader.getStats().joinedKeys());
+    }
+
+    /**
+     * 加载抛出 Error 时，共享键的其它请求同样结束并收到该异常，且之后可以重新加载
+     */
+    @Test
+    void propagateErrorToJoinedRequests() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SingleFlightLoader<Long, String> loader = new SingleFlightLoader<>("test", blocking(entered, release, keys -> {
+            throw new AssertionError("simulated error");
+        }));
+
+        Future<Map<Long, String>> first = executor.submit(() -> loader.loadAll(Set.of(1L)));
+        Assertions.assertTrue(entered.await(5, TimeUnit.SECONDS));
+        Future<Map<Long, String>> second = executor.submit(() -> loader.loadAll(Set.of(1L)));
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<Map<Long, String>> future : new Future[]{first, second}) {
+            ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(AssertionError.class, e.getCause());
+        }
+        Assertions.assertThrows(AssertionError.class, () -> loader.loadAll(Set.of(1L)));
+    }
+
+    /**
+     * 首次调用时通知已进入加载，并阻塞直到被释放
+     */
+    private static Function<Set<Long>, Map<Long, String>> blocking(CountDownLatch entered, CountDownLatch release,
+                                                                  Function<Set<Long>, Map<Long, String>> loader) {
+        return keys -> {
+            if (entered.getCount() > 0) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return loader.apply(keys);
+        };
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.igeeksky.xcache.samples.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class LongHistogramTest {
+
+    @Test
+    void empty() {
+        LongHistogram.Snapshot snapshot = new LongHistogram().snapshot();
+        Assertions.assertEquals(0, snapshot.count());
+        Assertions.assertEquals(0, snapshot.p99());
+        Assertions.assertEquals(0, snapshot.max());
+    }
+
+    /**
+     * 小于 32 的值精确计数
+     */
+    @Test
+    void exactSmallValues() {
+        LongHistogram histogram = new LongHistogram();
+        for (long value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+        LongHistogram.Snapshot snapshot = histogram.snapshot();
+        Assertions.assertEquals(10, snapshot.count());
+        Assertions.assertEquals(5.5, snapshot.mean(), 1e-9);
+        Assertions.assertEquals(5, snapshot.p50());
+        Assertions.assertEquals(9, snapshot.p90());
+        Assertions.assertEquals(10, snapshot.p99());
+        Assertions.assertEquals(10, snapshot.max());
+    }
+
+    /**
+     * 百分位数的相对误差不超过 1/32，且不超过最大值
+     */
+    @Test
+    void relativeError() {
+        LongHistogram histogram = new LongHistogram();
+        for (long value = 1; value <= 1_000_000; value++) {
+            histogram.record(value);
+        }
+        LongHistogram.Snapshot snapshot = histogram.snapshot();
+        assertClose(500_000, snapshot.p50());
+        assertClose(900_000, snapshot.p90());
+        assertClose(990_000, snapshot.p99());
+        assertClose(999_000, snapshot.p999());
+        Assertions.assertEquals(1_000_000, snapshot.max());
+        Assertions.assertTrue(snapshot.p9999() <= snapshot.max());
+    }
+
+    @Test
+    void largeAndNegativeValues() {
+        LongHistogram histogram = new LongHistogram();
+        histogram.record(-1);
+        histogram.record(Long.MAX_VALUE);
+        LongHistogram.Snapshot snapshot = histogram.snapshot();
+        Assertions.assertEquals(2, snapshot.count());
+        Assertions.assertEquals(0, snapshot.p50());
+        Assertions.assertEquals(Long.MAX_VALUE, snapshot.p99());
+        Assertions.assertEquals(Long.MAX_VALUE, snapshot.max());
+    }
+
+    @Test
+    void reset() {
+        LongHistogram histogram = new LongHistogram();
+        histogram.record(100);
+        histogram.reset();
+        Assertions.assertEquals(0, histogram.snapshot().count());
+        histogram.record(7);
+        Assertions.assertEquals(7, histogram.snapshot().max());
+    }
+
+    /**
+     * 有效期内的多次读取复用同一个快照
+     */
+    @Test
+    void cachedSnapshot() {
+        LongHistogram histogram = new LongHistogram();
+        histogram.record(1);
+        CacheMetrics.CachedSnapshot cached = new CacheMetrics.CachedSnapshot(histogram, Long.MAX_VALUE);
+        LongHistogram.Snapshot first = cached.get();
+        histogram.record(2);
+        Assertions.assertSame(first, cached.get());
+        Assertions.assertEquals(1, cached.get().count());
+
+        CacheMetrics.CachedSnapshot expired = new CacheMetrics.CachedSnapshot(histogram, 0);
+        Assertions.assertEquals(2, expired.get().count());
+        histogram.record(3);
+        Assertions.assertEquals(3, expired.get().count());
+    }
+
+    private static void assertClose(long expected, long actual) {
+        Assertions.assertTrue(Math.abs(actual - expected) <= expected / 32,
+                "expected ~" + expected + " but was " + actual);
+    }
+
+}
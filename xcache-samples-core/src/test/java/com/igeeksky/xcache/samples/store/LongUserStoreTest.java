@@ -0,0 +1,101 @@
+package com.igeeksky.xcache.samples.store;
+
+import com.igeeksky.xcache.samples.User;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class LongUserStoreTest {
+
+    @Test
+    void putGetRemove() {
+        LongUserStore store = new LongUserStore(16);
+        User jack0 = new User(0L, "Jack0", 18);
+        User jack1 = new User(-1L, "Jack1", 18);
+
+        Assertions.assertNull(store.put(0L, jack0));
+        Assertions.assertNull(store.put(-1L, jack1));
+        Assertions.assertEquals(jack0, store.get(0L));
+        Assertions.assertEquals(jack1, store.get(-1L));
+        Assertions.assertNull(store.get(1L));
+
+        User updated = jack0.withAge(20);
+        Assertions.assertEquals(jack0, store.put(0L, updated));
+        Assertions.assertEquals(updated, store.get(0L));
+        Assertions.assertEquals(2, store.size());
+
+        Assertions.assertEquals(updated, store.remove(0L));
+        Assertions.assertNull(store.remove(0L));
+        Assertions.assertNull(store.get(0L));
+        Assertions.assertEquals(1, store.size());
+    }
+
+    /**
+     * 随机写入与删除（触发扩容与后移删除），结果与 HashMap 保持一致
+     */
+    @Test
+    void randomOperations() {
+        LongUserStore store = new LongUserStore(16);
+        Map<Long, User> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int n = 0; n < 200_000; n++) {
+            // 键范围较小，使删除与覆盖频繁发生
+            long id = random.nextInt(20_000);
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(id), store.remove(id));
+            } else {
+                User user = new User(id, "user" + id, n);
+                Assertions.assertEquals(expected.put(id, user), store.put(id, user));
+            }
+        }
+        Assertions.assertEquals(expected.size(), store.size());
+        for (long id = 0; id < 20_000; id++) {
+            Assertions.assertEquals(expected.get(id), store.get(id));
+        }
+        Map<Long, User> actual = new HashMap<>();
+        store.forEach(user -> actual.put(user.getId(), user));
+        Assertions.assertEquals(expected, actual);
+    }
+
+    /**
+     * 删除探测链中间的元素后，链上其后的元素仍可找到
+     */
+    @Test
+    void removeKeepsProbeChain() {
+        // 初始容量很小且不扩容前写入多个键，必然产生冲突
+        LongUserStore store = new LongUserStore(1);
+        for (long id = 1; id <= 100; id++) {
+            store.put(id, new User(id, "user" + id, 18));
+        }
+        for (long id = 1; id <= 100; id += 2) {
+            store.remove(id);
+        }
+        for (long id = 1; id <= 100; id++) {
+            if (id % 2 == 1) {
+                Assertions.assertNull(store.get(id));
+            } else {
+                Assertions.assertEquals(id, store.get(id).getId().longValue());
+            }
+        }
+        Assertions.assertEquals(50, store.size());
+    }
+
+    @Test
+    void clear() {
+        LongUserStore store = new LongUserStore(16);
+        for (long id = 1; id <= 1000; id++) {
+            store.put(id, new User(id, "user" + id, 18));
+        }
+        store.clear();
+        Assertions.assertEquals(0, store.size());
+        Assertions.assertNull(store.get(1L));
+    }
+
+}
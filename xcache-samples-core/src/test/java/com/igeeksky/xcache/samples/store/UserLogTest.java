@@ -0,0 +1,219 @@
+package com.igeeksky.xcache.samples.store;
+
+import com.igeeksky.xcache.samples.User;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class UserLogTest {
+
+    private static final int MAPPED_SIZE = 4096;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoverFromLog() {
+        UserLog userLog = open(new MapUserStore(16));
+        userLog.appendPut(new User(1L, "Jack1", 18));
+        userLog.appendPut(new User(2L, "Jack2", null));
+        userLog.appendPut(new User(1L, null, 20));
+        userLog.appendDelete(2L);
+        userLog.appendPut(new User(3L, "Jack3", 18));
+        userLog.flush();
+        userLog.close();
+
+        MapUserStore store = new MapUserStore(16);
+        open(store).close();
+        Assertions.assertEquals(2, store.size());
+        Assertions.assertEquals(new User(1L, null, 20), store.get(1L));
+        Assertions.assertNull(store.get(2L));
+        Assertions.assertEquals(new User(3L, "Jack3", 18), store.get(3L));
+    }
+
+    @Test
+    void recoverAfterClear() {
+        UserLog userLog = open(new MapUserStore(16));
+        userLog.appendPut(new User(1L, "Jack1", 18));
+        userLog.appendClear();
+        userLog.appendPut(new User(2L, "Jack2", 18));
+        userLog.close();
+
+        MapUserStore store = new MapUserStore(16);
+        open(store).close();
+        Assertions.assertEquals(1, store.size());
+        Assertions.assertEquals(new User(2L, "Jack2", 18), store.get(2L));
+    }
+
+    /**
+     * 快照 + 快照之后的日志；日志超出映射长度时自动扩容
+     */
+    @Test
+    void recoverFromSnapshotAndLogTail() throws IOException {
+        MapUserStore source = new MapUserStore(16);
+        UserLog userLog = open(source);
+        for (long id = 1; id <= 1000; id++) {
+            User user = new User(id, "user" + id, 18);
+            source.put(id, user);
+            userLog.appendPut(user);
+        }
+        userLog.compact(source);
+        userLog.appendDelete(1L);
+        userLog.appendPut(new User(1001L, "user1001", 18));
+        userLog.close();
+
+        try (var files = Files.list(dir)) {
+            // 仅保留快照与新日志，旧日志已删除
+            Assertions.assertEquals(2, files.count());
+        }
+
+        MapUserStore store = new MapUserStore(16);
+        open(store).close();
+        Assertions.assertEquals(1000, store.size());
+        Assertions.assertNull(store.get(1L));
+        Assertions.assertEquals(new User(1001L, "user1001", 18), store.get(1001L));
+        Assertions.assertEquals(new User(500L, "user500", 18), store.get(500L));
+    }
+
+    /**
+     * 切换日志后快照未写完（例如进程退出）：旧快照之后的所有日志按顺序重放
+     */
+    @Test
+    void recoverWhenSnapshotUnfinished() throws IOException {
+        UserLog userLog = open(new MapUserStore(16));
+        userLog.appendPut(new User(1L, "Jack1", 18));
+        userLog.appendPut(new User(2L, "Jack2", 18));
+        Assertions.assertEquals(1, userLog.rotate());
+        userLog.appendDelete(1L);
+        userLog.appendPut(new User(3L, "Jack3", 18));
+        userLog.close();
+
+        MapUserStore store = new MapUserStore(16);
+        userLog = open(store);
+        Assertions.assertEquals(2, store.size());
+        Assertions.assertNull(store.get(1L));
+        Assertions.assertEquals(new User(3L, "Jack3", 18), store.get(3L));
+
+        // 继续追加到最新的日志
+        userLog.appendPut(new User(4L, "Jack4", 18));
+        userLog.close();
+        store = new MapUserStore(16);
+        open(store).close();
+        Assertions.assertEquals(3, store.size());
+    }
+
+    /**
+     * 写快照期间的写操作：快照可能包含也可能不包含，重放新日志后数据一致
+     */
+    @Test
+    void recoverWritesDuringSnapshot() throws IOException {
+        MapUserStore source = new MapUserStore(16);
+        UserLog userLog = open(source);
+        for (long id = 1; id <= 100; id++) {
+            User user = new User(id, "user" + id, 18);
+            source.put(id, user);
+            userLog.appendPut(user);
+        }
+        long epoch = userLog.rotate();
+        // 切换日志之后、写快照之前的写操作已写入存储引擎（会被快照包含），同时也在新日志中
+        source.remove(1L);
+        userLog.appendDelete(1L);
+        source.put(2L, new User(2L, "Jack2", 20));
+        userLog.appendPut(new User(2L, "Jack2", 20));
+        userLog.snapshot(source, epoch);
+        userLog.appendPut(new User(101L, "user101", 18));
+        userLog.close();
+
+        try (var files = Files.list(dir)) {
+            Assertions.assertEquals(2, files.count());
+        }
+
+        MapUserStore store = new MapUserStore(16);
+        open(store).close();
+        Assertions.assertEquals(100, store.size());
+        Assertions.assertNull(store.get(1L));
+        Assertions.assertEquals(new User(2L, "Jack2", 20), store.get(2L));
+        Assertions.assertEquals(new User(101L, "user101", 18), store.get(101L));
+    }
+
+    /**
+     * 损坏的日志尾部（crc32 校验失败）不会被重放，之前的记录不受影响，且可继续追加
+     */
+    @Test
+    void ignoreCorruptTail() throws IOException {
+        UserLog userLog = open(new MapUserStore(16));
+        userLog.appendPut(new User(1L, "Jack1", 18));
+        userLog.appendPut(new User(2L, "Jack2", 18));
+        userLog.close();
+        corrupt(dir.resolve("users-0.log"), "Jack2");
+
+        MapUserStore store = new MapUserStore(16);
+        userLog = open(store);
+        Assertions.assertEquals(1, store.size());
+        Assertions.assertEquals(new User(1L, "Jack1", 18), store.get(1L));
+
+        userLog.appendPut(new User(3L, "Jack3", 18));
+        userLog.close();
+
+        store = new MapUserStore(16);
+        open(store).close();
+        Assertions.assertEquals(2, store.size());
+        Assertions.assertEquals(new User(3L, "Jack3", 18), store.get(3L));
+    }
+
+    /**
+     * 损坏的快照在加载任何数据之前即被拒绝
+     */
+    @Test
+    void rejectCorruptSnapshot() throws IOException {
+        MapUserStore source = new MapUserStore(16);
+        UserLog userLog = open(source);
+        for (long id = 1; id <= 100; id++) {
+            source.put(id, new User(id, "user" + id, 18));
+        }
+        userLog.compact(source);
+        userLog.close();
+        corrupt(dir.resolve("users.snapshot"), "user99");
+
+        MapUserStore store = new MapUserStore(16);
+        Assertions.assertThrows(UncheckedIOException.class, () -> open(store));
+        Assertions.assertEquals(0, store.size());
+    }
+
+    private UserLog open(UserStore store) {
+        UserLog userLog = new UserLog(dir, MAPPED_SIZE);
+        userLog.recover(store);
+        return userLog;
+    }
+
+    /**
+     * 修改文件中第一次出现的指定字符串的首字节
+     */
+    private static void corrupt(Path file, String marker) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        byte[] target = marker.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i <= bytes.length - target.length; i++) {
+            boolean match = true;
+            for (int j = 0; j < target.length && match; j++) {
+                match = bytes[i + j] == target[j];
+            }
+            if (match) {
+                bytes[i] ^= 0x7F;
+                Files.write(file, bytes);
+                return;
+            }
+        }
+        throw new IllegalArgumentException("marker not found: " + marker);
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.igeeksky.xcache.samples.writer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class WriteBehindBufferTest {
+
+    @Test
+    void coalesceAndFlushOnClose() {
+        List<Map<Long, String>> batches = new CopyOnWriteArrayList<>();
+        WriteBehindBuffer<Long, String> buffer = new WriteBehindBuffer<>("test", batches::add, 100, 100, 60_000);
+        buffer.submit(1L, "a");
+        buffer.submit(2L, "b");
+        buffer.submit(1L, "c");
+        Assertions.assertEquals(2, buffer.size());
+
+        buffer.close(5000);
+        Assertions.assertEquals(List.of(Map.of(1L, "c", 2L, "b")), batches);
+        WriteBehindBuffer.Stats stats = buffer.getStats();
+        Assertions.assertEquals(3, stats.submitted());
+        Assertions.assertEquals(1, stats.coalesced());
+        Assertions.assertEquals(2, stats.flushed());
+        Assertions.assertThrows(IllegalStateException.class, () -> buffer.submit(3L, "d"));
+    }
+
+    @Test
+    void flushWhenBatchIsFull() throws InterruptedException {
+        CountDownLatch flushed = new CountDownLatch(1);
+        WriteBehindBuffer<Long, String> buffer = new WriteBehindBuffer<>("test", batch -> flushed.countDown(), 100, 2, 60_000);
+        buffer.submit(1L, "a");
+        buffer.submit(2L, "b");
+        Assertions.assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        buffer.close(5000);
+    }
+
+    /**
+     * 正在写入的值在写入函数返回前仍可读取，返回后不再保留
+     */
+    @Test
+    void getPendingAndFlushing() throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WriteBehindBuffer<Long, String> buffer = new WriteBehindBuffer<>("test", batch -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 100, 1, 60_000);
+        buffer.submit(1L, "a");
+        Assertions.assertTrue(entered.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, buffer.size());
+        Assertions.assertEquals("a", buffer.get(1L));
+
+        // 待写入的新值优先于正在写入的旧值
+        buffer.submit(1L, "b");
+        Assertions.assertEquals("b", buffer.get(1L));
+        release.countDown();
+        buffer.close(5000);
+        Assertions.assertNull(buffer.get(1L));
+    }
+
+    @Test
+    void discard() {
+        List<Map<Long, String>> batches = new CopyOnWriteArrayList<>();
+        WriteBehindBuffer<Long, String> buffer = new WriteBehindBuffer<>("test", batches::add, 100, 100, 60_000);
+        buffer.submit(1L, "a");
+        buffer.submit(2L, "b");
+        buffer.submit(3L, "c");
+
+        buffer.discard(1L);
+        Assertions.assertNull(buffer.get(1L));
+        // 值不匹配：不丢弃
+        buffer.discard(2L, "x");
+        Assertions.assertEquals("b", buffer.get(2L));
+        buffer.discardAll(List.of(3L));
+
+        buffer.close(5000);
+        Assertions.assertEquals(List.of(Map.of(2L, "b")), batches);
+    }
+
+    /**
+     * 缓冲区已满时写请求阻塞，丢弃数据后恢复
+     */
+    @Test
+    void backpressure() throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WriteBehindBuffer<Long, String> buffer = new WriteBehindBuffer<>("test", batch -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 1, 1, 60_000);
+        // 后台线程取出第一个值后阻塞于写入，第二个值占满缓冲区
+        buffer.submit(1L, "a");
+        Assertions.assertTrue(entered.await(5, TimeUnit.SECONDS));
+        buffer.submit(2L, "b");
+
+        Thread writer = new Thread(() -> buffer.submit(3L, "c"));
+        writer.start();
+        writer.join(200);
+        Assertions.assertTrue(writer.isAlive());
+        Assertions.assertNull(buffer.get(3L));
+
+        buffer.discard(2L);
+        writer.join(5000);
+        Assertions.assertFalse(writer.isAlive());
+        Assertions.assertEquals("c", buffer.get(3L));
+        release.countDown();
+        buffer.close(5000);
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.igeeksky.xcache.samples.base;
 
 import com.igeeksky.xcache.samples.UserDao;
+import com.igeeksky.xcache.samples.loader.UserLoader;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Import;
@@ -9,7 +10,7 @@ import org.springframework.context.annotation.Import;
  * @author Patrick.Lau
  * @since 1.0.0 2024/9/7
  */
-@Import(UserDao.class)
+@Import({UserDao.class, UserLoader.class})
 @SpringBootApplication(scanBasePackages = "com.igeeksky.xcache.samples")
 public class CacheMethodApplication {
 
@@ -0,0 +1,119 @@
+package com.igeeksky.xcache.samples.base;
+
+import com.igeeksky.xcache.samples.jfr.CacheOperationEvent;
+import com.igeeksky.xcache.samples.jfr.JfrEvents;
+import com.igeeksky.xcache.samples.metrics.LongHistogram;
+import com.igeeksky.xcache.samples.trace.CacheTrace;
+
+import java.util.Collection;
+
+/**
+ * 缓存操作的观测：延迟分布、JFR 事件与请求追踪
+ * <p>
+ * 各层缓存的读写只需开始一次观测并在结束时指明层级与操作，无需各自重复计时、提交事件与记录追踪。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+final class CacheObserver {
+
+    private final String cacheName;
+    private final JfrEvents jfrEvents;
+
+    /**
+     * @param cacheName 缓存名称（JFR 事件的 cache 字段）
+     * @param jfrEvents JFR 事件
+     */
+    CacheObserver(String cacheName, JfrEvents jfrEvents) {
+        this.cacheName = cacheName;
+        this.jfrEvents = jfrEvents;
+    }
+
+    /**
+     * 开始观测一次操作
+     *
+     * @return 观测
+     */
+    Span begin() {
+        return new Span(System.nanoTime(), jfrEvents.beginCache());
+    }
+
+    /**
+     * 执行一次操作并提交 JFR 事件（用于缓存写操作，不记录延迟分布与追踪）
+     *
+     * @param level     缓存层级
+     * @param operation 操作名称
+     * @param keyCount  键数量
+     * @param action    操作
+     */
+    void run(String level, String operation, int keyCount, Runnable action) {
+        CacheOperationEvent event = jfrEvents.beginCache();
+        action.run();
+        jfrEvents.commit(event, cacheName, level, operation, keyCount);
+    }
+
+    /**
+     * 一次操作的观测
+     */
+    final class Span {
+
+        private final long start;
+        private final CacheOperationEvent event;
+
+        private Span(long start, CacheOperationEvent event) {
+            this.start = start;
+            this.event = event;
+        }
+
+        /**
+         * 结束观测：记录延迟分布（可为 null）并提交 JFR 事件
+         *
+         * @param level     缓存层级
+         * @param operation 操作名称
+         * @param keyCount  键数量
+         * @param latency   延迟分布（为 null 时不记录）
+         * @return 当前请求的追踪（未开启追踪时为 null）
+         */
+        CacheTrace end(String level, String operation, int keyCount, LongHistogram latency) {
+            if (latency != null) {
+                latency.record(System.nanoTime() - start);
+            }
+            jfrEvents.commit(event, cacheName, level, operation, keyCount);
+            return CacheTrace.current();
+        }
+
+        /**
+         * 结束观测，并在追踪中记录阶段耗时及提供数据的层级
+         *
+         * @param level     缓存层级（同时作为追踪的阶段名称）
+         * @param operation 操作名称
+         * @param key       键
+         * @param latency   延迟分布（为 null 时不记录）
+         */
+        void endTraced(String level, String operation, Object key, LongHistogram latency) {
+            CacheTrace trace = end(level, operation, 1, latency);
+            if (trace != null) {
+                trace.stage(level, start);
+                trace.served(key, level);
+            }
+        }
+
+        /**
+         * 结束批量操作的观测，并在追踪中记录阶段耗时及提供数据的层级
+         *
+         * @param level     缓存层级（同时作为追踪的阶段名称）
+         * @param operation 操作名称
+         * @param keys      键集合
+         * @param latency   延迟分布（为 null 时不记录）
+         */
+        void endTraced(String level, String operation, Collection<?> keys, LongHistogram latency) {
+            CacheTrace trace = end(level, operation, keys.size(), latency);
+            if (trace != null) {
+                trace.stage(level, start);
+                trace.served(keys, level);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.igeeksky.xcache.samples.base;
+
+import com.igeeksky.xcache.samples.Response;
+import com.igeeksky.xcache.samples.hotkey.HotKey;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 热点键接口
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@RestController
+@RequestMapping("/user/hot-key")
+public class HotKeyController {
+
+    private final UserService userService;
+
+    public HotKeyController(UserService userService) {
+        this.userService = userService;
+    }
+
+    /**
+     * 获取热点键及当前统计周期内的估算访问次数（按访问次数降序排列）
+     */
+    @GetMapping("/list")
+    public Response<List<HotKey>> getHotKeys() {
+        return userService.getHotKeys();
+    }
+
+    /**
+     * 获取已驻留本地内存的热点键
+     */
+    @GetMapping("/pinned")
+    public Response<Set<Long>> getPinnedKeys() {
+        return userService.getPinnedKeys();
+    }
+
+}
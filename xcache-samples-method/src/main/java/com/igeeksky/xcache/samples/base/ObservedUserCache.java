@@ -0,0 +1,111 @@
+package com.igeeksky.xcache.samples.base;
+
+import com.igeeksky.xcache.common.Cache;
+import com.igeeksky.xcache.common.CacheLoader;
+import com.igeeksky.xcache.samples.User;
+import com.igeeksky.xcache.samples.metrics.CacheMetrics;
+import com.igeeksky.xcache.samples.metrics.LongHistogram;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * xcache 用户缓存（一级缓存 + 二级缓存）的装饰器：读写的同时记录观测数据
+ * <p>
+ * 请求路径上的读取记录延迟分布、JFR 事件与追踪；写操作记录 JFR 事件。
+ * 后台任务（前置缓存重新加载、热点键驻留）及写操作的前置校验通过 {@link #load(Long)}、{@link #loadAll(Set)} 读取，不计入请求的观测数据。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+final class ObservedUserCache {
+
+    private static final String LEVEL = "cache";
+
+    private final Cache<Long, User> cache;
+    private final CacheLoader<Long, User> cacheLoader;
+    private final CacheObserver observer;
+    // 延迟分布（单位：纳秒）：xcache 缓存（含回源）的读取耗时
+    private final LongHistogram getLatency;
+    private final LongHistogram getAllLatency;
+    // getAllOrLoad 的键数量分布
+    private final LongHistogram getAllSize;
+
+    ObservedUserCache(Cache<Long, User> cache, CacheLoader<Long, User> cacheLoader, CacheObserver observer,
+                      CacheMetrics metrics) {
+        this.cache = cache;
+        this.cacheLoader = cacheLoader;
+        this.observer = observer;
+        this.getLatency = metrics.latency("user", "getOrLoad");
+        this.getAllLatency = metrics.latency("user", "getAllOrLoad");
+        this.getAllSize = metrics.batchSize("user", "getAllOrLoad");
+    }
+
+    /**
+     * 获取单个用户信息：缓存未命中时回源加载
+     *
+     * @param id 用户ID
+     * @return 用户信息
+     */
+    User getOrLoad(Long id) {
+        CacheObserver.Span span = observer.begin();
+        User user = cache.getOrLoad(id, cacheLoader);
+        span.endTraced(LEVEL, "get", id, getLatency);
+        return user;
+    }
+
+    /**
+     * 批量获取用户信息：缓存未命中的用户回源加载
+     *
+     * @param ids 用户ID集合
+     * @return 用户信息集合
+     */
+    Map<Long, User> getAllOrLoad(Set<Long> ids) {
+        CacheObserver.Span span = observer.begin();
+        Map<Long, User> users = cache.getAllOrLoad(ids, cacheLoader);
+        getAllSize.record(ids.size());
+        span.endTraced(LEVEL, "getAll", ids, getAllLatency);
+        return users;
+    }
+
+    /**
+     * 获取单个用户信息，不记录观测数据
+     *
+     * @param id 用户ID
+     * @return 用户信息
+     */
+    User load(Long id) {
+        return cache.getOrLoad(id, cacheLoader);
+    }
+
+    /**
+     * 批量获取用户信息，不记录观测数据
+     *
+     * @param ids 用户ID集合
+     * @return 用户信息集合
+     */
+    Map<Long, User> loadAll(Set<Long> ids) {
+        return cache.getAllOrLoad(ids, cacheLoader);
+    }
+
+    void put(Long id, User user) {
+        observer.run(LEVEL, "put", 1, () -> cache.put(id, user));
+    }
+
+    void putAll(Map<Long, User> users) {
+        observer.run(LEVEL, "putAll", users.size(), () -> cache.putAll(users));
+    }
+
+    void remove(Long id) {
+        observer.run(LEVEL, "remove", 1, () -> cache.remove(id));
+    }
+
+    void removeAll(Set<Long> ids) {
+        observer.run(LEVEL, "removeAll", ids.size(), () -> cache.removeAll(ids));
+    }
+
+    void clear() {
+        observer.run(LEVEL, "clear", 0, cache::clear);
+    }
+
+}
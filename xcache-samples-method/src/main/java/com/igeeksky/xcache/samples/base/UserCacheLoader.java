@@ -0,0 +1,105 @@
+package com.igeeksky.xcache.samples.base;
+
+import com.igeeksky.xcache.common.CacheLoader;
+import com.igeeksky.xcache.samples.User;
+import com.igeeksky.xcache.samples.loader.UserLoader;
+import com.igeeksky.xcache.samples.metrics.CacheMetrics;
+import com.igeeksky.xcache.samples.metrics.LongHistogram;
+import com.igeeksky.xtool.core.collection.Maps;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CacheLoader 实现类
+ * <p>
+ * 用于数据回源操作，当缓存中不存在指定数据时，会调用此方法从数据源加载数据。
+ * <p>
+ * 启用微批加载（samples.user-loader.batch.enabled）时，并发的单键回源请求会合并为一次批量查询。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+final class UserCacheLoader implements CacheLoader<Long, User> {
+
+    private static final String LEVEL = "loader";
+
+    private final UserLoader userLoader;
+    // 延迟写（未启用延迟写时为 null），尚未写入数据库的用户信息优先于数据库中的旧值
+    private final UserWriteBehind writeBehind;
+    // 回源加载的用户数量
+    private final LongAdder loads = new LongAdder();
+    private final CacheObserver observer;
+    // 单个回源与批量回源的延迟分布，批量回源的键数量分布
+    private final LongHistogram loadLatency;
+    private final LongHistogram loadAllLatency;
+    private final LongHistogram loadAllSize;
+
+    UserCacheLoader(UserLoader userLoader, UserWriteBehind writeBehind, CacheObserver observer, CacheMetrics metrics) {
+        this.userLoader = userLoader;
+        this.writeBehind = writeBehind;
+        this.observer = observer;
+        this.loadLatency = metrics.latency("user", "load");
+        this.loadAllLatency = metrics.latency("user", "loadAll");
+        this.loadAllSize = metrics.batchSize("user", "loadAll");
+    }
+
+    @Override
+    public User load(Long id) {
+        if (writeBehind != null) {
+            User pending = writeBehind.get(id);
+            if (pending != null) {
+                return pending;
+            }
+        }
+        loads.increment();
+        CacheObserver.Span span = observer.begin();
+        User user = userLoader.load(id);
+        span.endTraced(LEVEL, "load", id, loadLatency);
+        return user;
+    }
+
+    @Override
+    public Map<Long, User> loadAll(Set<? extends Long> ids) {
+        Map<Long, User> pending = null;
+        if (writeBehind != null) {
+            for (Long id : ids) {
+                User user = writeBehind.get(id);
+                if (user != null) {
+                    if (pending == null) {
+                        pending = Maps.newHashMap(ids.size());
+                    }
+                    pending.put(id, user);
+                }
+            }
+        }
+        if (pending != null) {
+            Set<Long> rest = new HashSet<>(ids);
+            rest.removeAll(pending.keySet());
+            if (!rest.isEmpty()) {
+                pending.putAll(doLoadAll(rest));
+            }
+            return pending;
+        }
+        return doLoadAll(ids);
+    }
+
+    /**
+     * @return 回源加载的用户数量（缓存未命中）
+     */
+    long getLoads() {
+        return loads.sum();
+    }
+
+    private Map<Long, User> doLoadAll(Set<? extends Long> ids) {
+        loads.add(ids.size());
+        CacheObserver.Span span = observer.begin();
+        Map<Long, User> users = userLoader.loadAll(ids);
+        loadAllSize.record(ids.size());
+        span.endTraced(LEVEL, "loadAll", ids, loadAllLatency);
+        return users;
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.igeeksky.xcache.samples.base;
+
+import com.igeeksky.xcache.samples.front.FrontCacheProperties;
+import com.igeeksky.xcache.samples.hotkey.HotKeyProperties;
+import com.igeeksky.xcache.samples.warmup.WarmUpProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 用户缓存服务配置
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@ConfigurationProperties(prefix = "samples.user-cache")
+public class UserCacheProperties {
+
+    /**
+     * 是否通过数据变更事件批量维护缓存（默认值：false）
+     * <p>
+     * 启用后，写方法不再直接更新缓存，绕过服务的写操作也会同步到缓存。
+     */
+    private boolean changeStream = false;
+
+    /**
+     * 延迟写配置
+     */
+    private final WriteBehind writeBehind = new WriteBehind();
+
+    /**
+     * 前置缓存配置（stale-while-revalidate）
+     */
+    private final FrontCacheProperties front = new FrontCacheProperties();
+
+    /**
+     * 热点键探测与本地驻留配置
+     */
+    private final HotKeyProperties hotKey = new HotKeyProperties();
+
+    /**
+     * 缓存预热配置
+     */
+    private final WarmUpProperties warmUp = new WarmUpProperties();
+
+    public boolean isChangeStream() {
+        return changeStream;
+    }
+
+    public void setChangeStream(boolean changeStream) {
+        this.changeStream = changeStream;
+    }
+
+    public WriteBehind getWriteBehind() {
+        return writeBehind;
+    }
+
+    public FrontCacheProperties getFront() {
+        return front;
+    }
+
+    public HotKeyProperties getHotKey() {
+        return hotKey;
+    }
+
+    public WarmUpProperties getWarmUp() {
+        return warmUp;
+    }
+
+    /**
+     * 延迟写配置
+     * <p>
+     * 启用后，更新用户信息时立即更新缓存并返回，数据库写操作放入缓冲区，按用户ID合并后批量写入。
+     * <p>
+     * 注意：此模式为最终一致，写入失败时仅记录日志并删除对应的缓存数据，调用方无法感知。
+     */
+    public static class WriteBehind {
+
+        /**
+         * 是否启用延迟写（默认值：false）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 缓冲区容量（默认值：10000），待写入的用户数量达到此值时，写请求阻塞
+         */
+        private int capacity = 10000;
+
+        /**
+         * 每批写入的最大用户数量（默认值：500）
+         */
+        private int batchSize = 500;
+
+        /**
+         * 写入周期（默认值：100 单位：毫秒）
+         */
+        private long flushInterval = 100;
+
+        /**
+         * 应用关闭时等待缓冲区写入完成的最长时间（默认值：10000 单位：毫秒）
+         */
+        private long shutdownTimeout = 10000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(long flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public long getShutdownTimeout() {
+            return shutdownTimeout;
+        }
+
+        public void setShutdownTimeout(long shutdownTimeout) {
+            this.shutdownTimeout = shutdownTimeout;
+        }
+
+    }
+
+}
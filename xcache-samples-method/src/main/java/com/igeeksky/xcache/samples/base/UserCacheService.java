@@ -1,33 +1,69 @@
 package com.igeeksky.xcache.samples.base;
 
-import com.igeeksky.xcache.common.Cache;
-import com.igeeksky.xcache.common.CacheLoader;
 import com.igeeksky.xcache.core.CacheManager;
 import com.igeeksky.xcache.samples.User;
 import com.igeeksky.xcache.samples.UserDao;
+import com.igeeksky.xcache.samples.UserDaoProperties;
+import com.igeeksky.xcache.samples.hotkey.HotKey;
+import com.igeeksky.xcache.samples.jfr.JfrEvents;
+import com.igeeksky.xcache.samples.jfr.JfrProperties;
+import com.igeeksky.xcache.samples.loader.UserLoader;
+import com.igeeksky.xcache.samples.metrics.CacheMetrics;
+import com.igeeksky.xcache.samples.trace.CacheTrace;
+import com.igeeksky.xtool.core.collection.Maps;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 用户缓存服务
+ * <p>
+ * 读取顺序：布隆过滤器 → 本地数据（热点键驻留数据、前置缓存）→ xcache 缓存 → 回源加载；
+ * 写操作先写数据库（或延迟写缓冲区），再更新各层缓存及用户名索引缓存（启用数据变更事件时由 {@link UserChangeApplier} 更新 xcache 缓存）。
  *
  * @author Patrick.Lau
  * @since 1.0.0 2024/9/13
  */
 @Service
+@EnableConfigurationProperties({UserCacheProperties.class, JfrProperties.class})
 public class UserCacheService {
 
     private final UserDao userDao;
-    private final Cache<Long, User> cache;
-    private final CacheLoader<Long, User> cacheLoader;
+    // xcache 用户缓存（读写时记录观测数据）
+    private final ObservedUserCache cache;
+    private final UserCacheLoader cacheLoader;
+    // 用户名索引缓存（name -> id）
+    private final UserNameIndex names;
+    // 热点键驻留数据与前置缓存
+    private final UserLocalCache local;
+    // 是否通过数据变更事件维护缓存（启用后，写方法不再直接更新缓存）
+    private final boolean changeStream;
+    // 延迟写（未启用延迟写时为 null）
+    private final UserWriteBehind writeBehind;
+    // 统计信息：请求的用户数量（回源加载的用户数量由 cacheLoader 统计）
+    private final LongAdder requests = new LongAdder();
 
-    public UserCacheService(UserDao userDao, CacheManager cacheManager) {
+    public UserCacheService(UserDao userDao, UserLoader userLoader, CacheManager cacheManager,
+                            UserCacheProperties properties, UserDaoProperties userDaoProperties, CacheMetrics metrics,
+                            JfrProperties jfrProperties) {
         this.userDao = userDao;
-        this.cache = cacheManager.getOrCreateCache("user", Long.class, User.class);
-        this.cacheLoader = new UserCacheLoader(this.userDao);
+        CacheObserver observer = new CacheObserver("user", new JfrEvents(jfrProperties.isEnabled()));
+        // 须先于 cacheLoader 创建：回源加载优先读取尚未写入数据库的用户信息
+        UserCacheProperties.WriteBehind wb = properties.getWriteBehind();
+        this.writeBehind = wb.isEnabled() ? new UserWriteBehind(userDao, wb, this::evict) : null;
+        this.cacheLoader = new UserCacheLoader(userLoader, writeBehind, observer, metrics);
+        this.cache = new ObservedUserCache(cacheManager.getOrCreateCache("user", Long.class, User.class),
+                cacheLoader, observer, metrics);
+        this.names = new UserNameIndex(cacheManager.getOrCreateCache("user-name", String.class, Long.class), userDao);
+        this.local = new UserLocalCache(properties, userDao, userDaoProperties, cache, observer, metrics);
+        this.changeStream = properties.isChangeStream();
+        if (changeStream) {
+            // 订阅数据变更事件：任何写操作（包括绕过此服务的写操作）都会批量同步到缓存
+            this.userDao.subscribe(new UserChangeApplier(cache, local, names, observer));
+        }
     }
 
     /**
@@ -37,9 +73,18 @@ public class UserCacheService {
      * @return 用户信息
      */
     public User getUser(Long id) {
-        // 1. 首先查询缓存，如果缓存命中，则直接返回缓存数据；
+        requests.increment();
+        // 0. 布隆过滤器判断用户一定不存在，直接返回，避免缓存穿透（未启用布隆过滤器时总是继续查询）；
+        if (!userDao.mightExist(id)) {
+            CacheTrace trace = CacheTrace.current();
+            if (trace != null) {
+                trace.served(id, "bloom");
+            }
+            return null;
+        }
+        // 1. 首先查询本地数据（热点键驻留数据、前置缓存）及 xcache 缓存，如果缓存命中，则直接返回缓存数据；
         // 2. 如果缓存未命中，则调用 cacheLoader 从数据源加载数据。
-        return cache.getOrLoad(id, cacheLoader);
+        return local.get(id, cache::getOrLoad);
     }
 
     /**
@@ -49,9 +94,66 @@ public class UserCacheService {
      * @return 用户信息集合
      */
     public Map<Long, User> getUsers(Set<Long> ids) {
-        // 1. 首先查询缓存，如果缓存全部命中，则直接返回缓存数据；
-        // 2. 如果缓存全部未命中或部分命中，则调用 cacheLoader 从数据源加载未命中数据。
-        return cache.getAllOrLoad(ids, this.cacheLoader);
+        requests.add(ids.size());
+        // 0. 剔除布隆过滤器判断一定不存在的用户ID，避免缓存穿透（未启用布隆过滤器时不剔除）；
+        Set<Long> keys = filterExisting(ids);
+        Map<Long, User> users = Collections.emptyMap();
+        if (!keys.isEmpty()) {
+            // 1. 首先查询缓存，如果缓存全部命中，则直接返回缓存数据；
+            // 2. 如果缓存全部未命中或部分命中，则调用 cacheLoader 从数据源加载未命中数据。
+            users = cache.getAllOrLoad(keys);
+        }
+        CacheTrace trace = CacheTrace.current();
+        if (trace != null) {
+            trace.served(ids, "bloom");
+        }
+        return users;
+    }
+
+    /**
+     * 剔除布隆过滤器判断一定不存在的用户ID
+     *
+     * @param ids 用户ID集合
+     * @return 可能存在的用户ID集合（全部可能存在时返回原集合）
+     */
+    private Set<Long> filterExisting(Set<Long> ids) {
+        Set<Long> keys = null;
+        for (Long id : ids) {
+            if (!userDao.mightExist(id)) {
+                if (keys == null) {
+                    keys = new HashSet<>(ids);
+                }
+                keys.remove(id);
+            }
+        }
+        return (keys == null) ? ids : keys;
+    }
+
+    /**
+     * 根据用户名获取用户信息
+     * <p>
+     * 先通过用户名索引缓存获取用户ID，再通过用户缓存获取用户信息，缓存命中时无需访问数据源。
+     *
+     * @param name 用户名
+     * @return 用户信息（用户名不存在时返回 null）
+     */
+    public User getUserByName(String name) {
+        Long id = names.getOrLoad(name);
+        if (id == null) {
+            return null;
+        }
+        User user = getUser(id);
+        if (user != null && name.equals(user.getName())) {
+            return user;
+        }
+        // 用户名索引缓存已过期（例如绕过此服务修改或删除了用户）：删除后重新加载一次
+        names.remove(name);
+        id = names.getOrLoad(name);
+        if (id == null) {
+            return null;
+        }
+        user = getUser(id);
+        return (user != null && name.equals(user.getName())) ? user : null;
     }
 
     /**
@@ -61,9 +163,14 @@ public class UserCacheService {
      * @return 保存到数据库后返回的用户信息
      */
     public User saveUser(User user) {
-        User created = userDao.save(user);
-        // 将新增用户信息写入缓存
-        cache.put(user.getId(), created);
+        // 延迟写：用户名可能已被尚未写入数据库的更新占用，由 writeBehind 在保存期间占用此用户名
+        User created = (writeBehind != null) ? writeBehind.save(user) : userDao.save(user);
+        if (!changeStream) {
+            // 将新增用户信息写入缓存
+            cache.put(created.getId(), created);
+        }
+        local.put(created);
+        names.added(created);
         return created;
     }
 
@@ -74,12 +181,30 @@ public class UserCacheService {
      * @return 保存到数据库后返回的用户信息
      */
     public User updateUser(User user) {
-        User updated = userDao.update(user);
-        // 将更新后的用户信息写入缓存
-        cache.put(user.getId(), updated);
-        // 如果为了更好地保持数据一致性，这里可选择直接删除缓存数据，后续查询时再从数据源加载
-        // cache.remove(user.getId());
-        return updated;
+        User old;
+        if (writeBehind != null) {
+            // 延迟写：校验通过并提交到缓冲区后再更新缓存，数据库写操作由后台线程合并后批量完成
+            // 需先确认用户存在，并获取旧用户名（通常为缓存命中，可能访问 Redis 或数据库，因此在加锁之前执行）
+            old = cache.load(user.getId());
+            if (old == null) {
+                throw new RuntimeException("user:[" + user.getId() + "] is not exist");
+            }
+            // 尚未写入的更新比缓存中的用户信息更新
+            old = writeBehind.submit(user, old);
+            cache.put(user.getId(), user);
+        } else {
+            // 数据库返回更新前的用户信息，以便删除旧用户名的索引缓存
+            old = userDao.update(user);
+            if (!changeStream) {
+                // 将更新后的用户信息写入缓存
+                cache.put(user.getId(), user);
+                // 如果为了更好地保持数据一致性，这里可选择直接删除缓存数据，后续查询时再从数据源加载
+                // cache.remove(user.getId());
+            }
+        }
+        local.put(user);
+        names.updated(old, user);
+        return user;
     }
 
     /**
@@ -89,11 +214,43 @@ public class UserCacheService {
      * @return 保存到数据库后返回的用户信息集合
      */
     public Map<Long, User> updateUsers(List<User> users) {
-        Map<Long, User> updated = userDao.batchUpdate(users);
-        // 将更新后的用户信息写入缓存
-        cache.putAll(updated);
-        // 如果为了更好地保持数据一致性，这里可选择直接删除缓存数据，后续查询时再从数据源加载
-        // cache.removeAll(updated.keySet());
+        Map<Long, User> olds;
+        Map<Long, User> updated = Maps.newHashMap(users.size());
+        if (writeBehind != null) {
+            // 延迟写：校验通过并提交到缓冲区后再更新缓存，数据库写操作由后台线程合并后批量完成
+            // 需先确认用户存在，并获取旧用户名（通常为缓存命中，可能访问 Redis 或数据库，因此在加锁之前执行）
+            Set<Long> ids = new HashSet<>(users.size());
+            users.forEach(user -> ids.add(user.getId()));
+            olds = new HashMap<>(cache.loadAll(ids));
+            Set<String> userNames = new HashSet<>(users.size());
+            for (User user : users) {
+                Long id = user.getId();
+                if (!olds.containsKey(id)) {
+                    throw new RuntimeException("user:[" + id + "] is not exist");
+                }
+                if (updated.put(id, user) != null) {
+                    throw new RuntimeException("id:[" + id + "] is duplicate");
+                }
+                if (user.getName() != null && !userNames.add(user.getName())) {
+                    throw new RuntimeException("name:[" + user.getName() + "] is duplicate");
+                }
+            }
+            // 尚未写入的更新比缓存中的用户信息更新，由 writeBehind 替换到 olds
+            writeBehind.submitAll(updated, olds);
+            cache.putAll(updated);
+        } else {
+            // 数据库返回更新前的用户信息，以便删除旧用户名的索引缓存
+            olds = userDao.batchUpdate(users);
+            users.forEach(user -> updated.put(user.getId(), user));
+            if (!changeStream) {
+                // 将更新后的用户信息写入缓存
+                cache.putAll(updated);
+                // 如果为了更好地保持数据一致性，这里可选择直接删除缓存数据，后续查询时再从数据源加载
+                // cache.removeAll(updated.keySet());
+            }
+        }
+        updated.values().forEach(local::put);
+        names.updatedAll(olds.values(), updated.values());
         return updated;
     }
 
@@ -103,9 +260,17 @@ public class UserCacheService {
      * @param id 用户ID
      */
     public void deleteUser(Long id) {
-        userDao.delete(id);
-        // 删除缓存数据
-        cache.remove(id);
+        if (writeBehind != null) {
+            // 丢弃尚未写入的更新，避免回源加载读到已删除的用户
+            writeBehind.discardAll(Collections.singleton(id));
+        }
+        User deleted = userDao.delete(id);
+        if (!changeStream) {
+            // 删除缓存数据
+            cache.remove(id);
+        }
+        local.remove(id);
+        names.deleted(deleted);
     }
 
     /**
@@ -114,37 +279,113 @@ public class UserCacheService {
      * @param ids 用户ID集合
      */
     public void deleteUsers(Set<Long> ids) {
-        userDao.batchDelete(ids);
-        // 批量删除缓存数据
-        cache.removeAll(ids);
+        if (writeBehind != null) {
+            // 丢弃尚未写入的更新，避免回源加载读到已删除的用户
+            writeBehind.discardAll(ids);
+        }
+        Map<Long, User> deleted = userDao.batchDelete(ids);
+        if (!changeStream) {
+            // 批量删除缓存数据
+            cache.removeAll(ids);
+        }
+        ids.forEach(local::remove);
+        names.deletedAll(deleted.values());
     }
 
     /**
      * 清空数据
      */
     public void clear() {
+        if (writeBehind != null) {
+            writeBehind.clear();
+        }
         userDao.clear();
-        // 清空缓存数据
-        cache.clear();
+        if (!changeStream) {
+            // 清空缓存数据
+            cache.clear();
+        }
+        local.clear();
+        names.clear();
     }
 
     /**
-     * CacheLoader 实现类
-     * <p>
-     * 用于数据回源操作，当缓存中不存在指定数据时，会调用此方法从数据源加载数据。
+     * 获取统计信息
      *
-     * @param userDao
+     * @return 统计信息快照
      */
-    private record UserCacheLoader(UserDao userDao) implements CacheLoader<Long, User> {
+    public Stats getStats() {
+        return new Stats(requests.sum(), cacheLoader.getLoads());
+    }
 
-        @Override
-        public User load(Long id) {
-            return this.userDao.findUser(id);
+    /**
+     * 获取热点键
+     *
+     * @return 热点键及估算访问次数（未启用热点键探测时返回空列表）
+     */
+    public List<HotKey> getHotKeys() {
+        return local.hotKeys();
+    }
+
+    /**
+     * 获取已驻留本地内存的热点键
+     *
+     * @return 驻留键集合（未启用热点键探测时返回空集合）
+     */
+    public Set<Long> getPinnedKeys() {
+        return local.pinnedKeys();
+    }
+
+    /**
+     * 延迟写失败：缓存数据未能写入数据库，删除缓存数据，后续查询时从数据库重新加载
+     *
+     * @param id 用户ID
+     */
+    private void evict(Long id) {
+        cache.remove(id);
+        local.remove(id);
+    }
+
+    /**
+     * 关闭：将延迟写缓冲区中的数据全部写入数据库，停止前置缓存的异步重新加载（启用持久化时写入快照）及热点键的周期任务
+     */
+    @PreDestroy
+    public void close() {
+        if (writeBehind != null) {
+            writeBehind.close();
+        }
+        local.close();
+    }
+
+    /**
+     * 统计信息
+     *
+     * @param requests 请求的用户数量
+     * @param loads    回源加载的用户数量（缓存未命中）
+     */
+    public record Stats(long requests, long loads) {
+
+        /**
+         * 计算两次快照之间的增量
+         *
+         * @param base 较早的快照
+         * @return 增量统计信息
+         */
+        public Stats minus(Stats base) {
+            return new Stats(requests - base.requests, loads - base.loads);
+        }
+
+        /**
+         * 缓存命中率
+         *
+         * @return 命中率（无请求时返回 0）
+         */
+        public double hitRatio() {
+            return (requests == 0) ? 0 : Math.max(0, 1 - (double) loads / requests);
         }
 
         @Override
-        public Map<Long, User> loadAll(Set<? extends Long> ids) {
-            return this.userDao.findUserList(ids);
+        public String toString() {
+            return String.format("requests=%d, loads=%d, hitRatio=%.4f", requests, loads, hitRatio());
         }
 
     }
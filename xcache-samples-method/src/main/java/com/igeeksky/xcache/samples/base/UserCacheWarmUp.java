@@ -0,0 +1,134 @@
+package com.igeeksky.xcache.samples.base;
+
+import com.igeeksky.xcache.samples.UserDao;
+import com.igeeksky.xcache.samples.warmup.KeyWarmer;
+import com.igeeksky.xcache.samples.warmup.WarmUpProperties;
+import com.igeeksky.xtool.core.lang.StringUtils;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户缓存预热
+ * <p>
+ * ApplicationRunner 在应用就绪（ReadinessState.ACCEPTING_TRAFFIC）之前执行，
+ * 因此预热完成之前，就绪探针不会将流量导入此实例。
+ * <p>
+ * 启动后统计一段时间内的缓存命中率并输出日志；未启用预热时同样统计，以便与冷启动对比。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@Component
+public class UserCacheWarmUp implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(UserCacheWarmUp.class);
+
+    private final UserDao userDao;
+    private final UserCacheService userCacheService;
+    private final WarmUpProperties properties;
+    // 命中率统计调度器（不统计时为 null）
+    private final ScheduledExecutorService scheduler;
+
+    public UserCacheWarmUp(UserDao userDao, UserCacheService userCacheService, UserCacheProperties properties) {
+        this.userDao = userDao;
+        this.userCacheService = userCacheService;
+        this.properties = properties.getWarmUp();
+        if (this.properties.getReportAfter() > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "user-cache-warm-up-report");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        boolean enabled = properties.isEnabled();
+        if (enabled) {
+            List<Long> keys;
+            try {
+                keys = loadKeys();
+            } catch (IOException | IllegalArgumentException e) {
+                // 预热是尽力而为的优化：键文件缺失或不可读时不预热，不应阻止应用启动
+                log.warn("user cache warm up skipped, source: {}, failed to load keys. {}", properties.getSource(),
+                        e.toString());
+                keys = Collections.emptyList();
+            }
+            KeyWarmer<Long> warmer = new KeyWarmer<>("user-cache-warm-up", properties.getChunkSize(),
+                    properties.getParallelism(), properties.getRate());
+            KeyWarmer.Result result = warmer.warm(keys, userCacheService::getUsers);
+            log.info("user cache warm up finished, source: {}, {}", properties.getSource(), result);
+        }
+        if (scheduler != null) {
+            // 预热本身的请求不计入命中率
+            UserCacheService.Stats base = userCacheService.getStats();
+            long reportAfter = properties.getReportAfter();
+            scheduler.schedule(() -> log.info("user cache first {}ms after startup ({}): {}", reportAfter,
+                            enabled ? "warm" : "cold", userCacheService.getStats().minus(base)),
+                    reportAfter, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 根据配置的键来源获取预热的用户ID列表
+     */
+    private List<Long> loadKeys() throws IOException {
+        return switch (properties.getSource()) {
+            case SNAPSHOT -> userDao.findLatestIds(properties.getSize());
+            case FILE -> readKeyFile();
+        };
+    }
+
+    /**
+     * 读取键文件：每行一个用户ID，忽略空行及 # 开头的注释行，无法解析的行仅记录日志
+     */
+    private List<Long> readKeyFile() throws IOException {
+        String file = StringUtils.trimToNull(properties.getFile());
+        if (file == null) {
+            throw new IllegalArgumentException("samples.user-cache.warm-up.file must not be empty when source is file");
+        }
+        List<Long> keys = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    keys.add(Long.parseLong(line));
+                } catch (NumberFormatException e) {
+                    log.warn("user cache warm up: invalid key [{}] in file: {}", line, file);
+                }
+            }
+        }
+        return keys;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,158 @@
+package com.igeeksky.xcache.samples.base;
+
+import com.igeeksky.xcache.samples.User;
+import com.igeeksky.xcache.samples.change.ChangeType;
+import com.igeeksky.xcache.samples.change.UserChange;
+import com.igeeksky.xcache.samples.change.UserChangeListener;
+import com.igeeksky.xtool.core.collection.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * 将数据变更事件批量同步到缓存
+ * <p>
+ * 任何写操作（包括绕过 {@link UserCacheService} 的写操作）都会通过变更事件同步到 xcache 缓存、本地数据及用户名索引缓存。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+final class UserChangeApplier implements UserChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(UserChangeApplier.class);
+
+    private final ObservedUserCache cache;
+    private final UserLocalCache local;
+    private final UserNameIndex names;
+    private final CacheObserver observer;
+
+    UserChangeApplier(ObservedUserCache cache, UserLocalCache local, UserNameIndex names, CacheObserver observer) {
+        this.cache = cache;
+        this.local = local;
+        this.names = names;
+        this.observer = observer;
+    }
+
+    /**
+     * 将一批数据变更事件应用到缓存
+     * <p>
+     * 同一用户ID仅保留最后一次变更，然后通过 putAll 与 removeAll 批量更新缓存，并同步更新用户名索引缓存：
+     * 删除用户或修改用户名时，删除旧用户名的索引缓存（除非旧用户名已被同一批次内的其它用户占用）。
+     *
+     * @param changes 变更事件（按版本号升序）
+     */
+    @Override
+    public void onChanges(List<UserChange> changes) {
+        CacheObserver.Span span = observer.begin();
+        Map<Long, User> puts = Maps.newHashMap(changes.size());
+        Set<Long> removes = new HashSet<>();
+        Map<String, Long> newNames = Maps.newHashMap(changes.size());
+        Set<String> staleNames = new HashSet<>();
+        for (UserChange change : changes) {
+            Long id = change.id();
+            switch (change.type()) {
+                case PUT -> {
+                    User user = change.user();
+                    String name = user.getName();
+                    User previous = change.previous();
+                    if (previous != null && !Objects.equals(previous.getName(), name)) {
+                        releaseName(newNames, staleNames, previous.getName(), id);
+                    }
+                    removes.remove(id);
+                    puts.put(id, user);
+                    if (name != null) {
+                        newNames.put(name, id);
+                        staleNames.remove(name);
+                    }
+                }
+                case DELETE -> {
+                    releaseName(newNames, staleNames, change.previous().getName(), id);
+                    puts.remove(id);
+                    removes.add(id);
+                }
+                case EVICT -> {
+                    // 发布器队列溢出后的合并事件：仅删除缓存，由后续读取重新加载
+                    if (change.previous() != null) {
+                        releaseName(newNames, staleNames, change.previous().getName(), id);
+                    }
+                    if (change.user() != null) {
+                        releaseName(newNames, staleNames, change.user().getName(), id);
+                    }
+                    puts.remove(id);
+                    removes.add(id);
+                }
+                case CLEAR -> {
+                    // 清空之前的变更已无意义，直接丢弃
+                    puts.clear();
+                    removes.clear();
+                    newNames.clear();
+                    staleNames.clear();
+                    clear();
+                }
+            }
+        }
+        if (!puts.isEmpty()) {
+            cache.putAll(puts);
+            puts.values().forEach(local::put);
+        }
+        if (!removes.isEmpty()) {
+            cache.removeAll(removes);
+            removes.forEach(local::remove);
+        }
+        names.apply(newNames, staleNames);
+        span.end("sync", "apply", changes.size(), null);
+    }
+
+    /**
+     * 变更事件处理失败且重试次数已用尽：删除这批事件涉及的所有缓存，使后续读取从数据库重新加载
+     *
+     * @param changes 处理失败的变更事件
+     * @param cause   失败原因
+     */
+    @Override
+    public void onFailure(List<UserChange> changes, RuntimeException cause) {
+        Set<Long> ids = new HashSet<>();
+        Set<String> staleNames = new HashSet<>();
+        for (UserChange change : changes) {
+            if (change.type() == ChangeType.CLEAR) {
+                clear();
+                return;
+            }
+            ids.add(change.id());
+            addName(staleNames, change.user());
+            addName(staleNames, change.previous());
+        }
+        cache.removeAll(ids);
+        ids.forEach(local::remove);
+        names.apply(Collections.emptyMap(), staleNames);
+        log.warn("user cache evicted after change stream failure, users: {}", ids.size());
+    }
+
+    private void clear() {
+        cache.clear();
+        names.clear();
+        local.clear();
+    }
+
+    /**
+     * 用户不再使用旧用户名：如果旧用户名未被批次内的其它用户占用，则标记为待删除
+     */
+    private static void releaseName(Map<String, Long> names, Set<String> staleNames, String name, Long id) {
+        if (name == null) {
+            return;
+        }
+        Long owner = names.get(name);
+        if (owner == null || owner.equals(id)) {
+            names.remove(name);
+            staleNames.add(name);
+        }
+    }
+
+    private static void addName(Set<String> names, User user) {
+        if (user != null && user.getName() != null) {
+            names.add(user.getName());
+        }
+    }
+
+}
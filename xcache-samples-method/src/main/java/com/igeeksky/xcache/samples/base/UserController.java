@@ -18,6 +18,11 @@ import java.util.Set;
 @RequestMapping("/user")
 public class UserController {
 
+    /**
+     * 请求头：值为 true 时，响应中附带缓存访问路径追踪（trace 字段）
+     */
+    public static final String TRACE_HEADER = "X-Cache-Trace";
+
     private final UserService userService;
 
     public UserController(UserService userService) {
@@ -28,16 +33,27 @@ public class UserController {
      * 根据用户ID获取单个用户信息
      */
     @GetMapping("/get/{id}")
-    public Response<User> getUser(@PathVariable("id") Long id) {
-        return userService.getUser(id);
+    public Response<User> getUser(@PathVariable("id") Long id,
+                                  @RequestHeader(value = TRACE_HEADER, defaultValue = "false") boolean trace) {
+        return userService.getUser(id, trace);
     }
 
     /**
      * 根据用户ID批量获取用户信息
      */
     @GetMapping("/get/list")
-    public Response<Map<Long, User>> getUsers(@RequestParam Set<Long> ids) {
-        return userService.getUsers(ids);
+    public Response<Map<Long, User>> getUsers(@RequestParam Set<Long> ids,
+                                              @RequestHeader(value = TRACE_HEADER, defaultValue = "false") boolean trace) {
+        return userService.getUsers(ids, trace);
+    }
+
+    /**
+     * 根据用户名获取单个用户信息
+     */
+    @GetMapping("/get/by-name")
+    public Response<User> getUserByName(@RequestParam String name,
+                                        @RequestHeader(value = TRACE_HEADER, defaultValue = "false") boolean trace) {
+        return userService.getUserByName(name, trace);
     }
 
     /**
@@ -0,0 +1,169 @@
+package com.igeeksky.xcache.samples.base;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.igeeksky.xcache.extension.jackson.JacksonCodec;
+import com.igeeksky.xcache.samples.User;
+import com.igeeksky.xcache.samples.UserDao;
+import com.igeeksky.xcache.samples.UserDaoProperties;
+import com.igeeksky.xcache.samples.front.FrontCache;
+import com.igeeksky.xcache.samples.front.FrontCacheProperties;
+import com.igeeksky.xcache.samples.front.FrontCacheSnapshot;
+import com.igeeksky.xcache.samples.front.SnapshotCodec;
+import com.igeeksky.xcache.samples.hotkey.HotKey;
+import com.igeeksky.xcache.samples.hotkey.HotKeyPinner;
+import com.igeeksky.xcache.samples.hotkey.HotKeyProperties;
+import com.igeeksky.xcache.samples.metrics.CacheMetrics;
+import com.igeeksky.xcache.samples.metrics.LongHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 位于 xcache 缓存之前的本地数据：热点键驻留数据与前置缓存（均可选）
+ * <p>
+ * 读取顺序：已驻留本地内存的热点数据直接返回，不再访问 xcache 缓存（避免集中访问同一个 Redis 分片）；
+ * 其次为前置缓存（新鲜期内直接返回；宽限期内返回旧数据并异步重新加载）；否则通过 xcache 缓存同步加载。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+final class UserLocalCache {
+
+    private static final Logger log = LoggerFactory.getLogger(UserLocalCache.class);
+
+    // 前置缓存（stale-while-revalidate，未启用时为 null）
+    private final FrontCache<Long, User> frontCache;
+    // 热点键本地驻留（未启用时为 null）
+    private final HotKeyPinner<User> hotKeys;
+    private final CacheObserver observer;
+    // 延迟分布（单位：纳秒）：热点键驻留数据、前置缓存的读取耗时
+    private final LongHistogram pinnedLatency;
+    private final LongHistogram frontLatency;
+
+    UserLocalCache(UserCacheProperties properties, UserDao userDao, UserDaoProperties userDaoProperties,
+                   ObservedUserCache cache, CacheObserver observer, CacheMetrics metrics) {
+        this.observer = observer;
+        this.pinnedLatency = metrics.latency("user", "pinned");
+        this.frontLatency = metrics.latency("user", "front");
+        FrontCacheProperties front = properties.getFront();
+        // 异步重新加载通过 xcache 缓存读取，不删除共享的缓存数据（热点数据重新加载时其它节点不会因此回源）
+        // 快照保存编码后的用户信息，启动时直接恢复到前置缓存，无需访问 xcache 缓存或数据库
+        this.frontCache = front.isEnabled()
+                ? new FrontCache<>("user-front", front, cache::load, frontSnapshot(front, userDao, userDaoProperties))
+                : null;
+        HotKeyProperties hotKey = properties.getHotKey();
+        this.hotKeys = hotKey.isEnabled()
+                ? new HotKeyPinner<>("user-hot-key", hotKey, cache::loadAll)
+                : null;
+    }
+
+    /**
+     * 前置缓存快照：仅当数据库同样启用持久化时才启用
+     * <p>
+     * 否则重启后数据库为空，快照中的用户均已不存在。快照记录数据库的纪元，纪元改变时（例如数据目录被删除）整个快照作废。
+     * <p>
+     * 值通过 xcache 的 JacksonCodec 编码，与 xcache 二级缓存默认的值编解码器（value-codec: jackson）一致。
+     *
+     * @return 快照（不启用时返回 null）
+     */
+    private static FrontCacheSnapshot<Long, User> frontSnapshot(FrontCacheProperties front, UserDao userDao,
+                                                                UserDaoProperties userDaoProperties) {
+        if (!front.getPersistence().isEnabled()) {
+            return null;
+        }
+        if (!userDaoProperties.getPersistence().isEnabled()) {
+            log.warn("user-front persistence ignored: samples.user-dao.persistence is disabled.");
+            return null;
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        JacksonCodec<User> codec = new JacksonCodec<>(mapper, mapper.getTypeFactory().constructType(User.class));
+        return new FrontCacheSnapshot<>(SnapshotCodec.longCodec(), SnapshotCodec.of(codec::encode, codec::decode),
+                userDao.getEpoch());
+    }
+
+    /**
+     * 获取单个用户信息：依次读取热点键驻留数据、前置缓存，均未启用或未命中时通过 loader 加载
+     *
+     * @param id     用户ID
+     * @param loader xcache 缓存的读取函数
+     * @return 用户信息
+     */
+    User get(Long id, Function<Long, User> loader) {
+        if (hotKeys != null) {
+            // 热点键：记录访问次数；已驻留本地内存的热点数据直接返回
+            CacheObserver.Span span = observer.begin();
+            User user = hotKeys.get(id);
+            if (user != null) {
+                span.endTraced("pinned", "get", id, pinnedLatency);
+                return user;
+            }
+        }
+        if (frontCache != null) {
+            CacheObserver.Span span = observer.begin();
+            User user = frontCache.get(id, loader);
+            span.endTraced("front", "get", id, frontLatency);
+            return user;
+        }
+        return loader.apply(id);
+    }
+
+    void put(User user) {
+        if (frontCache != null) {
+            frontCache.put(user.getId(), user);
+        }
+        if (hotKeys != null) {
+            hotKeys.put(user.getId(), user);
+        }
+    }
+
+    void remove(Long id) {
+        if (frontCache != null) {
+            frontCache.remove(id);
+        }
+        if (hotKeys != null) {
+            hotKeys.remove(id);
+        }
+    }
+
+    void clear() {
+        if (frontCache != null) {
+            frontCache.clear();
+        }
+        if (hotKeys != null) {
+            hotKeys.clear();
+        }
+    }
+
+    /**
+     * @return 热点键及估算访问次数（未启用热点键探测时返回空列表）
+     */
+    List<HotKey> hotKeys() {
+        return (hotKeys != null) ? hotKeys.hotKeys() : Collections.emptyList();
+    }
+
+    /**
+     * @return 已驻留本地内存的热点键（未启用热点键探测时返回空集合）
+     */
+    Set<Long> pinnedKeys() {
+        return (hotKeys != null) ? hotKeys.pinnedKeys() : Collections.emptySet();
+    }
+
+    /**
+     * 停止前置缓存的异步重新加载（启用持久化时写入快照）及热点键的周期任务
+     */
+    void close() {
+        if (frontCache != null) {
+            frontCache.close();
+            log.info("user-front closed: {}", frontCache.getStats());
+        }
+        if (hotKeys != null) {
+            hotKeys.close();
+            log.info("user-hot-key closed: {}", hotKeys.getStats());
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.igeeksky.xcache.samples.base;
+
+import com.igeeksky.xcache.common.Cache;
+import com.igeeksky.xcache.common.CacheLoader;
+import com.igeeksky.xcache.samples.User;
+import com.igeeksky.xcache.samples.UserDao;
+import com.igeeksky.xtool.core.collection.Maps;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 用户名索引缓存（name -> id）
+ * <p>
+ * 未命中时通过数据库的用户名唯一索引加载用户ID，无需遍历全表；用户写操作之后由调用方同步维护。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+final class UserNameIndex {
+
+    private final Cache<String, Long> nameCache;
+    private final CacheLoader<String, Long> nameCacheLoader;
+
+    UserNameIndex(Cache<String, Long> nameCache, UserDao userDao) {
+        this.nameCache = nameCache;
+        this.nameCacheLoader = new UserNameCacheLoader(userDao);
+    }
+
+    /**
+     * 获取用户名对应的用户ID
+     *
+     * @param name 用户名
+     * @return 用户ID（用户名不存在时返回 null）
+     */
+    Long getOrLoad(String name) {
+        return nameCache.getOrLoad(name, nameCacheLoader);
+    }
+
+    /**
+     * 删除用户名索引（已过期时调用，下次查询时重新加载）
+     *
+     * @param name 用户名
+     */
+    void remove(String name) {
+        nameCache.remove(name);
+    }
+
+    /**
+     * 新增用户
+     *
+     * @param user 新用户信息
+     */
+    void added(User user) {
+        if (user.getName() != null) {
+            nameCache.put(user.getName(), user.getId());
+        }
+    }
+
+    /**
+     * 更新用户：删除不再使用的旧用户名，写入新用户名
+     *
+     * @param old  更新前的用户信息
+     * @param user 更新后的用户信息
+     */
+    void updated(User old, User user) {
+        String oldName = old.getName();
+        String name = user.getName();
+        if (oldName != null && !oldName.equals(name)) {
+            nameCache.remove(oldName);
+        }
+        if (name != null) {
+            nameCache.put(name, user.getId());
+        }
+    }
+
+    /**
+     * 批量更新用户：批次内的用户可能互换用户名，因此仅删除不再使用的旧用户名
+     *
+     * @param olds    更新前的用户信息
+     * @param updated 更新后的用户信息
+     */
+    void updatedAll(Collection<User> olds, Collection<User> updated) {
+        Set<String> oldNames = new HashSet<>();
+        Map<String, Long> newNames = Maps.newHashMap(updated.size());
+        olds.forEach(old -> {
+            if (old.getName() != null) {
+                oldNames.add(old.getName());
+            }
+        });
+        updated.forEach(user -> {
+            if (user.getName() != null) {
+                newNames.put(user.getName(), user.getId());
+            }
+        });
+        oldNames.removeAll(newNames.keySet());
+        apply(newNames, oldNames);
+    }
+
+    /**
+     * 删除用户
+     *
+     * @param deleted 已删除的用户信息（用户不存在时为 null）
+     */
+    void deleted(User deleted) {
+        if (deleted != null && deleted.getName() != null) {
+            nameCache.remove(deleted.getName());
+        }
+    }
+
+    /**
+     * 批量删除用户
+     *
+     * @param deleted 已删除的用户信息
+     */
+    void deletedAll(Collection<User> deleted) {
+        Set<String> names = new HashSet<>(deleted.size());
+        deleted.forEach(user -> {
+            if (user.getName() != null) {
+                names.add(user.getName());
+            }
+        });
+        if (!names.isEmpty()) {
+            nameCache.removeAll(names);
+        }
+    }
+
+    /**
+     * 批量更新：先删除不再使用的用户名，再写入新用户名
+     *
+     * @param names      新用户名（name -> id）
+     * @param staleNames 不再使用的用户名
+     */
+    void apply(Map<String, Long> names, Set<String> staleNames) {
+        if (!staleNames.isEmpty()) {
+            nameCache.removeAll(staleNames);
+        }
+        if (!names.isEmpty()) {
+            nameCache.putAll(names);
+        }
+    }
+
+    void clear() {
+        nameCache.clear();
+    }
+
+    /**
+     * 用户名索引的 CacheLoader 实现类
+     * <p>
+     * 通过数据库的用户名唯一索引加载用户ID，无需遍历全表。
+     *
+     * @param userDao
+     */
+    private record UserNameCacheLoader(UserDao userDao) implements CacheLoader<String, Long> {
+
+        @Override
+        public Long load(String name) {
+            return this.userDao.findIdByName(name);
+        }
+
+    }
+
+}
@@ -2,6 +2,8 @@ package com.igeeksky.xcache.samples.base;
 
 import com.igeeksky.xcache.samples.Response;
 import com.igeeksky.xcache.samples.User;
+import com.igeeksky.xcache.samples.hotkey.HotKey;
+import com.igeeksky.xcache.samples.trace.CacheTrace;
 import com.igeeksky.xtool.core.collection.CollectionUtils;
 import com.igeeksky.xtool.core.lang.StringUtils;
 import org.springframework.stereotype.Service;
@@ -9,6 +11,7 @@ import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * 用户服务
@@ -25,6 +28,16 @@ public class UserService {
         this.userCacheService = userCacheService;
     }
 
+    /**
+     * 根据用户ID获取单个用户信息
+     *
+     * @param id    用户ID
+     * @param trace 是否返回缓存访问路径追踪
+     */
+    public Response<User> getUser(Long id, boolean trace) {
+        return traced(trace, () -> getUser(id));
+    }
+
     /**
      * 根据用户ID获取单个用户信息
      */
@@ -39,6 +52,16 @@ public class UserService {
         }
     }
 
+    /**
+     * 根据用户ID批量获取用户信息
+     *
+     * @param ids   用户ID集合
+     * @param trace 是否返回缓存访问路径追踪
+     */
+    public Response<Map<Long, User>> getUsers(Set<Long> ids, boolean trace) {
+        return traced(trace, () -> getUsers(ids));
+    }
+
     /**
      * 根据用户ID批量获取用户信息
      */
@@ -58,6 +81,31 @@ public class UserService {
         }
     }
 
+    /**
+     * 根据用户名获取单个用户信息
+     *
+     * @param name  用户名
+     * @param trace 是否返回缓存访问路径追踪
+     */
+    public Response<User> getUserByName(String name, boolean trace) {
+        return traced(trace, () -> getUserByName(name));
+    }
+
+    /**
+     * 根据用户名获取单个用户信息
+     */
+    public Response<User> getUserByName(String name) {
+        String trimmed = StringUtils.trimToNull(name);
+        if (trimmed == null) {
+            return Response.error("name is null");
+        }
+        try {
+            return Response.ok(userCacheService.getUserByName(trimmed));
+        } catch (RuntimeException e) {
+            return Response.error(e.getMessage());
+        }
+    }
+
     /**
      * 添加单个新用户
      */
@@ -67,7 +115,7 @@ public class UserService {
             return error;
         }
         try {
-            return Response.ok(userCacheService.saveUser(user));
+            return Response.ok(userCacheService.saveUser(trimName(user)));
         } catch (RuntimeException e) {
             return Response.error(e.getMessage());
         }
@@ -82,7 +130,7 @@ public class UserService {
             return error;
         }
         try {
-            return Response.ok(userCacheService.updateUser(user));
+            return Response.ok(userCacheService.updateUser(trimName(user)));
         } catch (RuntimeException e) {
             return Response.error(e.getMessage());
         }
@@ -102,7 +150,7 @@ public class UserService {
             }
         }
         try {
-            return Response.ok(userCacheService.updateUsers(users));
+            return Response.ok(userCacheService.updateUsers(users.stream().map(UserService::trimName).toList()));
         } catch (RuntimeException e) {
             return Response.error(e.getMessage());
         }
@@ -158,7 +206,6 @@ public class UserService {
         if (name == null) {
             return Response.error("user name is null");
         }
-        user.setName(name);
         return null;
     }
 
@@ -177,10 +224,18 @@ public class UserService {
         if (name == null) {
             return Response.error("user name is null");
         }
-        user.setName(name);
         return null;
     }
 
+    /**
+     * 去除用户名的首尾空白
+     * <p>
+     * User 为不可变对象，因此返回新的用户对象
+     */
+    private static User trimName(User user) {
+        return user.withName(StringUtils.trimToNull(user.getName()));
+    }
+
     /**
      * 清空数据库及缓存的所有元素，以便测试
      */
@@ -193,4 +248,33 @@ public class UserService {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * 获取热点键及估算访问次数
+     */
+    public Response<List<HotKey>> getHotKeys() {
+        return Response.ok(userCacheService.getHotKeys());
+    }
+
+    /**
+     * 获取已驻留本地内存的热点键
+     */
+    public Response<Set<Long>> getPinnedKeys() {
+        return Response.ok(userCacheService.getPinnedKeys());
+    }
+
+    /**
+     * 开启追踪时，在当前线程绑定追踪上下文，执行完成后将追踪快照附加到响应
+     */
+    private static <T> Response<T> traced(boolean trace, Supplier<Response<T>> action) {
+        if (!trace) {
+            return action.get();
+        }
+        CacheTrace context = CacheTrace.begin();
+        try {
+            return action.get().withTrace(context.snapshot());
+        } finally {
+            CacheTrace.end();
+        }
+    }
+
+}
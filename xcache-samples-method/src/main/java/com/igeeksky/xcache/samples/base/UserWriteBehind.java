@@ -0,0 +1,303 @@
+package com.igeeksky.xcache.samples.base;
+
+import com.igeeksky.xcache.samples.User;
+import com.igeeksky.xcache.samples.UserDao;
+import com.igeeksky.xcache.samples.writer.WriteBehindBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * 用户信息延迟写
+ * <p>
+ * 更新请求校验通过后提交到缓冲区即返回，数据库写操作由后台线程合并后批量完成；
+ * 尚未写入数据库的用户名由此类占用，因为数据库唯一索引无法校验这些用户名。
+ * <p>
+ * 按用户ID分段加锁：同一用户的提交与丢弃串行执行，不同用户互不阻塞；用户名通过 putIfAbsent 原子占用。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+final class UserWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(UserWriteBehind.class);
+
+    // 分段锁的数量（2 的幂）
+    private static final int STRIPES = 64;
+    // 新增用户占用用户名时使用的用户ID（有效的用户ID均大于 0）
+    private static final Long NEW_USER = 0L;
+
+    private final UserDao userDao;
+    private final WriteBehindBuffer<Long, User> buffer;
+    private final long shutdownTimeout;
+    // 写入数据库失败的用户ID回调（由调用方删除相关缓存）
+    private final Consumer<Long> onFailure;
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    // 尚未写入数据库的用户名（name -> id）
+    private final Map<String, Long> pendingNames = new ConcurrentHashMap<>();
+
+    /**
+     * @param userDao    数据库
+     * @param properties 延迟写配置
+     * @param onFailure  写入数据库失败的用户ID回调（缓存数据未能写入数据库，须删除相关缓存）
+     */
+    UserWriteBehind(UserDao userDao, UserCacheProperties.WriteBehind properties, Consumer<Long> onFailure) {
+        this.userDao = userDao;
+        this.onFailure = onFailure;
+        this.shutdownTimeout = properties.getShutdownTimeout();
+        this.buffer = new WriteBehindBuffer<>("user-write-behind", this::writeUsers,
+                properties.getCapacity(), properties.getBatchSize(), properties.getFlushInterval());
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * 获取尚未写入数据库的用户信息
+     *
+     * @param id 用户ID
+     * @return 用户信息（没有待写入的更新时返回 null）
+     */
+    User get(Long id) {
+        return buffer.get(id);
+    }
+
+    /**
+     * 新增用户：保存期间占用用户名，避免与尚未写入数据库的更新冲突（数据库唯一索引校验已写入的用户名）
+     *
+     * @param user 新用户信息
+     * @return 保存到数据库后返回的用户信息
+     */
+    User save(User user) {
+        String name = user.getName();
+        if (name != null && pendingNames.putIfAbsent(name, NEW_USER) != null) {
+            throw new RuntimeException("name:[" + name + "] is exist");
+        }
+        try {
+            return userDao.save(user);
+        } finally {
+            if (name != null) {
+                pendingNames.remove(name, NEW_USER);
+            }
+        }
+    }
+
+    /**
+     * 提交更新
+     *
+     * @param user 待更新的用户信息（调用方已确认用户存在）
+     * @param old  缓存中的用户信息
+     * @return 更新前的用户信息：有尚未写入的更新时返回该更新，否则返回缓存中的用户信息
+     */
+    User submit(User user, User old) {
+        ReentrantLock lock = locks[stripe(user.getId())];
+        lock.lock();
+        try {
+            boolean claimed = claimName(user.getId(), user.getName());
+            User previous = buffer.get(user.getId());
+            try {
+                buffer.submit(user.getId(), user);
+            } catch (RuntimeException e) {
+                releaseName(claimed, user);
+                throw e;
+            }
+            releasePrevious(previous, user);
+            return (previous != null) ? previous : old;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 批量提交更新：任一用户名校验失败则整批不提交
+     *
+     * @param users 待更新的用户信息（调用方已确认用户存在且批次内无重复）
+     * @param olds  缓存中的用户信息，有尚未写入的更新时替换为该更新
+     */
+    void submitAll(Map<Long, User> users, Map<Long, User> olds) {
+        // 按分段序号升序加锁，避免与其它批量操作死锁
+        int[] stripes = lock(users.keySet());
+        try {
+            List<User> claimed = new ArrayList<>(users.size());
+            try {
+                for (User user : users.values()) {
+                    if (claimName(user.getId(), user.getName())) {
+                        claimed.add(user);
+                    }
+                }
+            } catch (RuntimeException e) {
+                claimed.forEach(user -> releaseName(true, user));
+                throw e;
+            }
+            for (User user : users.values()) {
+                User previous = buffer.get(user.getId());
+                buffer.submit(user.getId(), user);
+                releasePrevious(previous, user);
+                if (previous != null) {
+                    olds.put(user.getId(), previous);
+                }
+            }
+        } finally {
+            unlock(stripes);
+        }
+    }
+
+    /**
+     * 丢弃用户尚未写入的更新，并释放其占用的用户名（避免回源加载读到已删除的用户）
+     *
+     * @param ids 用户ID集合
+     */
+    void discardAll(Collection<Long> ids) {
+        int[] stripes = lock(ids);
+        try {
+            ids.forEach(this::discard);
+        } finally {
+            unlock(stripes);
+        }
+    }
+
+    /**
+     * 丢弃所有尚未写入的更新
+     */
+    void clear() {
+        int[] stripes = lock(null);
+        try {
+            buffer.clear();
+            pendingNames.clear();
+        } finally {
+            unlock(stripes);
+        }
+    }
+
+    /**
+     * 将缓冲区中的数据全部写入数据库（最多等待 shutdownTimeout）
+     */
+    void close() {
+        buffer.close(shutdownTimeout);
+        log.info("user-write-behind closed: {}", buffer.getStats());
+    }
+
+    /**
+     * 占用用户名（调用方需持有该用户的分段锁）
+     * <p>
+     * 先通过 putIfAbsent 原子占用，再校验数据库中未被其它用户占用，因此并发请求不会通过校验后设置相同的用户名。
+     * <p>
+     * 保守校验：数据库中占用此用户名的用户即使已有待写入的改名，仍视为冲突，
+     * 因为两者可能被分到不同批次写入，先写入的一批会因用户名重复而失败。
+     *
+     * @param id   用户ID
+     * @param name 用户名
+     * @return 是否为新占用（此前已由同一用户占用时返回 false）
+     */
+    private boolean claimName(Long id, String name) {
+        if (name == null) {
+            return false;
+        }
+        Long claimed = pendingNames.putIfAbsent(name, id);
+        if (claimed != null && !claimed.equals(id)) {
+            throw new RuntimeException("name:[" + name + "] is exist");
+        }
+        Long existing = userDao.findIdByName(name);
+        if (existing != null && !existing.equals(id)) {
+            if (claimed == null) {
+                pendingNames.remove(name, id);
+            }
+            throw new RuntimeException("name:[" + name + "] is exist");
+        }
+        return claimed == null;
+    }
+
+    /**
+     * 提交失败时释放新占用的用户名
+     */
+    private void releaseName(boolean claimed, User user) {
+        if (claimed) {
+            pendingNames.remove(user.getName(), user.getId());
+        }
+    }
+
+    /**
+     * 释放同一用户此前尚未写入且不再使用的用户名（调用方需持有该用户的分段锁）
+     */
+    private void releasePrevious(User previous, User user) {
+        if (previous != null && previous.getName() != null && !previous.getName().equals(user.getName())) {
+            pendingNames.remove(previous.getName(), user.getId());
+        }
+    }
+
+    /**
+     * 丢弃用户尚未写入的更新，并释放其占用的用户名（调用方需持有该用户的分段锁）
+     */
+    private void discard(Long id) {
+        User pending = buffer.get(id);
+        buffer.discard(id);
+        if (pending != null && pending.getName() != null) {
+            pendingNames.remove(pending.getName(), id);
+        }
+    }
+
+    /**
+     * 将缓冲区中的一批用户信息写入数据库
+     *
+     * @param users 待写入的用户信息（已按用户ID合并）
+     */
+    private void writeUsers(Map<Long, User> users) {
+        try {
+            userDao.batchUpdate(new ArrayList<>(users.values()));
+        } catch (RuntimeException e) {
+            // 批量更新为整体校验，任一用户不合法则整批失败：逐个写入以隔离失败的用户
+            for (User user : users.values()) {
+                try {
+                    userDao.update(user);
+                } catch (RuntimeException ex) {
+                    log.warn("write-behind update failed, user: {}. {}", user, ex.getMessage());
+                    // 缓存数据未能写入数据库：先使回源加载不再读到此值，再删除缓存数据，后续查询时从数据库重新加载
+                    buffer.discard(user.getId(), user);
+                    onFailure.accept(user.getId());
+                }
+            }
+        }
+        // 已写入数据库（或已放弃）的用户名不再需要占用：数据库唯一索引可校验已写入的用户名
+        users.values().forEach(user -> {
+            if (user.getName() != null) {
+                pendingNames.remove(user.getName(), user.getId());
+            }
+        });
+    }
+
+    /**
+     * 用户ID对应的分段序号
+     */
+    private static int stripe(Long id) {
+        int h = Long.hashCode(id);
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    /**
+     * 按分段序号升序锁定多个用户的分段锁
+     *
+     * @param ids 用户ID集合（为 null 时锁定全部分段）
+     * @return 已锁定的分段序号，用于 {@link #unlock(int[])}
+     */
+    private int[] lock(Collection<Long> ids) {
+        int[] stripes = (ids == null)
+                ? IntStream.range(0, STRIPES).toArray()
+                : ids.stream().mapToInt(UserWriteBehind::stripe).distinct().sorted().toArray();
+        for (int stripe : stripes) {
+            locks[stripe].lock();
+        }
+        return stripes;
+    }
+
+    private void unlock(int[] stripes) {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            locks[stripes[i]].unlock();
+        }
+    }
+
+}
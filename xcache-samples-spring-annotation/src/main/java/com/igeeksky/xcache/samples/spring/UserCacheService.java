@@ -2,6 +2,10 @@ package com.igeeksky.xcache.samples.spring;
 
 import com.igeeksky.xcache.samples.User;
 import com.igeeksky.xcache.samples.UserDao;
+import com.igeeksky.xtool.core.collection.Maps;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
@@ -10,7 +14,10 @@ import org.springframework.context.annotation.Import;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -30,9 +37,12 @@ import java.util.concurrent.CompletableFuture;
 public class UserCacheService {
 
     private final UserDao userDao;
+    // Spring cache 没有批量注解，批量更新与批量删除需通过 Cache 对象直接操作缓存
+    private final Cache cache;
 
-    public UserCacheService(UserDao userDao) {
+    public UserCacheService(UserDao userDao, @Qualifier("springCacheManager") CacheManager cacheManager) {
         this.userDao = userDao;
+        this.cache = cacheManager.getCache("user");
     }
 
     /**
@@ -100,7 +110,24 @@ public class UserCacheService {
      */
     @CachePut(key = "#result.id")
     public User updateUser(User user) {
-        return userDao.update(user);
+        userDao.update(user);
+        return user;
+    }
+
+    /**
+     * 批量更新用户信息
+     * <p>
+     * Spring cache 没有 {@code CachePutAll} 注解，因此调用 userDao.batchUpdate 一次性更新数据后，再逐个写入缓存.
+     *
+     * @param users 用户信息列表
+     * @return {@code Map<Long, User>} – 用户信息集合
+     */
+    public Map<Long, User> updateUsers(List<User> users) {
+        userDao.batchUpdate(users);
+        Map<Long, User> updated = Maps.newHashMap(users.size());
+        users.forEach(user -> updated.put(user.getId(), user));
+        updated.forEach(cache::put);
+        return updated;
     }
 
     /**
@@ -113,6 +140,18 @@ public class UserCacheService {
         userDao.delete(id);
     }
 
+    /**
+     * 批量删除用户信息
+     * <p>
+     * Spring cache 没有 {@code CacheEvictAll} 注解，因此调用 userDao.batchDelete 一次性删除数据后，再逐个删除缓存.
+     *
+     * @param ids 用户ID集合
+     */
+    public void deleteUsers(Set<Long> ids) {
+        userDao.batchDelete(ids);
+        ids.forEach(cache::evict);
+    }
+
     /**
      * 清空数据
      */
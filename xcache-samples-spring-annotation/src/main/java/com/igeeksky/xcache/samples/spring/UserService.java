@@ -75,7 +75,7 @@ public class UserService {
             return error;
         }
         try {
-            return Response.ok(userCacheService.saveUser(user));
+            return Response.ok(userCacheService.saveUser(trimName(user)));
         } catch (RuntimeException e) {
             return Response.error(e.getMessage());
         }
@@ -90,7 +90,7 @@ public class UserService {
             return error;
         }
         try {
-            return Response.ok(userCacheService.updateUser(user));
+            return Response.ok(userCacheService.updateUser(trimName(user)));
         } catch (RuntimeException e) {
             return Response.error(e.getMessage());
         }
@@ -109,13 +109,8 @@ public class UserService {
                 return Response.error(error.getMsg());
             }
         }
-        Map<Long, User> updates = Maps.newHashMap(users.size());
         try {
-            for (User user : users) {
-                User updated = userCacheService.updateUser(user);
-                updates.put(updated.getId(), updated);
-            }
-            return Response.ok(updates);
+            return Response.ok(userCacheService.updateUsers(users.stream().map(UserService::trimName).toList()));
         } catch (RuntimeException e) {
             return Response.error(e.getMessage());
         }
@@ -149,7 +144,7 @@ public class UserService {
             }
         }
         try {
-            ids.forEach(userCacheService::deleteUser);
+            userCacheService.deleteUsers(ids);
             return Response.ok();
         } catch (RuntimeException e) {
             return Response.error(e.getMessage());
@@ -171,7 +166,6 @@ public class UserService {
         if (name == null) {
             return Response.error("user name is null");
         }
-        user.setName(name);
         return null;
     }
 
@@ -190,10 +184,18 @@ public class UserService {
         if (name == null) {
             return Response.error("user name is null");
         }
-        user.setName(name);
         return null;
     }
 
+    /**
+     * 去除用户名的首尾空白
+     * <p>
+     * User 为不可变对象，因此返回新的用户对象
+     */
+    private static User trimName(User user) {
+        return user.withName(StringUtils.trimToNull(user.getName()));
+    }
+
     /**
      * 清空数据库及缓存的所有元素，以便测试
      */
@@ -98,8 +98,7 @@ public class UserControllerTest {
     void updateUser() {
         clear();
 
-        User user = createUser("{\"name\":\"Jack5\",\"age\":18}").getData();
-        user.setAge(20);
+        User user = createUser("{\"name\":\"Jack5\",\"age\":18}").getData().withAge(20);
 
         Response<User> response = updateUser(user.toString());
         System.out.printf("%s : %s\n", "updateUser", response.getData());
@@ -110,13 +109,9 @@ public class UserControllerTest {
     void updateUsers() {
         clear();
 
-        User Jack6 = createUser("{\"name\":\"Jack6\",\"age\":18}").getData();
-        User Jack7 = createUser("{\"name\":\"Jack7\",\"age\":18}").getData();
-        User Jack8 = createUser("{\"name\":\"Jack8\",\"age\":18}").getData();
-
-        Jack6.setAge(20);
-        Jack7.setAge(21);
-        Jack8.setAge(22);
+        User Jack6 = createUser("{\"name\":\"Jack6\",\"age\":18}").getData().withAge(20);
+        User Jack7 = createUser("{\"name\":\"Jack7\",\"age\":18}").getData().withAge(21);
+        User Jack8 = createUser("{\"name\":\"Jack8\",\"age\":18}").getData().withAge(22);
 
         List<User> users = List.of(Jack6, Jack7, Jack8);
 
@@ -0,0 +1,163 @@
+package com.igeeksky.xcache;
+
+import com.igeeksky.xcache.samples.metrics.LongHistogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 并发连接压测：对比平台线程与虚拟线程（virtual 配置文件）运行模式的吞吐量及延迟
+ * <p>
+ * 每个客户端为一个虚拟线程，持续循环请求 /user/get/{id}（随机选取预先创建的用户）。
+ * 预热之后重置统计，测量期间记录每次请求的延迟，结束时输出吞吐量、p50/p99/p999 延迟及失败次数。
+ * <p>
+ * 使用方法：
+ * <ol>
+ *     <li>启动示例应用（例如 xcache-samples-method），分别以默认配置与 --spring.profiles.active=virtual 各运行一次；</li>
+ *     <li>运行此类的 main 方法，对比两次的输出。</li>
+ * </ol>
+ * 可通过系统属性调整参数：host（默认 http://localhost:8080）、clients（默认 10000）、users（默认 10000）、
+ * warmup（默认 10 秒）、duration（默认 30 秒）。
+ * <p>
+ * 注意：一万个并发连接需调大客户端与服务端的文件描述符上限（例如 ulimit -n 65536）。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+public class UserLoadTest {
+
+    private static final String HOST = System.getProperty("host", "http://localhost:8080");
+    private static final int CLIENTS = Integer.getInteger("clients", 10000);
+    private static final int USERS = Integer.getInteger("users", 10000);
+    private static final long WARMUP = Long.getLong("warmup", 10);
+    private static final long DURATION = Long.getLong("duration", 30);
+
+    private static final Pattern ID_PATTERN = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    // 客户端请求使用虚拟线程执行，每个并发请求占用一个连接（HTTP/1.1）
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final LongHistogram latency = new LongHistogram();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile boolean running = true;
+
+    public static void main(String[] args) throws Exception {
+        long[] ids = prepare();
+        System.out.printf("host=%s, clients=%d, users=%d, warmup=%ds, duration=%ds%n",
+                HOST, CLIENTS, ids.length, WARMUP, DURATION);
+        new UserLoadTest().run(ids);
+        System.exit(0);
+    }
+
+    /**
+     * 清空数据并创建 USERS 个用户
+     *
+     * @return 用户ID数组
+     */
+    private static long[] prepare() throws InterruptedException {
+        send(HttpRequest.newBuilder(URI.create(HOST + "/user/clear")).DELETE().build());
+        AtomicLongArray ids = new AtomicLongArray(USERS);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < USERS; i++) {
+                int index = i;
+                executor.execute(() -> {
+                    String body = "{\"name\":\"load" + index + "\",\"age\":18}";
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(HOST + "/user/create"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build();
+                    Matcher matcher = ID_PATTERN.matcher(send(request).body());
+                    if (matcher.find()) {
+                        ids.set(index, Long.parseLong(matcher.group(1)));
+                    }
+                });
+            }
+        }
+        List<Long> created = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            if (ids.get(i) > 0) {
+                created.add(ids.get(i));
+            }
+        }
+        if (created.isEmpty()) {
+            throw new IllegalStateException("no user created, check the application: " + HOST);
+        }
+        return created.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private void run(long[] ids) throws InterruptedException {
+        Thread[] clients = new Thread[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = Thread.ofVirtual().name("load-client-", i).start(() -> loop(ids));
+        }
+        TimeUnit.SECONDS.sleep(WARMUP);
+        // 预热期间的请求（包括建立连接）不计入统计
+        latency.reset();
+        requests.reset();
+        failures.reset();
+        long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(DURATION);
+        LongHistogram.Snapshot snapshot = latency.snapshot();
+        long count = requests.sum();
+        long fails = failures.sum();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        running = false;
+        for (Thread client : clients) {
+            client.join(TimeUnit.SECONDS.toMillis(30));
+        }
+
+        System.out.printf("throughput=%.0f req/s, requests=%d, failures=%d%n", count / seconds, count, fails);
+        System.out.printf("latency(ms): p50=%.2f, p99=%.2f, p999=%.2f, max=%.2f%n",
+                snapshot.p50() / 1e6, snapshot.p99() / 1e6, snapshot.p999() / 1e6, snapshot.max() / 1e6);
+    }
+
+    private void loop(long[] ids) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running) {
+            long id = ids[random.nextInt(ids.length)];
+            HttpRequest request = HttpRequest.newBuilder(URI.create(HOST + "/user/get/" + id)).GET().build();
+            long begin = System.nanoTime();
+            try {
+                HttpResponse<String> response = CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    failures.increment();
+                }
+            } catch (IOException e) {
+                failures.increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            latency.record(System.nanoTime() - begin);
+            requests.increment();
+        }
+    }
+
+    private static HttpResponse<String> send(HttpRequest request) {
+        try {
+            return CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException | InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
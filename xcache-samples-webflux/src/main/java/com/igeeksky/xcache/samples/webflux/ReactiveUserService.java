@@ -0,0 +1,140 @@
+package com.igeeksky.xcache.samples.webflux;
+
+import com.igeeksky.xcache.samples.Response;
+import com.igeeksky.xcache.samples.User;
+import com.igeeksky.xcache.samples.base.UserService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户服务（响应式）
+ * <p>
+ * 复用 xcache-samples-method 的 {@link UserService}（参数校验、用户名缓存、延迟写、前置缓存等均与其一致），
+ * 仅负责线程切换：缓存操作为同步阻塞调用（二级缓存需等待 Redis 响应，回源需等待数据库响应），
+ * 不能在 Netty 事件循环线程中执行，因此所有操作均切换到虚拟线程执行。
+ * <p>
+ * 单条操作返回 {@code Mono<Response>}；批量操作返回 {@code Flux<User>}，
+ * 失败时以 {@link IllegalStateException} 结束数据流，由控制器统一转换为 Response。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@Service
+@EnableConfigurationProperties(WebFluxProperties.class)
+public class ReactiveUserService {
+
+    private final UserService userService;
+
+    private final ExecutorService executor;
+    private final Scheduler scheduler;
+
+    public ReactiveUserService(UserService userService, WebFluxProperties properties) {
+        this.userService = userService;
+        String name = properties.getSchedulerName();
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+        this.scheduler = Schedulers.fromExecutorService(this.executor, name);
+    }
+
+    /**
+     * 根据用户ID获取单个用户信息
+     */
+    public Mono<Response<User>> getUser(Long id, boolean trace) {
+        return execute(() -> userService.getUser(id, trace));
+    }
+
+    /**
+     * 根据用户ID批量获取用户信息
+     */
+    public Flux<User> getUsers(Set<Long> ids) {
+        // 批量查询只占用一个虚拟线程，并复用 getAllOrLoad 的批量访问 Redis 与批量回源
+        return execute(() -> userService.getUsers(ids)).flatMapIterable(ReactiveUserService::values);
+    }
+
+    /**
+     * 根据用户名获取单个用户信息
+     */
+    public Mono<Response<User>> getUserByName(String name, boolean trace) {
+        return execute(() -> userService.getUserByName(name, trace));
+    }
+
+    /**
+     * 添加单个新用户
+     */
+    public Mono<Response<User>> addUser(User user) {
+        return execute(() -> userService.addUser(user));
+    }
+
+    /**
+     * 修改单个用户信息
+     */
+    public Mono<Response<User>> updateUser(User user) {
+        return execute(() -> userService.updateUser(user));
+    }
+
+    /**
+     * 批量修改用户信息
+     */
+    public Flux<User> updateUsers(List<User> users) {
+        return execute(() -> userService.updateUsers(users)).flatMapIterable(ReactiveUserService::values);
+    }
+
+    /**
+     * 删除单个用户信息
+     */
+    public Mono<Response<Void>> deleteUser(Long id) {
+        return execute(() -> userService.deleteUser(id));
+    }
+
+    /**
+     * 批量删除用户信息
+     */
+    public Mono<Response<Void>> deleteUsers(Set<Long> ids) {
+        return execute(() -> userService.deleteUsers(ids));
+    }
+
+    /**
+     * 清空数据库及缓存的所有元素，以便测试
+     */
+    public Mono<Response<Void>> clear() {
+        return execute(userService::clear);
+    }
+
+    /**
+     * 在虚拟线程中执行同步调用
+     */
+    private <T> Mono<T> execute(Callable<T> callable) {
+        return Mono.fromCallable(callable).subscribeOn(scheduler);
+    }
+
+    /**
+     * 取出批量操作的结果：失败时抛出异常，以错误结束数据流
+     */
+    private static Iterable<User> values(Response<Map<Long, User>> response) {
+        if (response.getCode() != Response.OK) {
+            throw new IllegalStateException(response.getMsg());
+        }
+        Map<Long, User> data = response.getData();
+        return (data == null) ? List.of() : data.values();
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        scheduler.dispose();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+}
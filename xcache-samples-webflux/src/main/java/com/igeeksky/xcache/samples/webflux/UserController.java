@@ -0,0 +1,120 @@
+package com.igeeksky.xcache.samples.webflux;
+
+import com.igeeksky.xcache.samples.Response;
+import com.igeeksky.xcache.samples.User;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 用户信息接口（WebFlux）
+ * <p>
+ * 接口路径与 xcache-samples-method 一致；批量接口返回 {@code Flux<User>}，
+ * 请求头 Accept 为 application/x-ndjson 时逐条流式输出，否则输出为 JSON 数组。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@RestController
+@RequestMapping("/user")
+public class UserController {
+
+    /**
+     * 请求头：值为 true 时，响应中附带缓存访问路径追踪（trace 字段）
+     */
+    public static final String TRACE_HEADER = "X-Cache-Trace";
+
+    private final ReactiveUserService userService;
+
+    public UserController(ReactiveUserService userService) {
+        this.userService = userService;
+    }
+
+    /**
+     * 根据用户ID获取单个用户信息
+     */
+    @GetMapping("/get/{id}")
+    public Mono<Response<User>> getUser(@PathVariable("id") Long id,
+                                        @RequestHeader(value = TRACE_HEADER, defaultValue = "false") boolean trace) {
+        return userService.getUser(id, trace);
+    }
+
+    /**
+     * 根据用户ID批量获取用户信息
+     */
+    @GetMapping(value = "/get/list", produces = {"application/json", "application/x-ndjson"})
+    public Flux<User> getUsers(@RequestParam Set<Long> ids) {
+        return userService.getUsers(ids);
+    }
+
+    /**
+     * 根据用户名获取单个用户信息
+     */
+    @GetMapping("/get/by-name")
+    public Mono<Response<User>> getUserByName(@RequestParam String name,
+                                              @RequestHeader(value = TRACE_HEADER, defaultValue = "false") boolean trace) {
+        return userService.getUserByName(name, trace);
+    }
+
+    /**
+     * 新增单个用户信息
+     */
+    @PostMapping("/create")
+    public Mono<Response<User>> createUser(@RequestBody User user) {
+        return userService.addUser(user);
+    }
+
+    /**
+     * 修改单个用户信息
+     */
+    @PostMapping("/update")
+    public Mono<Response<User>> updateUser(@RequestBody User user) {
+        return userService.updateUser(user);
+    }
+
+    /**
+     * 批量修改用户信息
+     */
+    @PostMapping(value = "/update/list", produces = {"application/json", "application/x-ndjson"})
+    public Flux<User> updateUsers(@RequestBody List<User> users) {
+        return userService.updateUsers(users);
+    }
+
+    /**
+     * 删除单个用户信息
+     */
+    @DeleteMapping("/delete/{id}")
+    public Mono<Response<Void>> deleteUser(@PathVariable Long id) {
+        return userService.deleteUser(id);
+    }
+
+    /**
+     * 删除多个用户信息
+     */
+    @DeleteMapping("/delete/list")
+    public Mono<Response<Void>> deleteUsers(@RequestParam Set<Long> ids) {
+        return userService.deleteUsers(ids);
+    }
+
+    /**
+     * 清空所有数据，以便测试
+     *
+     * @return Response
+     */
+    @DeleteMapping("/clear")
+    public Mono<Response<Void>> clear() {
+        return userService.clear();
+    }
+
+    /**
+     * 批量接口失败（参数错误或数据访问异常）及其它运行时异常：与单条接口一致，转换为错误响应
+     */
+    @ExceptionHandler(RuntimeException.class)
+    public Response<Void> handleRuntimeException(RuntimeException e) {
+        return Response.error(e.getMessage());
+    }
+
+}
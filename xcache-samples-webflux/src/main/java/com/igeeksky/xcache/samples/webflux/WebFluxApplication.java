@@ -0,0 +1,35 @@
+package com.igeeksky.xcache.samples.webflux;
+
+import com.igeeksky.xcache.samples.base.UserCacheService;
+import com.igeeksky.xcache.samples.base.UserCacheWarmUp;
+import com.igeeksky.xcache.samples.base.UserService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+
+/**
+ * 与 {@code @SpringBootApplication} 相同，但扫描时排除 xcache-samples-method 的 base 包：
+ * 仅导入其中的服务类，其控制器（Spring MVC）与启动类不注册。
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@ComponentScan(basePackages = "com.igeeksky.xcache.samples", excludeFilters = {
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = AutoConfigurationExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.REGEX, pattern = "com\\.igeeksky\\.xcache\\.samples\\.base\\..*")})
+@Import({UserCacheService.class, UserService.class, UserCacheWarmUp.class})
+public class WebFluxApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(WebFluxApplication.class, args);
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.igeeksky.xcache.samples.webflux;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * WebFlux 示例配置
+ *
+ * @author Patrick.Lau
+ * @since 1.0.2 2026/10/17
+ */
+@ConfigurationProperties(prefix = "samples.webflux")
+public class WebFluxProperties {
+
+    /**
+     * 执行缓存操作的虚拟线程名称前缀
+     */
+    private String schedulerName = "user-cache";
+
+    public String getSchedulerName() {
+        return schedulerName;
+    }
+
+    public void setSchedulerName(String schedulerName) {
+        this.schedulerName = schedulerName;
+    }
+
+}